@@ -1 +1,4 @@
--keep class ai.picovoice.cobra.*Exception { <init>(...); }
\ No newline at end of file
+-keep class ai.picovoice.cobra.*Exception { <init>(...); }
+-keepclasseswithmembernames,includedescriptorclasses class ai.picovoice.cobra.CobraNative {
+    native <methods>;
+}
@@ -12,6 +12,7 @@
 package ai.picovoice.cobra;
 
 import android.content.Context;
+import android.os.Debug;
 
 /**
  *   Android binding for Cobra voice activity detection (VAD) engine. It detects speech signals
@@ -20,16 +21,34 @@ import android.content.Context;
  *   frame can be attained by calling {@link #getFrameLength()}. The incoming audio needs to have a
  *   sample rate equal to {@link #getSampleRate()} and be 16-bit linearly-encoded. Cobra operates on
  *   single-channel audio.
+ *
+ *   <p>Instances hold native resources and should be released with {@link #delete()} (or
+ *   {@link #close()}, e.g. through try-with-resources). Instances that become unreachable without
+ *   being released are freed on a background thread and a warning with their allocation site is
+ *   logged.
  **/
-public class Cobra {
+public class Cobra implements CobraEngine {
 
     private static String _sdk = "android";
 
+    // constants of the native library, cached so that processing a frame is a single JNI call
+    private static final int FRAME_LENGTH;
+    private static final int SAMPLE_RATE;
+
+    private static final ThreadLocal<short[]> BATCH_FRAME = new ThreadLocal<>();
+
     static {
         System.loadLibrary("pv_cobra");
+        FRAME_LENGTH = CobraNative.getFrameLength();
+        SAMPLE_RATE = CobraNative.getSampleRate();
     }
 
-    private long handle;
+    private final String accessKey;
+    private final String device;
+    private final CobraNativeTracker.Handle handle;
+
+    // written after every native call on the handle, see reachabilityFence()
+    private volatile boolean reachable;
 
     public static void setSdk(String sdk) {
         Cobra._sdk = sdk;
@@ -38,6 +57,9 @@ public class Cobra {
     /**
      * Constructor.
      *
+     * <p>Initialization loads the model, allocates inference resources on `device` and validates the
+     * AccessKey. {@link #reset()} re-creates the native engine and therefore has the same cost.
+     *
      * @param accessKey AccessKey obtained from Picovoice Console
      * @param device String representation of the device (e.g., CPU or GPU) to use for inference.
      *               If set to `best`, the most suitable device is selected automatically. If set to `gpu`,
@@ -50,17 +72,53 @@ public class Cobra {
      */
     private Cobra(String accessKey, String device) throws CobraException {
         CobraNative.setSdk(Cobra._sdk);
-        handle = CobraNative.init(accessKey, device);
+        long nativeBytesBefore = Debug.getNativeHeapAllocatedSize();
+        long value = init(accessKey, device);
+        long nativeBytes = Math.max(0, Debug.getNativeHeapAllocatedSize() - nativeBytesBefore);
+        handle = CobraNativeTracker.track(this, value, nativeBytes);
+        this.accessKey = accessKey;
+        this.device = device;
     }
 
     /**
      * Releases resources acquired by Cobra.
      */
+    @Override
     public void delete() {
-        if (handle != 0) {
-            CobraNative.delete(handle);
-            handle = 0;
+        handle.release();
+    }
+
+    /**
+     * Releases resources acquired by Cobra. Equivalent to {@link #delete()}.
+     */
+    @Override
+    public void close() {
+        delete();
+    }
+
+    /**
+     * Resets Cobra to the state of a freshly constructed instance, discarding any temporal context
+     * carried over from previously processed audio. Use this before reusing an instance for an
+     * unrelated stream.
+     *
+     * <p>The native library has no dedicated reset entry point, so the native engine is re-created
+     * in place with the same AccessKey and device. The cost is therefore that of initialization,
+     * including AccessKey validation, but the Java object and its configuration are retained. The
+     * replacement engine is created before the current one is released, so if the reset fails the
+     * instance remains usable with its previous state.
+     *
+     * @throws CobraException if there is an error while re-initializing Cobra.
+     */
+    @Override
+    public void reset() throws CobraException {
+        if (handle.getValue() == 0) {
+            throw new CobraInvalidStateException("Attempted to call Cobra reset after delete.");
         }
+
+        long nativeBytesBefore = Debug.getNativeHeapAllocatedSize();
+        long freshValue = init(accessKey, device);
+        long nativeBytes = Math.max(0, Debug.getNativeHeapAllocatedSize() - nativeBytesBefore);
+        handle.replace(freshValue, nativeBytes);
     }
 
     /**
@@ -73,20 +131,126 @@ public class Cobra {
      * @return Probability of voice activity. It is a floating-point number within [0, 1].
      * @throws CobraException if there is an error while processing the audio frame.
      */
+    @Override
     public float process(short[] pcm) throws CobraException {
-        if (handle == 0) {
+        long value = handle.getValue();
+        if (value == 0) {
             throw new CobraInvalidStateException("Attempted to call Cobra process after delete.");
         }
         if (pcm == null) {
             throw new CobraInvalidArgumentException("Passed null frame to Cobra process.");
         }
 
-        if (pcm.length != getFrameLength()) {
+        if (pcm.length != FRAME_LENGTH) {
             throw new CobraInvalidArgumentException(
                     String.format("Cobra process requires frames of length %d. " +
-                            "Received frame of size %d.", getFrameLength(), pcm.length));
+                            "Received frame of size %d.", FRAME_LENGTH, pcm.length));
+        }
+
+        boolean traced = CobraTrace.beginSection("Cobra.process");
+        try {
+            return CobraNative.process(value, pcm);
+        } catch (CobraException e) {
+            CobraTrace.exception(e);
+            throw e;
+        } finally {
+            reachabilityFence();
+            if (traced) {
+                CobraTrace.endSection();
+            }
+        }
+    }
+
+    /**
+     * Keeps this instance reachable until the call returns. Otherwise an instance that is only
+     * referenced by the calling frame, e.g. `builder.build().process(pcm)`, may be collected while its
+     * native handle is in use, and the handle released by {@link CobraNativeTracker} underneath the
+     * native call. `Reference.reachabilityFence` needs API 28, hence the volatile write.
+     */
+    private void reachabilityFence() {
+        reachable = true;
+    }
+
+    /**
+     * Processes one frame for each of several instances, e.g. all streams served by one worker thread
+     * in a tick. Arguments are validated and the call is traced once for the whole batch rather than
+     * once per frame. The instances must not be used concurrently by other threads.
+     *
+     * <p>Processing stops at the first error. The probabilities of the instances before the failing one
+     * are written; the entries of the failing instance and the ones after it are set to NaN, and
+     * those instances have not consumed their frames.
+     *
+     * @param engines Instances to process, each at most once per batch.
+     * @param count Number of instances to process, starting with `engines[0]`.
+     * @param pcm Packed audio block holding `count` consecutive frames of {@link #getFrameLength()}
+     *            samples, the frame of `engines[i]` starting at `i * getFrameLength()`.
+     * @param probabilities Destination for the probability of voice activity of each instance.
+     * @throws CobraException if the arguments are invalid or there is an error while processing.
+     */
+    public static void processBatch(
+            Cobra[] engines,
+            int count,
+            short[] pcm,
+            float[] probabilities) throws CobraException {
+        if (engines == null || pcm == null || probabilities == null) {
+            throw new CobraInvalidArgumentException("Passed null argument to Cobra processBatch.");
+        }
+        if (count < 0 || count > engines.length || count > probabilities.length) {
+            throw new CobraInvalidArgumentException(
+                    String.format("Invalid Cobra processBatch count %d.", count));
+        }
+        if ((long) count * FRAME_LENGTH > pcm.length) {
+            throw new CobraInvalidArgumentException(
+                    String.format("Cobra processBatch requires %d samples for %d frames. " +
+                            "Received block of size %d.", count * FRAME_LENGTH, count, pcm.length));
+        }
+        for (int i = 0; i < count; i++) {
+            if (engines[i] == null || engines[i].handle.getValue() == 0) {
+                throw new CobraInvalidStateException("Attempted to call Cobra processBatch after delete.");
+            }
+        }
+
+        // the native call takes a whole array, so each frame is copied out of the block into a scratch frame
+        short[] frame = BATCH_FRAME.get();
+        if (frame == null) {
+            frame = new short[FRAME_LENGTH];
+            BATCH_FRAME.set(frame);
+        }
+
+        boolean traced = CobraTrace.beginSection("Cobra.processBatch");
+        int i = 0;
+        try {
+            for (; i < count; i++) {
+                System.arraycopy(pcm, i * FRAME_LENGTH, frame, 0, FRAME_LENGTH);
+                Cobra engine = engines[i];
+                probabilities[i] = CobraNative.process(engine.handle.getValue(), frame);
+                engine.reachabilityFence();
+            }
+        } catch (CobraException e) {
+            CobraTrace.exception(e);
+            for (; i < count; i++) {
+                probabilities[i] = Float.NaN;
+            }
+            throw e;
+        } finally {
+            if (traced) {
+                CobraTrace.endSection();
+            }
+        }
+    }
+
+    private static long init(String accessKey, String device) throws CobraException {
+        boolean traced = CobraTrace.beginSection("Cobra.init " + device);
+        try {
+            return CobraNative.init(accessKey, device);
+        } catch (CobraException e) {
+            CobraTrace.exception(e);
+            throw e;
+        } finally {
+            if (traced) {
+                CobraTrace.endSection();
+            }
         }
-        return CobraNative.process(handle, pcm);
     }
 
     /**
@@ -94,8 +258,9 @@ public class Cobra {
      *
      * @return Required number of audio samples per frame.
      */
+    @Override
     public int getFrameLength() {
-        return CobraNative.getFrameLength();
+        return FRAME_LENGTH;
     }
 
     /**
@@ -103,8 +268,18 @@ public class Cobra {
      *
      * @return Required audio sample rate.
      */
+    @Override
     public int getSampleRate() {
-        return CobraNative.getSampleRate();
+        return SAMPLE_RATE;
+    }
+
+    /**
+     * Getter for the device string Cobra was initialized with.
+     *
+     * @return Device string passed to {@link Builder#setDevice(String)}, or `best` if none was set.
+     */
+    public String getDevice() {
+        return device;
     }
 
     /**
@@ -112,10 +287,44 @@ public class Cobra {
      *
      * @return Cobra version.
      */
+    @Override
     public String getVersion() {
         return CobraNative.getVersion();
     }
 
+    /**
+     * Getter for the number of Cobra instances in this process that have not been released yet.
+     *
+     * @return Number of live Cobra instances.
+     */
+    public static int getLiveInstanceCount() {
+        return CobraNativeTracker.getLiveInstanceCount();
+    }
+
+    /**
+     * Getter for the estimated native memory held by all live Cobra instances in this process. The
+     * estimate is the growth of the native heap observed while each instance was initialized, so it
+     * is approximate when other threads allocate native memory concurrently.
+     *
+     * @return Estimated native memory in bytes.
+     */
+    public static long getEstimatedNativeBytes() {
+        return CobraNativeTracker.getEstimatedNativeBytes();
+    }
+
+    /**
+     * Enables or disables Cobra events in the system trace (Perfetto / systrace). When enabled, and
+     * while a trace is being recorded, initialization (labelled with the device string), every call
+     * to {@link #process(short[])}, batch sizes of {@link CobraDispatcher} and engine errors (with
+     * the depth of their message stack) appear on the timeline of the thread that caused them.
+     * Tracing is disabled by default; while disabled it costs a single volatile read per call.
+     *
+     * @param enabled Whether to emit trace events.
+     */
+    public static void setTracingEnabled(boolean enabled) {
+        CobraTrace.setEnabled(enabled);
+    }
+
     /**
      * Lists all available devices that Cobra can use for inference.
      * Each entry in the list can be used as the `device` argument when initializing Cobra.
@@ -130,7 +339,7 @@ public class Cobra {
     /**
      * Builder for creating an instance of Cobra with a mixture of default arguments.
      */
-    public static class Builder {
+    public static class Builder implements CobraEngineFactory {
 
         private String accessKey = null;
         private String device = null;
@@ -180,6 +389,17 @@ public class Cobra {
                     accessKey,
                     device);
         }
+
+        /**
+         * Creates an instance of Cobra. Equivalent to {@link #build()}.
+         *
+         * @return An instance of Cobra Engine
+         * @throws CobraException if there is an error while initializing Cobra.
+         */
+        @Override
+        public Cobra create() throws CobraException {
+            return build();
+        }
     }
 
 }
@@ -0,0 +1,297 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import android.os.Debug;
+import android.os.Process;
+import android.system.Os;
+import android.system.OsConstants;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ *   Admission control for concurrent real-time streams. When built, it calibrates the cost of one
+ *   stream by creating a single engine and processing a number of frames: the growth of the
+ *   process's resident set size (from `/proc/self/statm`) across creation and the first frames gives
+ *   the memory per instance, and the CPU time per frame divided by the frame duration gives the CPU
+ *   cores a real-time stream occupies. New streams are then admitted only while the reserved
+ *   memory and CPU stay within the configured budgets, so a host can run close to capacity without
+ *   being killed for memory or missing real-time deadlines.
+ *
+ *   <p>CPU time is measured both for the calling thread and for the whole process, and the larger
+ *   value is used, so that inference threads created by the native engine (e.g. with `cpu:N`) are
+ *   accounted for. Calibration should therefore run while the process is otherwise idle.
+ **/
+public class CobraAdmissionController {
+
+    private final long memoryBudgetBytes;
+    private final double cpuBudgetCores;
+    private final long bytesPerStream;
+    private final double coresPerStream;
+
+    private int admittedStreams = 0;
+
+    private CobraAdmissionController(
+            long memoryBudgetBytes,
+            double cpuBudgetCores,
+            long bytesPerStream,
+            double coresPerStream) {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.cpuBudgetCores = cpuBudgetCores;
+        this.bytesPerStream = bytesPerStream;
+        this.coresPerStream = coresPerStream;
+    }
+
+    /**
+     * Requests admission of a new stream. An accepted ticket reserves the cost of one stream until
+     * it is released.
+     *
+     * @return Admission ticket, accepted or rejected with a reason.
+     */
+    public synchronized Ticket admit() {
+        int streams = admittedStreams + 1;
+        if (streams * bytesPerStream > memoryBudgetBytes) {
+            return new Ticket(String.format(
+                    "Memory budget exceeded: %d streams reserve %.1f MB of %.1f MB and a stream needs %.1f MB.",
+                    admittedStreams,
+                    toMegabytes(admittedStreams * bytesPerStream),
+                    toMegabytes(memoryBudgetBytes),
+                    toMegabytes(bytesPerStream)));
+        }
+        if (streams * coresPerStream > cpuBudgetCores) {
+            return new Ticket(String.format(
+                    "CPU budget exceeded: %d streams reserve %.2f of %.2f cores and a stream needs %.3f cores.",
+                    admittedStreams,
+                    admittedStreams * coresPerStream,
+                    cpuBudgetCores,
+                    coresPerStream));
+        }
+        admittedStreams = streams;
+        return new Ticket(null);
+    }
+
+    /**
+     * Getter for the number of streams currently admitted.
+     *
+     * @return Number of accepted tickets that have not been released.
+     */
+    public synchronized int getAdmittedStreams() {
+        return admittedStreams;
+    }
+
+    /**
+     * Getter for the number of streams the budgets allow in total.
+     *
+     * @return Maximum number of concurrently admitted streams.
+     */
+    public int getCapacity() {
+        long byMemory = bytesPerStream > 0 ? memoryBudgetBytes / bytesPerStream : Integer.MAX_VALUE;
+        long byCpu = coresPerStream > 0 ? (long) Math.floor(cpuBudgetCores / coresPerStream) : Integer.MAX_VALUE;
+        return (int) Math.min(Math.min(byMemory, byCpu), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Getter for the calibrated memory cost of a stream.
+     *
+     * @return Resident memory in bytes added by one engine instance.
+     */
+    public long getBytesPerStream() {
+        return bytesPerStream;
+    }
+
+    /**
+     * Getter for the calibrated CPU cost of a stream.
+     *
+     * @return Number of CPU cores a stream processed in real time occupies.
+     */
+    public double getCoresPerStream() {
+        return coresPerStream;
+    }
+
+    private synchronized void release() {
+        admittedStreams--;
+    }
+
+    private static double toMegabytes(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+
+    private static long readResidentBytes() {
+        try (BufferedReader reader = new BufferedReader(new FileReader("/proc/self/statm"))) {
+            String line = reader.readLine();
+            if (line != null) {
+                String[] fields = line.trim().split("\\s+");
+                if (fields.length > 1) {
+                    return Long.parseLong(fields[1]) * Os.sysconf(OsConstants._SC_PAGESIZE);
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+        }
+        return -1;
+    }
+
+    /**
+     * Admission decision for a single stream.
+     */
+    public final class Ticket {
+
+        private final String rejectionReason;
+        private boolean released = false;
+
+        private Ticket(String rejectionReason) {
+            this.rejectionReason = rejectionReason;
+        }
+
+        /**
+         * Getter for whether the stream was admitted.
+         *
+         * @return True if the stream may be started.
+         */
+        public boolean isAccepted() {
+            return rejectionReason == null;
+        }
+
+        /**
+         * Getter for the reason the stream was rejected.
+         *
+         * @return Human-readable rejection reason, or null if the stream was admitted.
+         */
+        public String getRejectionReason() {
+            return rejectionReason;
+        }
+
+        /**
+         * Returns the reservation of an accepted ticket once its stream has ended. Calling this more
+         * than once, or on a rejected ticket, has no effect.
+         */
+        public void release() {
+            synchronized (CobraAdmissionController.this) {
+                if (isAccepted() && !released) {
+                    released = true;
+                    CobraAdmissionController.this.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraAdmissionController with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private CobraEngineFactory engineFactory = null;
+        private long memoryBudgetBytes = 0;
+        private double cpuBudgetCores = Runtime.getRuntime().availableProcessors() * 0.75;
+        private int calibrationFrames = 100;
+
+        /**
+         * Setter for the factory of the engines streams will use. One engine is created for calibration.
+         *
+         * @param engineFactory Engine factory, e.g. a configured {@link Cobra.Builder}.
+         */
+        public Builder setEngineFactory(CobraEngineFactory engineFactory) {
+            this.engineFactory = engineFactory;
+            return this;
+        }
+
+        /**
+         * Setter for the memory budget.
+         *
+         * @param memoryBudgetBytes Resident memory in bytes that all admitted streams may use together.
+         */
+        public Builder setMemoryBudgetBytes(long memoryBudgetBytes) {
+            this.memoryBudgetBytes = memoryBudgetBytes;
+            return this;
+        }
+
+        /**
+         * Setter for the CPU budget.
+         *
+         * @param cpuBudgetCores Number of CPU cores that all admitted streams may occupy together.
+         *                       Defaults to three quarters of the available processors.
+         */
+        public Builder setCpuBudgetCores(double cpuBudgetCores) {
+            this.cpuBudgetCores = cpuBudgetCores;
+            return this;
+        }
+
+        /**
+         * Setter for the length of the calibration.
+         *
+         * @param calibrationFrames Number of frames processed to measure the CPU cost of a stream.
+         */
+        public Builder setCalibrationFrames(int calibrationFrames) {
+            this.calibrationFrames = calibrationFrames;
+            return this;
+        }
+
+        /**
+         * Validates properties, calibrates the cost of a stream and creates an instance of
+         * CobraAdmissionController.
+         *
+         * @return An instance of CobraAdmissionController
+         * @throws CobraException if the properties are invalid or calibration fails.
+         */
+        public CobraAdmissionController build() throws CobraException {
+            if (engineFactory == null) {
+                throw new CobraInvalidArgumentException("No engine factory was provided to CobraAdmissionController.");
+            }
+            if (memoryBudgetBytes <= 0) {
+                throw new CobraInvalidArgumentException("Memory budget must be positive.");
+            }
+            if (!(cpuBudgetCores > 0)) {
+                throw new CobraInvalidArgumentException("CPU budget must be positive.");
+            }
+            if (calibrationFrames <= 0) {
+                throw new CobraInvalidArgumentException("Number of calibration frames must be positive.");
+            }
+
+            long residentBefore = readResidentBytes();
+            long nativeBefore = Debug.getNativeHeapAllocatedSize();
+            CobraEngine engine = engineFactory.create();
+            try {
+                short[] pcm = new short[engine.getFrameLength()];
+                Random random = new Random(0);
+                for (int i = 0; i < pcm.length; i++) {
+                    pcm[i] = (short) (random.nextGaussian() * 1000);
+                }
+                // the first frame may allocate lazily, so it counts towards memory but not CPU
+                engine.process(pcm);
+                long residentAfter = readResidentBytes();
+                long nativeAfter = Debug.getNativeHeapAllocatedSize();
+                long bytesPerStream = residentBefore >= 0 && residentAfter >= 0 ?
+                        residentAfter - residentBefore :
+                        nativeAfter - nativeBefore;
+
+                long threadCpuBefore = Debug.threadCpuTimeNanos();
+                long processCpuBefore = Process.getElapsedCpuTime();
+                for (int i = 0; i < calibrationFrames; i++) {
+                    engine.process(pcm);
+                }
+                long threadCpuNanos = Debug.threadCpuTimeNanos() - threadCpuBefore;
+                long processCpuNanos = (Process.getElapsedCpuTime() - processCpuBefore) * 1000000L;
+                double cpuNanosPerFrame = (double) Math.max(threadCpuNanos, processCpuNanos) / calibrationFrames;
+                double frameNanos = engine.getFrameLength() * 1e9 / engine.getSampleRate();
+
+                return new CobraAdmissionController(
+                        memoryBudgetBytes,
+                        cpuBudgetCores,
+                        Math.max(bytesPerStream, 0),
+                        cpuNanosPerFrame / frameNanos);
+            } finally {
+                engine.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,371 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ *   Delivers frames ready for {@link CobraEngine#process(short[])} from encoded audio read from a
+ *   channel. Samples are decoded by a pluggable {@link Decoder} and upsampled to the engine's sample
+ *   rate by linear interpolation, so telephony recordings (e.g. 8kHz G.711) can be processed without
+ *   a separate transcoding pass. Built-in decoders cover 16-bit little-endian linear PCM, G.711
+ *   mu-law and G.711 A-law.
+ *
+ *   <p>If no decoder is set, the source is parsed as a WAV file and the decoder and sample rate are
+ *   taken from its header. Single-channel WAV files encoded as 16-bit PCM, mu-law or A-law are
+ *   supported, and chunks other than `fmt ` and `data` are skipped.
+ *
+ *   <p>All buffers are allocated once per source; reading frames does not allocate.
+ **/
+public class CobraAudioSource {
+
+    /**
+     * Decoder of fixed-size encoded samples into 16-bit linear PCM.
+     */
+    public interface Decoder {
+
+        /**
+         * Getter for the size of an encoded sample.
+         *
+         * @return Number of bytes per encoded sample.
+         */
+        int getBytesPerSample();
+
+        /**
+         * Decodes samples.
+         *
+         * @param input Encoded samples, starting at the buffer's position. At least
+         *              `count * getBytesPerSample()` bytes are remaining. The buffer is little-endian.
+         * @param output Destination of the decoded samples.
+         * @param offset Index in `output` of the first decoded sample.
+         * @param count Number of samples to decode.
+         */
+        void decode(ByteBuffer input, short[] output, int offset, int count);
+    }
+
+    /**
+     * Decoder of 16-bit little-endian linear PCM.
+     */
+    public static final Decoder PCM_16BIT = new Decoder() {
+        @Override
+        public int getBytesPerSample() {
+            return 2;
+        }
+
+        @Override
+        public void decode(ByteBuffer input, short[] output, int offset, int count) {
+            for (int i = 0; i < count; i++) {
+                output[offset + i] = input.getShort();
+            }
+        }
+    };
+
+    /**
+     * Decoder of G.711 mu-law.
+     */
+    public static final Decoder MULAW = new TableDecoder(buildMulawTable());
+
+    /**
+     * Decoder of G.711 A-law.
+     */
+    public static final Decoder ALAW = new TableDecoder(buildAlawTable());
+
+    private static final int CHUNK_SAMPLES = 4096;
+
+    private final ReadableByteChannel channel;
+    private final int frameLength;
+    private final int targetSampleRate;
+
+    private Decoder decoder;
+    private int sourceSampleRate;
+    private long remainingBytes = Long.MAX_VALUE;
+    private boolean endOfStream = false;
+
+    private ByteBuffer encoded;
+    private final short[] decoded = new short[CHUNK_SAMPLES + 1];
+    private int decodedCount = 0;
+
+    // read position within `decoded`, as an integer index plus a fraction in units of 1 / targetSampleRate
+    private int index = 0;
+    private int phase = 0;
+
+    private CobraAudioSource(
+            ReadableByteChannel channel,
+            Decoder decoder,
+            int sourceSampleRate,
+            int frameLength,
+            int targetSampleRate) {
+        this.channel = channel;
+        this.decoder = decoder;
+        this.sourceSampleRate = sourceSampleRate;
+        this.frameLength = frameLength;
+        this.targetSampleRate = targetSampleRate;
+    }
+
+    /**
+     * Reads the next frame. A trailing partial frame at the end of the source is discarded.
+     *
+     * @param frame Destination of the frame. Its length must equal the frame length of the engine.
+     * @return True if a complete frame was read, false at the end of the source.
+     * @throws CobraException if the frame has an invalid length or the source format is unsupported.
+     * @throws IOException if reading from the channel fails.
+     */
+    public boolean read(short[] frame) throws CobraException, IOException {
+        if (frame == null || frame.length != frameLength) {
+            throw new CobraInvalidArgumentException(String.format(
+                    "CobraAudioSource read requires frames of length %d.",
+                    frameLength));
+        }
+        if (encoded == null) {
+            open();
+        }
+
+        final int lookahead = sourceSampleRate == targetSampleRate ? 0 : 1;
+        int n = 0;
+        while (n < frameLength) {
+            if (index + lookahead >= decodedCount) {
+                if (!fill()) {
+                    return false;
+                }
+                continue;
+            }
+
+            int sample = decoded[index];
+            if (phase != 0) {
+                sample += (int) ((long) (decoded[index + 1] - sample) * phase / targetSampleRate);
+            }
+            frame[n++] = (short) sample;
+
+            phase += sourceSampleRate;
+            while (phase >= targetSampleRate) {
+                phase -= targetSampleRate;
+                index++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Getter for the sample rate of the source.
+     *
+     * @return Sample rate of the encoded audio, or 0 if it is taken from a WAV header that has not
+     *         been read yet.
+     */
+    public int getSourceSampleRate() {
+        return sourceSampleRate;
+    }
+
+    private void open() throws CobraException, IOException {
+        if (decoder == null) {
+            CobraWav.Format format = CobraWav.readHeader(channel);
+            if (format.channelCount != 1) {
+                throw new CobraInvalidArgumentException("CobraAudioSource requires single-channel WAV.");
+            }
+            if (format.audioFormat == CobraWav.FORMAT_PCM && format.bitsPerSample == 16) {
+                decoder = PCM_16BIT;
+            } else if (format.audioFormat == CobraWav.FORMAT_MULAW && format.bitsPerSample == 8) {
+                decoder = MULAW;
+            } else if (format.audioFormat == CobraWav.FORMAT_ALAW && format.bitsPerSample == 8) {
+                decoder = ALAW;
+            } else {
+                throw new CobraInvalidArgumentException(String.format(
+                        "Unsupported WAV encoding %d with %d bits per sample.",
+                        format.audioFormat,
+                        format.bitsPerSample));
+            }
+            sourceSampleRate = format.sampleRate;
+            // streaming writers leave the data size at 0 or its maximum until the recording ends
+            if (format.dataSize != 0 && format.dataSize != 0xFFFFFFFFL) {
+                remainingBytes = format.dataSize;
+            }
+        }
+        if (sourceSampleRate <= 0 || sourceSampleRate > targetSampleRate) {
+            throw new CobraInvalidArgumentException(String.format(
+                    "CobraAudioSource cannot convert %dHz audio to %dHz.",
+                    sourceSampleRate,
+                    targetSampleRate));
+        }
+
+        encoded = ByteBuffer.allocate(CHUNK_SAMPLES * decoder.getBytesPerSample()).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Discards consumed samples and decodes the next chunk of the source.
+     *
+     * @return False if the source is exhausted.
+     */
+    private boolean fill() throws IOException {
+        // keep the current sample, which may still be needed for interpolation
+        decodedCount -= index;
+        System.arraycopy(decoded, index, decoded, 0, decodedCount);
+        index = 0;
+
+        final int bytesPerSample = decoder.getBytesPerSample();
+        int capacity = Math.min(decoded.length - decodedCount, CHUNK_SAMPLES) * bytesPerSample;
+        if (capacity - encoded.position() > remainingBytes) {
+            capacity = encoded.position() + (int) remainingBytes;
+        }
+        encoded.limit(capacity);
+        while (!endOfStream && encoded.position() < bytesPerSample && encoded.hasRemaining()) {
+            int numRead = channel.read(encoded);
+            if (numRead < 0) {
+                endOfStream = true;
+            } else {
+                remainingBytes -= numRead;
+            }
+        }
+        if (remainingBytes == 0) {
+            endOfStream = true;
+        }
+
+        encoded.flip();
+        int count = encoded.remaining() / bytesPerSample;
+        decoder.decode(encoded, decoded, decodedCount, count);
+        decodedCount += count;
+        encoded.compact();
+        return count > 0;
+    }
+
+    private static short[] buildMulawTable() {
+        short[] table = new short[256];
+        for (int i = 0; i < 256; i++) {
+            int u = ~i & 0xFF;
+            int exponent = (u >> 4) & 0x07;
+            int mantissa = u & 0x0F;
+            int magnitude = (((mantissa << 3) + 0x84) << exponent) - 0x84;
+            table[i] = (short) ((u & 0x80) != 0 ? -magnitude : magnitude);
+        }
+        return table;
+    }
+
+    private static short[] buildAlawTable() {
+        short[] table = new short[256];
+        for (int i = 0; i < 256; i++) {
+            int a = i ^ 0x55;
+            int exponent = (a >> 4) & 0x07;
+            int mantissa = a & 0x0F;
+            int magnitude = exponent == 0 ?
+                    (mantissa << 4) + 0x08 :
+                    ((mantissa << 4) + 0x108) << (exponent - 1);
+            table[i] = (short) ((a & 0x80) != 0 ? magnitude : -magnitude);
+        }
+        return table;
+    }
+
+    private static final class TableDecoder implements Decoder {
+
+        private final short[] table;
+
+        TableDecoder(short[] table) {
+            this.table = table;
+        }
+
+        @Override
+        public int getBytesPerSample() {
+            return 1;
+        }
+
+        @Override
+        public void decode(ByteBuffer input, short[] output, int offset, int count) {
+            for (int i = 0; i < count; i++) {
+                output[offset + i] = table[input.get() & 0xFF];
+            }
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraAudioSource with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private ReadableByteChannel channel = null;
+        private Decoder decoder = null;
+        private int sourceSampleRate = 0;
+        private int frameLength = 0;
+        private int targetSampleRate = 0;
+
+        /**
+         * Setter for the channel encoded audio is read from.
+         *
+         * @param channel Channel positioned at the start of the audio (or of the WAV header).
+         */
+        public Builder setChannel(ReadableByteChannel channel) {
+            this.channel = channel;
+            return this;
+        }
+
+        /**
+         * Setter for the decoder of raw (headerless) audio.
+         *
+         * @param decoder Decoder (e.g. {@link CobraAudioSource#MULAW}), or null to parse the source as a
+         *                WAV file.
+         */
+        public Builder setDecoder(Decoder decoder) {
+            this.decoder = decoder;
+            return this;
+        }
+
+        /**
+         * Setter for the sample rate of raw (headerless) audio.
+         *
+         * @param sourceSampleRate Sample rate of the encoded audio. Ignored for WAV files.
+         */
+        public Builder setSourceSampleRate(int sourceSampleRate) {
+            this.sourceSampleRate = sourceSampleRate;
+            return this;
+        }
+
+        /**
+         * Setter for the engine that frames are prepared for.
+         *
+         * @param engine Engine whose frame length and sample rate the frames are delivered at.
+         */
+        public Builder setEngine(CobraEngine engine) {
+            this.frameLength = engine.getFrameLength();
+            this.targetSampleRate = engine.getSampleRate();
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraAudioSource.
+         *
+         * @return An instance of CobraAudioSource
+         * @throws CobraException if the properties are invalid.
+         */
+        public CobraAudioSource build() throws CobraException {
+            if (channel == null) {
+                throw new CobraInvalidArgumentException("No channel was provided to CobraAudioSource.");
+            }
+            if (frameLength <= 0 || targetSampleRate <= 0) {
+                throw new CobraInvalidArgumentException("No engine was provided to CobraAudioSource.");
+            }
+            if (decoder != null && sourceSampleRate <= 0) {
+                throw new CobraInvalidArgumentException("Raw audio requires a positive source sample rate.");
+            }
+            if (decoder != null && sourceSampleRate > targetSampleRate) {
+                throw new CobraInvalidArgumentException(String.format(
+                        "CobraAudioSource cannot convert %dHz audio to %dHz.",
+                        sourceSampleRate,
+                        targetSampleRate));
+            }
+
+            return new CobraAudioSource(
+                    channel,
+                    decoder,
+                    decoder != null ? sourceSampleRate : 0,
+                    frameLength,
+                    targetSampleRate);
+        }
+    }
+}
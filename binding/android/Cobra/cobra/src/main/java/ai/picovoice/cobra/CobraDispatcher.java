@@ -0,0 +1,422 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ *   Asynchronous front-end that lets many callers share a small pool of engine worker threads.
+ *   Callers submit frames tagged with a stream ID and receive a {@link Future} for the probability.
+ *   Every stream is pinned to one worker, which owns the stream's engine and processes its frames in
+ *   submission order. Each worker drains all frames queued for its streams into a micro-batch, so
+ *   that queueing and wake-up costs are paid once per batch rather than once per frame. Frames are
+ *   still processed one at a time, so a worker does not wait for a batch to fill unless a batching
+ *   window is set, which trades latency for fewer wake-ups.
+ **/
+public class CobraDispatcher {
+
+    private final CobraEngineFactory engineFactory;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Worker[] workers;
+    private volatile boolean deleted = false;
+
+    private CobraDispatcher(
+            CobraEngineFactory engineFactory,
+            int numWorkers,
+            int maxBatchSize,
+            long maxWaitNanos,
+            int queueCapacity,
+            ThreadFactory threadFactory) {
+        this.engineFactory = engineFactory;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWaitNanos;
+        this.workers = new Worker[numWorkers];
+        for (int i = 0; i < numWorkers; i++) {
+            workers[i] = new Worker(queueCapacity);
+            workers[i].thread = threadFactory.newThread(workers[i]);
+            workers[i].thread.start();
+        }
+    }
+
+    /**
+     * Submits a frame of a stream for processing. The engine of a stream is created on its first frame.
+     * If it cannot be created, that frame and every later frame of the stream fail with the same error
+     * until the stream is closed. Errors raised by the engine factory or the engine, including unchecked
+     * ones, fail the affected frames rather than the worker. If the queue of the stream's worker is full,
+     * the returned future fails immediately.
+     *
+     * @param streamId Identifier of the stream the frame belongs to.
+     * @param pcm A frame of audio samples. It is copied, so the caller may reuse it.
+     * @return Future holding the probability of voice activity of the frame.
+     * @throws CobraException if the arguments are invalid or the dispatcher has been deleted.
+     */
+    public Future<Float> processAsync(String streamId, short[] pcm) throws CobraException {
+        if (deleted) {
+            throw new CobraInvalidStateException("Attempted to call CobraDispatcher processAsync after delete.");
+        }
+        if (streamId == null) {
+            throw new CobraInvalidArgumentException("Passed null stream ID to CobraDispatcher processAsync.");
+        }
+        if (pcm == null) {
+            throw new CobraInvalidArgumentException("Passed null frame to CobraDispatcher processAsync.");
+        }
+
+        Request request = new Request(streamId, pcm.clone());
+        if (!workerOf(streamId).queue.offer(request)) {
+            request.fail(new CobraInvalidStateException(
+                    String.format("CobraDispatcher queue for stream '%s' is full.", streamId)));
+        } else if (deleted) {
+            // the worker may have drained its queue before the request was added
+            request.fail(new CobraInvalidStateException("CobraDispatcher has been deleted."));
+        }
+        return request;
+    }
+
+    /**
+     * Releases the engine of a stream once all of its previously submitted frames have been processed.
+     *
+     * @param streamId Identifier of the stream to close.
+     * @throws CobraException if the dispatcher has been deleted.
+     */
+    public void closeStream(String streamId) throws CobraException {
+        if (deleted) {
+            throw new CobraInvalidStateException("Attempted to call CobraDispatcher closeStream after delete.");
+        }
+        try {
+            workerOf(streamId).queue.put(new Request(streamId, null));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CobraInvalidStateException("Interrupted while closing CobraDispatcher stream.");
+        }
+    }
+
+    /**
+     * Stops all workers and releases the engines of all streams. Pending requests fail.
+     */
+    public void delete() {
+        if (deleted) {
+            return;
+        }
+        deleted = true;
+        for (Worker worker : workers) {
+            worker.thread.interrupt();
+        }
+        for (Worker worker : workers) {
+            try {
+                worker.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private Worker workerOf(String streamId) {
+        return workers[(streamId.hashCode() & 0x7FFFFFFF) % workers.length];
+    }
+
+    private final class Worker implements Runnable {
+
+        private final BlockingQueue<Request> queue;
+        private final Map<String, CobraEngine> engines = new HashMap<>();
+        private final Map<String, Exception> failedStreams = new HashMap<>();
+        private final List<Request> batch = new ArrayList<>();
+        private Thread thread;
+
+        Worker(int queueCapacity) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!deleted) {
+                    collectBatch();
+                    processBatch();
+                }
+            } catch (InterruptedException ignored) {
+            } finally {
+                CobraInvalidStateException stopped =
+                        new CobraInvalidStateException("CobraDispatcher has been deleted.");
+                for (Request request : batch) {
+                    request.fail(stopped);
+                }
+                batch.clear();
+                Request request;
+                while ((request = queue.poll()) != null) {
+                    request.fail(stopped);
+                }
+                for (CobraEngine engine : engines.values()) {
+                    engine.delete();
+                }
+                engines.clear();
+            }
+        }
+
+        private void collectBatch() throws InterruptedException {
+            batch.add(queue.take());
+            queue.drainTo(batch, maxBatchSize - batch.size());
+
+            long deadline = System.nanoTime() + maxWaitNanos;
+            while (batch.size() < maxBatchSize) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                Request next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                batch.add(next);
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+        }
+
+        private void processBatch() {
+            CobraTrace.counter("CobraDispatcher.batchSize", batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Request request = batch.get(i);
+                if (request.pcm == null) {
+                    failedStreams.remove(request.streamId);
+                    CobraEngine engine = engines.remove(request.streamId);
+                    if (engine != null) {
+                        engine.delete();
+                    }
+                    continue;
+                }
+
+                Exception failure = failedStreams.get(request.streamId);
+                if (failure != null) {
+                    request.fail(failure);
+                    continue;
+                }
+                CobraEngine engine = engines.get(request.streamId);
+                if (engine == null) {
+                    try {
+                        engine = engineFactory.create();
+                    } catch (CobraException | RuntimeException e) {
+                        failedStreams.put(request.streamId, e);
+                        request.fail(e);
+                        continue;
+                    }
+                    engines.put(request.streamId, engine);
+                }
+                try {
+                    request.complete(engine.process(request.pcm));
+                } catch (CobraException | RuntimeException e) {
+                    request.fail(e);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private static final class Request implements Future<Float> {
+
+        private final String streamId;
+        private final short[] pcm;
+
+        private boolean done = false;
+        private float probability;
+        private Exception error;
+
+        Request(String streamId, short[] pcm) {
+            this.streamId = streamId;
+            this.pcm = pcm;
+        }
+
+        synchronized void complete(float probability) {
+            if (done) {
+                return;
+            }
+            this.probability = probability;
+            this.done = true;
+            notifyAll();
+        }
+
+        synchronized void fail(Exception error) {
+            if (done) {
+                return;
+            }
+            this.error = error;
+            this.done = true;
+            notifyAll();
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public synchronized boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public synchronized Float get() throws InterruptedException, ExecutionException {
+            while (!done) {
+                wait();
+            }
+            return result();
+        }
+
+        @Override
+        public synchronized Float get(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (!done) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new TimeoutException();
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            return result();
+        }
+
+        private Float result() throws ExecutionException {
+            if (error != null) {
+                throw new ExecutionException(error);
+            }
+            return probability;
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraDispatcher with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private CobraEngineFactory engineFactory = null;
+        private int numWorkers = Runtime.getRuntime().availableProcessors();
+        private int maxBatchSize = 32;
+        private int maxWaitUs = 0;
+        private int queueCapacity = 1024;
+        private ThreadFactory threadFactory = Executors.defaultThreadFactory();
+
+        /**
+         * Setter for the factory that creates the engine of each stream.
+         *
+         * @param engineFactory Engine factory, e.g. a configured {@link Cobra.Builder}.
+         */
+        public Builder setEngineFactory(CobraEngineFactory engineFactory) {
+            this.engineFactory = engineFactory;
+            return this;
+        }
+
+        /**
+         * Setter for the number of worker threads.
+         *
+         * @param numWorkers Number of worker threads. Defaults to the number of available processors.
+         */
+        public Builder setNumWorkers(int numWorkers) {
+            this.numWorkers = numWorkers;
+            return this;
+        }
+
+        /**
+         * Setter for the maximum number of frames a worker processes per batch.
+         *
+         * @param maxBatchSize Maximum batch size.
+         */
+        public Builder setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Setter for the batching window.
+         *
+         * @param maxWaitUs Maximum time in microseconds a worker waits for a batch to fill after
+         *                  receiving its first frame. Defaults to zero, which processes whatever is
+         *                  queued without waiting. Frames are processed one at a time either way, so
+         *                  waiting only saves wake-ups at the cost of latency.
+         */
+        public Builder setMaxWaitUs(int maxWaitUs) {
+            this.maxWaitUs = maxWaitUs;
+            return this;
+        }
+
+        /**
+         * Setter for the per-worker queue capacity.
+         *
+         * @param queueCapacity Maximum number of frames queued per worker.
+         */
+        public Builder setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Setter for the factory of the worker threads.
+         *
+         * @param threadFactory Factory used to create worker threads (e.g. {@link CobraThreadFactory}).
+         */
+        public Builder setThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraDispatcher.
+         *
+         * @return An instance of CobraDispatcher
+         * @throws CobraException if the properties are invalid.
+         */
+        public CobraDispatcher build() throws CobraException {
+            if (engineFactory == null) {
+                throw new CobraInvalidArgumentException("No engine factory was provided to CobraDispatcher.");
+            }
+            if (numWorkers <= 0) {
+                throw new CobraInvalidArgumentException("Number of workers must be positive.");
+            }
+            if (maxBatchSize <= 0) {
+                throw new CobraInvalidArgumentException("Maximum batch size must be positive.");
+            }
+            if (maxWaitUs < 0) {
+                throw new CobraInvalidArgumentException("Batching window cannot be negative.");
+            }
+            if (queueCapacity <= 0) {
+                throw new CobraInvalidArgumentException("Queue capacity must be positive.");
+            }
+            if (threadFactory == null) {
+                throw new CobraInvalidArgumentException("No thread factory was provided to CobraDispatcher.");
+            }
+
+            return new CobraDispatcher(
+                    engineFactory,
+                    numWorkers,
+                    maxBatchSize,
+                    maxWaitUs * 1000L,
+                    queueCapacity,
+                    threadFactory);
+        }
+    }
+}
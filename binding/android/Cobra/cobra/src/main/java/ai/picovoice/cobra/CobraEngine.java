@@ -0,0 +1,71 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+/**
+ *   Voice activity detection engine that processes consecutive frames of single-channel, 16-bit
+ *   linearly-encoded audio and emits the probability of voice activity for each frame. {@link Cobra}
+ *   is the production implementation; {@link CobraSimulatedEngine} is a deterministic pure-Java
+ *   stand-in for testing and benchmarking code built around the engine without a native library or
+ *   AccessKey.
+ **/
+public interface CobraEngine extends AutoCloseable {
+
+    /**
+     * Processes a frame of the incoming audio stream and emits the detection result.
+     *
+     * @param pcm A frame of audio samples of length {@link #getFrameLength()}.
+     * @return Probability of voice activity. It is a floating-point number within [0, 1].
+     * @throws CobraException if there is an error while processing the audio frame.
+     */
+    float process(short[] pcm) throws CobraException;
+
+    /**
+     * Resets the engine to the state of a freshly constructed instance. This may cost as much as
+     * creating a new engine: {@link Cobra} re-creates its native engine, including AccessKey
+     * validation, so it should not be called on a hot path.
+     *
+     * @throws CobraException if there is an error while resetting the engine.
+     */
+    void reset() throws CobraException;
+
+    /**
+     * Getter for required number of audio samples per frame.
+     *
+     * @return Required number of audio samples per frame.
+     */
+    int getFrameLength();
+
+    /**
+     * Getter for required audio sample rate.
+     *
+     * @return Required audio sample rate.
+     */
+    int getSampleRate();
+
+    /**
+     * Getter for the engine version.
+     *
+     * @return Engine version.
+     */
+    String getVersion();
+
+    /**
+     * Releases resources acquired by the engine.
+     */
+    void delete();
+
+    /**
+     * Releases resources acquired by the engine. Equivalent to {@link #delete()}.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,26 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+/**
+ *   Creates {@link CobraEngine} instances on demand, for components that own one engine per stream.
+ *   {@link Cobra.Builder} and {@link CobraSimulatedEngine.Builder} both implement it.
+ **/
+public interface CobraEngineFactory {
+
+    /**
+     * Creates a new engine instance.
+     *
+     * @return A new engine instance. The caller is responsible for releasing it.
+     * @throws CobraException if there is an error while creating the engine.
+     */
+    CobraEngine create() throws CobraException;
+}
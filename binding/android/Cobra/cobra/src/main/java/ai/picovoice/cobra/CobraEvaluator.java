@@ -0,0 +1,533 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *   Evaluates detection accuracy over a labelled corpus of WAV files. Files are distributed across
+ *   worker threads, each with its own engine, and every frame is scored against its label as soon as
+ *   it is processed. Per-worker accumulators hold only sums and fixed-size probability histograms, so
+ *   memory use does not grow with the size of the corpus, and are merged once all files are done.
+ *
+ *   <p>Each audio file has a label file next to it with the same base name and the configured
+ *   extension (e.g. `speech.wav` and `speech.txt`). Every non-empty line of a label file holds the
+ *   start and end of a voiced segment in seconds, separated by whitespace. Lines starting with `#`
+ *   are ignored. A frame is labelled as voiced if its midpoint falls within a segment.
+ **/
+public class CobraEvaluator {
+
+    private final CobraEngineFactory engineFactory;
+    private final int numThreads;
+    private final int numBins;
+    private final String labelExtension;
+    private final ThreadFactory threadFactory;
+
+    private CobraEvaluator(
+            CobraEngineFactory engineFactory,
+            int numThreads,
+            int numBins,
+            String labelExtension,
+            ThreadFactory threadFactory) {
+        this.engineFactory = engineFactory;
+        this.numThreads = numThreads;
+        this.numBins = numBins;
+        this.labelExtension = labelExtension;
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Evaluates a corpus.
+     *
+     * @param audioFiles Single-channel, 16-bit WAV files sampled at the engine's sample rate. Each
+     *                   must have a label file next to it.
+     * @return Accuracy metrics over all frames of the corpus.
+     * @throws CobraException if an engine cannot be created, a label file is malformed or there is an
+     *                        error while processing the audio.
+     * @throws IOException if reading an audio or label file fails.
+     * @throws RuntimeException if a worker fails unexpectedly; the corpus is not evaluated further.
+     */
+    public Result evaluate(final List<File> audioFiles) throws CobraException, IOException {
+        final AtomicInteger nextFile = new AtomicInteger();
+        final Accumulator[] accumulators = new Accumulator[Math.min(numThreads, Math.max(audioFiles.size(), 1))];
+        final Exception[] error = new Exception[1];
+
+        Thread[] threads = new Thread[accumulators.length];
+        for (int i = 0; i < threads.length; i++) {
+            final Accumulator accumulator = new Accumulator(numBins);
+            accumulators[i] = accumulator;
+            threads[i] = threadFactory.newThread(new Runnable() {
+                @Override
+                public void run() {
+                    CobraEngine engine = null;
+                    try {
+                        int index;
+                        while ((index = nextFile.getAndIncrement()) < audioFiles.size()) {
+                            synchronized (error) {
+                                if (error[0] != null) {
+                                    return;
+                                }
+                            }
+                            if (engine == null) {
+                                engine = engineFactory.create();
+                            } else {
+                                engine.reset();
+                            }
+                            evaluateFile(engine, audioFiles.get(index), accumulator);
+                        }
+                    } catch (CobraException | IOException | RuntimeException e) {
+                        synchronized (error) {
+                            if (error[0] == null) {
+                                error[0] = e;
+                            }
+                        }
+                    } finally {
+                        if (engine != null) {
+                            engine.delete();
+                        }
+                    }
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CobraInvalidStateException("Interrupted while waiting for CobraEvaluator workers.");
+            }
+        }
+
+        synchronized (error) {
+            if (error[0] instanceof CobraException) {
+                throw (CobraException) error[0];
+            }
+            if (error[0] instanceof IOException) {
+                throw (IOException) error[0];
+            }
+            if (error[0] instanceof RuntimeException) {
+                throw (RuntimeException) error[0];
+            }
+        }
+
+        Accumulator total = new Accumulator(numBins);
+        for (Accumulator accumulator : accumulators) {
+            total.merge(accumulator);
+        }
+        return new Result(total);
+    }
+
+    private void evaluateFile(CobraEngine engine, File audioFile, Accumulator accumulator)
+            throws CobraException, IOException {
+        double[][] segments = readLabels(labelFileOf(audioFile));
+
+        try (FileInputStream inputStream = new FileInputStream(audioFile)) {
+            FileChannel input = inputStream.getChannel();
+            CobraWav.Format format = CobraWav.readHeader(input);
+            if (format.audioFormat != CobraWav.FORMAT_PCM ||
+                    format.channelCount != 1 ||
+                    format.bitsPerSample != 16 ||
+                    format.sampleRate != engine.getSampleRate()) {
+                throw new CobraInvalidArgumentException(String.format(
+                        "'%s' is not single-channel 16-bit PCM WAV at %dHz.",
+                        audioFile,
+                        engine.getSampleRate()));
+            }
+
+            final int frameLength = engine.getFrameLength();
+            final double frameSec = (double) frameLength / engine.getSampleRate();
+            ByteBuffer frameBuffer = ByteBuffer.allocate(frameLength * 2).order(ByteOrder.LITTLE_ENDIAN);
+            ShortBuffer frameSamples = frameBuffer.asShortBuffer();
+            short[] pcm = new short[frameLength];
+
+            // chunks after the audio (e.g. `LIST` metadata) are not audio and must not be scored
+            long remainingBytes = format.getAudioBytes();
+            int segment = 0;
+            long frameIndex = 0;
+            while (remainingBytes >= frameBuffer.capacity()) {
+                remainingBytes -= frameBuffer.capacity();
+                frameBuffer.clear();
+                while (frameBuffer.hasRemaining()) {
+                    if (input.read(frameBuffer) < 0) {
+                        break;
+                    }
+                }
+                if (frameBuffer.hasRemaining()) {
+                    break;
+                }
+                frameSamples.rewind();
+                frameSamples.get(pcm);
+                float probability = engine.process(pcm);
+
+                double midpoint = (frameIndex + 0.5) * frameSec;
+                while (segment < segments.length && segments[segment][1] <= midpoint) {
+                    segment++;
+                }
+                boolean voiced = segment < segments.length && segments[segment][0] <= midpoint;
+                accumulator.add(probability, voiced);
+                frameIndex++;
+            }
+        }
+        accumulator.fileCount++;
+    }
+
+    private File labelFileOf(File audioFile) {
+        String name = audioFile.getName();
+        int dot = name.lastIndexOf('.');
+        String baseName = dot > 0 ? name.substring(0, dot) : name;
+        return new File(audioFile.getParentFile(), baseName + labelExtension);
+    }
+
+    private static double[][] readLabels(File labelFile) throws CobraException, IOException {
+        List<double[]> segments = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(labelFile))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\s+");
+                try {
+                    if (fields.length != 2) {
+                        throw new NumberFormatException();
+                    }
+                    double start = Double.parseDouble(fields[0]);
+                    double end = Double.parseDouble(fields[1]);
+                    if (!(start >= 0 && end >= start)) {
+                        throw new NumberFormatException();
+                    }
+                    segments.add(new double[]{start, end});
+                } catch (NumberFormatException e) {
+                    throw new CobraInvalidArgumentException(String.format(
+                            "Invalid segment '%s' at %s:%d.",
+                            line,
+                            labelFile,
+                            lineNumber));
+                }
+            }
+        }
+
+        Collections.sort(segments, new Comparator<double[]>() {
+            @Override
+            public int compare(double[] a, double[] b) {
+                return Double.compare(a[0], b[0]);
+            }
+        });
+        return segments.toArray(new double[segments.size()][]);
+    }
+
+    /**
+     * Streaming accumulator of per-frame scores. Probabilities are binned so that bin `b` holds
+     * probabilities within [b / numBins, (b + 1) / numBins).
+     */
+    private static final class Accumulator {
+
+        private static final double EPSILON = 1e-7;
+
+        private final long[] positives;
+        private final long[] negatives;
+        private double crossEntropySum = 0;
+        private long fileCount = 0;
+
+        Accumulator(int numBins) {
+            this.positives = new long[numBins];
+            this.negatives = new long[numBins];
+        }
+
+        void add(float probability, boolean voiced) {
+            double p = Math.min(Math.max(probability, EPSILON), 1 - EPSILON);
+            int bin = Math.min(Math.max((int) (probability * positives.length), 0), positives.length - 1);
+            if (voiced) {
+                crossEntropySum -= Math.log(p);
+                positives[bin]++;
+            } else {
+                crossEntropySum -= Math.log(1 - p);
+                negatives[bin]++;
+            }
+        }
+
+        void merge(Accumulator other) {
+            for (int i = 0; i < positives.length; i++) {
+                positives[i] += other.positives[i];
+                negatives[i] += other.negatives[i];
+            }
+            crossEntropySum += other.crossEntropySum;
+            fileCount += other.fileCount;
+        }
+    }
+
+    /**
+     * Accuracy metrics of an evaluated corpus. Threshold-dependent metrics treat a frame as voiced if
+     * its probability is greater than or equal to the threshold, with the threshold rounded up to the
+     * resolution of the probability histogram.
+     */
+    public static class Result {
+
+        private final long fileCount;
+        private final long positiveCount;
+        private final long negativeCount;
+        private final double crossEntropySum;
+
+        // cumulative counts of frames at or above the threshold of each bin; index numBins is empty
+        private final long[] truePositives;
+        private final long[] falsePositives;
+
+        Result(Accumulator accumulator) {
+            int numBins = accumulator.positives.length;
+            this.fileCount = accumulator.fileCount;
+            this.crossEntropySum = accumulator.crossEntropySum;
+            this.truePositives = new long[numBins + 1];
+            this.falsePositives = new long[numBins + 1];
+            for (int i = numBins - 1; i >= 0; i--) {
+                truePositives[i] = truePositives[i + 1] + accumulator.positives[i];
+                falsePositives[i] = falsePositives[i + 1] + accumulator.negatives[i];
+            }
+            this.positiveCount = truePositives[0];
+            this.negativeCount = falsePositives[0];
+        }
+
+        /**
+         * Getter for the number of files evaluated.
+         *
+         * @return Number of files.
+         */
+        public long getFileCount() {
+            return fileCount;
+        }
+
+        /**
+         * Getter for the number of frames evaluated.
+         *
+         * @return Number of frames.
+         */
+        public long getFrameCount() {
+            return positiveCount + negativeCount;
+        }
+
+        /**
+         * Getter for the mean binary cross-entropy between the probabilities and the labels.
+         *
+         * @return Mean binary cross-entropy per frame.
+         */
+        public double getBinaryCrossEntropy() {
+            return getFrameCount() > 0 ? crossEntropySum / getFrameCount() : 0;
+        }
+
+        /**
+         * Getter for the area under the receiver operating characteristic curve.
+         *
+         * @return Area under the curve within [0, 1], or NaN if the corpus lacks voiced or unvoiced frames.
+         */
+        public double getAuc() {
+            if (positiveCount == 0 || negativeCount == 0) {
+                return Double.NaN;
+            }
+            double area = 0;
+            for (int i = 0; i < truePositives.length - 1; i++) {
+                double width = (double) (falsePositives[i] - falsePositives[i + 1]) / negativeCount;
+                double height = (double) (truePositives[i] + truePositives[i + 1]) / (2.0 * positiveCount);
+                area += width * height;
+            }
+            return area;
+        }
+
+        /**
+         * Getter for the equal error rate, the error rate at the threshold where the false positive rate
+         * equals the false negative rate.
+         *
+         * @return Equal error rate within [0, 1], or NaN if the corpus lacks voiced or unvoiced frames.
+         */
+        public double getEqualErrorRate() {
+            if (positiveCount == 0 || negativeCount == 0) {
+                return Double.NaN;
+            }
+            // the false positive rate falls and the false negative rate rises with the threshold
+            double previousFpr = 1;
+            double previousFnr = 0;
+            for (int i = 0; i < truePositives.length; i++) {
+                double fpr = (double) falsePositives[i] / negativeCount;
+                double fnr = 1 - (double) truePositives[i] / positiveCount;
+                if (fnr >= fpr) {
+                    double previousGap = previousFpr - previousFnr;
+                    double gap = fnr - fpr;
+                    double t = previousGap + gap > 0 ? previousGap / (previousGap + gap) : 0;
+                    return previousFpr + t * (fpr - previousFpr);
+                }
+                previousFpr = fpr;
+                previousFnr = fnr;
+            }
+            return previousFpr;
+        }
+
+        /**
+         * Getter for the precision at a threshold.
+         *
+         * @param threshold Detection threshold within [0, 1].
+         * @return Fraction of frames detected as voiced that are labelled as voiced, or NaN if no frame
+         *         is detected.
+         */
+        public double getPrecision(float threshold) {
+            int bin = binOf(threshold);
+            long detected = truePositives[bin] + falsePositives[bin];
+            return detected > 0 ? (double) truePositives[bin] / detected : Double.NaN;
+        }
+
+        /**
+         * Getter for the recall (true positive rate) at a threshold.
+         *
+         * @param threshold Detection threshold within [0, 1].
+         * @return Fraction of voiced frames that are detected, or NaN if no frame is labelled as voiced.
+         */
+        public double getRecall(float threshold) {
+            return positiveCount > 0 ? (double) truePositives[binOf(threshold)] / positiveCount : Double.NaN;
+        }
+
+        /**
+         * Getter for the false positive rate at a threshold.
+         *
+         * @param threshold Detection threshold within [0, 1].
+         * @return Fraction of unvoiced frames that are detected, or NaN if no frame is labelled as
+         *         unvoiced.
+         */
+        public double getFalsePositiveRate(float threshold) {
+            return negativeCount > 0 ? (double) falsePositives[binOf(threshold)] / negativeCount : Double.NaN;
+        }
+
+        private int binOf(float threshold) {
+            int numBins = truePositives.length - 1;
+            return Math.min(Math.max((int) Math.ceil(threshold * numBins), 0), numBins);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "files=%d frames=%d bce=%.4f auc=%.4f eer=%.4f precision@0.5=%.4f recall@0.5=%.4f",
+                    fileCount,
+                    getFrameCount(),
+                    getBinaryCrossEntropy(),
+                    getAuc(),
+                    getEqualErrorRate(),
+                    getPrecision(0.5f),
+                    getRecall(0.5f));
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraEvaluator with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private CobraEngineFactory engineFactory = null;
+        private int numThreads = Runtime.getRuntime().availableProcessors();
+        private int numBins = 1000;
+        private String labelExtension = ".txt";
+        private ThreadFactory threadFactory = Executors.defaultThreadFactory();
+
+        /**
+         * Setter for the factory that creates the engine of each worker.
+         *
+         * @param engineFactory Engine factory, e.g. a configured {@link Cobra.Builder}.
+         */
+        public Builder setEngineFactory(CobraEngineFactory engineFactory) {
+            this.engineFactory = engineFactory;
+            return this;
+        }
+
+        /**
+         * Setter for the number of worker threads.
+         *
+         * @param numThreads Number of files evaluated concurrently. Defaults to the number of available
+         *                   processors.
+         */
+        public Builder setNumThreads(int numThreads) {
+            this.numThreads = numThreads;
+            return this;
+        }
+
+        /**
+         * Setter for the resolution of the probability histograms.
+         *
+         * @param numBins Number of equally sized probability bins. Thresholds are resolved to multiples
+         *                of `1 / numBins`.
+         */
+        public Builder setNumBins(int numBins) {
+            this.numBins = numBins;
+            return this;
+        }
+
+        /**
+         * Setter for the extension of label files.
+         *
+         * @param labelExtension Extension, including the dot, that replaces the extension of an audio file
+         *                       to form the path of its label file.
+         */
+        public Builder setLabelExtension(String labelExtension) {
+            this.labelExtension = labelExtension;
+            return this;
+        }
+
+        /**
+         * Setter for the factory of the worker threads.
+         *
+         * @param threadFactory Factory used to create worker threads (e.g. {@link CobraThreadFactory}).
+         */
+        public Builder setThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraEvaluator.
+         *
+         * @return An instance of CobraEvaluator
+         * @throws CobraException if the properties are invalid.
+         */
+        public CobraEvaluator build() throws CobraException {
+            if (engineFactory == null) {
+                throw new CobraInvalidArgumentException("No engine factory was provided to CobraEvaluator.");
+            }
+            if (numThreads <= 0) {
+                throw new CobraInvalidArgumentException("Number of threads must be positive.");
+            }
+            if (numBins <= 0) {
+                throw new CobraInvalidArgumentException("Number of histogram bins must be positive.");
+            }
+            if (labelExtension == null || labelExtension.isEmpty()) {
+                throw new CobraInvalidArgumentException("Label extension cannot be empty.");
+            }
+            if (threadFactory == null) {
+                throw new CobraInvalidArgumentException("No thread factory was provided to CobraEvaluator.");
+            }
+
+            return new CobraEvaluator(engineFactory, numThreads, numBins, labelExtension, threadFactory);
+        }
+    }
+}
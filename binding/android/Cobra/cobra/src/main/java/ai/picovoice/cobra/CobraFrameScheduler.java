@@ -0,0 +1,445 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *   Deadline-aware scheduler that runs Cobra inference for any number of live audio streams on a
+ *   single worker thread. Every submitted frame is stamped with its capture time. When the worker
+ *   falls behind (e.g. after a GC pause), frames that are already past their deadline are skipped
+ *   instead of being processed in FIFO order. Only the last few stale frames are still fed to Cobra
+ *   (with their results discarded) so that its temporal state stays coherent. A backlog therefore
+ *   clears within a few frames rather than after seconds of stale work.
+ **/
+public class CobraFrameScheduler {
+
+    private static final String TAG = "CobraFrameScheduler";
+
+    /**
+     * Receiver of scheduler results. Callbacks are invoked on the scheduler worker thread.
+     */
+    public interface Listener {
+
+        /**
+         * Called for every frame that was processed before its deadline.
+         *
+         * @param stream The stream the frame was submitted to.
+         * @param probability Probability of voice activity. It is a floating-point number within [0, 1].
+         * @param captureTimeNanos Capture time of the frame in the {@link System#nanoTime()} time base.
+         */
+        void onProbability(Stream stream, float probability, long captureTimeNanos);
+
+        /**
+         * Called when processing a frame fails.
+         *
+         * @param stream The stream the frame was submitted to.
+         * @param e The error raised by Cobra.
+         */
+        void onError(Stream stream, CobraException e);
+    }
+
+    private final long deadlineNanos;
+    private final int contextFrames;
+    private final int queueCapacity;
+
+    private final Object lock = new Object();
+    private final List<Stream> streams = new ArrayList<>();
+    private boolean signalled = false;
+    private boolean stopped = false;
+    private Thread worker;
+    private Stream servicing;
+
+    private CobraFrameScheduler(long deadlineNanos, int contextFrames, int queueCapacity) {
+        this.deadlineNanos = deadlineNanos;
+        this.contextFrames = contextFrames;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Registers a new stream with the scheduler. The scheduler does not take ownership of `engine`;
+     * the caller remains responsible for calling {@link CobraEngine#delete()} after removing the stream.
+     *
+     * @param engine Engine instance (e.g. {@link Cobra}) dedicated to this stream.
+     * @param listener Receiver of the results of this stream.
+     * @return The registered stream.
+     * @throws CobraException if the arguments are invalid or the scheduler has been stopped.
+     */
+    public Stream addStream(CobraEngine engine, Listener listener) throws CobraException {
+        if (engine == null) {
+            throw new CobraInvalidArgumentException("Passed null engine to CobraFrameScheduler.");
+        }
+        if (listener == null) {
+            throw new CobraInvalidArgumentException("Passed null listener to CobraFrameScheduler.");
+        }
+
+        Stream stream = new Stream(engine, listener);
+        synchronized (lock) {
+            if (stopped) {
+                throw new CobraInvalidStateException("Attempted to add a stream after CobraFrameScheduler stop.");
+            }
+            streams.add(stream);
+        }
+        return stream;
+    }
+
+    /**
+     * Removes a stream from the scheduler. Frames still queued for the stream are discarded. If the
+     * worker is processing a frame of the stream, this waits for it to finish, so the engine of the
+     * stream can be deleted as soon as this returns.
+     *
+     * @param stream The stream to remove.
+     */
+    public void removeStream(Stream stream) {
+        boolean interrupted = false;
+        synchronized (lock) {
+            streams.remove(stream);
+            stream.removed = true;
+            // a listener may remove its own stream from the worker thread
+            while (servicing == stream && Thread.currentThread() != worker) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Starts the scheduler worker thread.
+     */
+    public void start() {
+        synchronized (lock) {
+            if (worker != null || stopped) {
+                return;
+            }
+            worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    runWorker();
+                }
+            }, "CobraFrameScheduler");
+            worker.start();
+        }
+    }
+
+    /**
+     * Stops the scheduler worker thread and waits for it to exit. Queued frames are discarded.
+     *
+     * @throws InterruptedException if interrupted while waiting for the worker to exit.
+     */
+    public void stop() throws InterruptedException {
+        Thread t;
+        synchronized (lock) {
+            stopped = true;
+            lock.notifyAll();
+            t = worker;
+        }
+        if (t != null) {
+            t.join();
+        }
+    }
+
+    private void signal() {
+        synchronized (lock) {
+            signalled = true;
+            lock.notifyAll();
+        }
+    }
+
+    private void runWorker() {
+        Stream[] snapshot = new Stream[0];
+        short[] scratch = null;
+
+        while (true) {
+            synchronized (lock) {
+                while (!signalled && !stopped) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (stopped) {
+                    return;
+                }
+                signalled = false;
+                snapshot = streams.toArray(snapshot);
+            }
+
+            boolean pending = true;
+            while (pending) {
+                pending = false;
+                for (Stream stream : snapshot) {
+                    if (stream == null) {
+                        break;
+                    }
+                    synchronized (lock) {
+                        if (stopped) {
+                            return;
+                        }
+                        if (stream.removed) {
+                            continue;
+                        }
+                        servicing = stream;
+                    }
+                    if (scratch == null || scratch.length != stream.frameLength) {
+                        scratch = new short[stream.frameLength];
+                    }
+                    try {
+                        pending |= stream.serviceOne(scratch);
+                    } finally {
+                        synchronized (lock) {
+                            servicing = null;
+                            lock.notifyAll();
+                        }
+                    }
+                }
+                synchronized (lock) {
+                    if (stopped) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A single audio stream served by the scheduler, backed by its own engine instance.
+     */
+    public final class Stream {
+
+        private final CobraEngine engine;
+        private final Listener listener;
+        private final int frameLength;
+
+        private final short[][] frames;
+        private final long[] captureTimes;
+        private int head = 0;
+        private int count = 0;
+
+        private long missCount = 0;
+        private long processedCount = 0;
+
+        // guarded by the scheduler lock
+        private boolean removed = false;
+
+        private Stream(CobraEngine engine, Listener listener) {
+            this.engine = engine;
+            this.listener = listener;
+            this.frameLength = engine.getFrameLength();
+            this.frames = new short[queueCapacity][frameLength];
+            this.captureTimes = new long[queueCapacity];
+        }
+
+        /**
+         * Queues a frame for processing. The frame is copied, so the caller may reuse `pcm`. If the
+         * queue is full the oldest queued frame is dropped and counted as a deadline miss.
+         *
+         * @param pcm A frame of audio samples of length {@link CobraEngine#getFrameLength()}.
+         * @param captureTimeNanos Capture time of the frame in the {@link System#nanoTime()} time base.
+         * @throws CobraInvalidArgumentException if the frame is null or has the wrong length.
+         */
+        public void submit(short[] pcm, long captureTimeNanos) throws CobraInvalidArgumentException {
+            if (pcm == null) {
+                throw new CobraInvalidArgumentException("Passed null frame to CobraFrameScheduler submit.");
+            }
+            if (pcm.length != frameLength) {
+                throw new CobraInvalidArgumentException(
+                        String.format("CobraFrameScheduler submit requires frames of length %d. " +
+                                "Received frame of size %d.", frameLength, pcm.length));
+            }
+
+            synchronized (this) {
+                if (count == queueCapacity) {
+                    head = (head + 1) % queueCapacity;
+                    count--;
+                    missCount++;
+                }
+                int tail = (head + count) % queueCapacity;
+                System.arraycopy(pcm, 0, frames[tail], 0, frameLength);
+                captureTimes[tail] = captureTimeNanos;
+                count++;
+            }
+            signal();
+        }
+
+        /**
+         * Getter for the number of frames that did not produce a result before their deadline. This
+         * includes frames that were skipped, frames fed only to keep the model state coherent, and
+         * frames dropped because the queue was full.
+         *
+         * @return Number of missed frames.
+         */
+        public synchronized long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * Getter for the number of frames whose result was delivered before their deadline.
+         *
+         * @return Number of processed frames.
+         */
+        public synchronized long getProcessedCount() {
+            return processedCount;
+        }
+
+        /**
+         * Getter for the number of frames currently queued.
+         *
+         * @return Number of queued frames.
+         */
+        public synchronized int getQueuedCount() {
+            return count;
+        }
+
+        private boolean serviceOne(short[] scratch) {
+            long captureTimeNanos;
+            boolean late;
+            synchronized (this) {
+                if (count == 0) {
+                    return false;
+                }
+
+                long now = System.nanoTime();
+                int stale = 0;
+                while (stale < count && isLate(captureTimes[(head + stale) % queueCapacity], now)) {
+                    stale++;
+                }
+                int skip = stale - contextFrames;
+                if (skip > 0) {
+                    head = (head + skip) % queueCapacity;
+                    count -= skip;
+                    missCount += skip;
+                }
+
+                System.arraycopy(frames[head], 0, scratch, 0, frameLength);
+                captureTimeNanos = captureTimes[head];
+                late = isLate(captureTimeNanos, now);
+                head = (head + 1) % queueCapacity;
+                count--;
+            }
+
+            // a failing engine or listener must not end the worker, which serves every stream
+            float probability;
+            try {
+                probability = engine.process(scratch);
+            } catch (CobraException e) {
+                try {
+                    listener.onError(this, e);
+                } catch (RuntimeException listenerError) {
+                    Log.e(TAG, "CobraFrameScheduler listener failed.", listenerError);
+                }
+                return hasQueued();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "CobraFrameScheduler engine failed.", e);
+                return hasQueued();
+            }
+
+            if (late || isLate(captureTimeNanos, System.nanoTime())) {
+                synchronized (this) {
+                    missCount++;
+                }
+            } else {
+                synchronized (this) {
+                    processedCount++;
+                }
+                try {
+                    listener.onProbability(this, probability, captureTimeNanos);
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "CobraFrameScheduler listener failed.", e);
+                }
+            }
+            return hasQueued();
+        }
+
+        private synchronized boolean hasQueued() {
+            return count > 0;
+        }
+
+        private boolean isLate(long captureTimeNanos, long now) {
+            return now - captureTimeNanos > deadlineNanos;
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraFrameScheduler with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private int deadlineMs = 200;
+        private int contextFrames = 4;
+        private int queueCapacity = 64;
+
+        /**
+         * Setter for the per-frame deadline.
+         *
+         * @param deadlineMs Maximum time in milliseconds between the capture of a frame and the delivery
+         *                   of its result. Frames older than this are not reported.
+         */
+        public Builder setDeadlineMs(int deadlineMs) {
+            this.deadlineMs = deadlineMs;
+            return this;
+        }
+
+        /**
+         * Setter for the number of stale frames fed to Cobra after a backlog is skipped.
+         *
+         * @param contextFrames Number of most recent stale frames that are still processed (with their
+         *                      results discarded) so that the temporal state of Cobra stays coherent.
+         */
+        public Builder setContextFrames(int contextFrames) {
+            this.contextFrames = contextFrames;
+            return this;
+        }
+
+        /**
+         * Setter for the per-stream queue capacity.
+         *
+         * @param queueCapacity Maximum number of frames queued per stream. When full, the oldest frame
+         *                      is dropped.
+         */
+        public Builder setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraFrameScheduler.
+         *
+         * @return An instance of CobraFrameScheduler
+         * @throws CobraException if the properties are invalid.
+         */
+        public CobraFrameScheduler build() throws CobraException {
+            if (deadlineMs <= 0) {
+                throw new CobraInvalidArgumentException("Deadline must be a positive number of milliseconds.");
+            }
+            if (contextFrames < 0) {
+                throw new CobraInvalidArgumentException("Number of context frames cannot be negative.");
+            }
+            if (queueCapacity <= 0) {
+                throw new CobraInvalidArgumentException("Queue capacity must be positive.");
+            }
+
+            return new CobraFrameScheduler(
+                    deadlineMs * 1000000L,
+                    contextFrames,
+                    queueCapacity);
+        }
+    }
+}
@@ -0,0 +1,528 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ *   Creates streams whose engine configuration can be changed while they run, e.g. to move every
+ *   stream to another `device` without dropping any of them. Streams are {@link CobraEngine}s created
+ *   by {@link #create()}. A call to {@link #swap(CobraEngineFactory)} builds a replacement engine for
+ *   each live stream on a background thread, one at a time, and primes it there so that its
+ *   first-call costs are not paid on the processing thread.
+ *
+ *   <p>Once its replacement is ready, a stream feeds every frame to both engines for a warm-up period
+ *   so that the replacement acquires the temporal context of the stream. It then cuts over at a frame
+ *   boundary and deletes the old engine. Results keep coming from the old engine until the cut-over,
+ *   so the stream has no gap and no discontinuity. Streams created during a swap use the new
+ *   configuration as soon as its first engine has been built.
+ *
+ *   <p>A stream cuts over only while it processes frames, so a swap completes once every stream that
+ *   was live when it started has processed its warm-up frames or has been deleted.
+ **/
+public class CobraHotSwap implements CobraEngineFactory {
+
+    /**
+     * Receiver of swap events. Callbacks are invoked on the background thread or on a processing
+     * thread.
+     */
+    public interface Listener {
+
+        /**
+         * Called when every stream that was live when a swap started has cut over to its configuration,
+         * has been deleted, or has failed to get a replacement. Streams whose replacement failed were
+         * reported to {@link #onSwapFailed(int, CobraException)}, keep their previous engine and are
+         * moved by the next swap.
+         *
+         * @param generation Generation of the configuration, as returned by {@link #swap(CobraEngineFactory)}.
+         */
+        void onSwapComplete(int generation);
+
+        /**
+         * Called when the replacement engine of a stream cannot be created or fails during warm-up. The
+         * stream keeps its current engine. If the first replacement of a swap fails, the swap is
+         * abandoned and new streams keep the previous configuration.
+         *
+         * @param generation Generation of the configuration, as returned by {@link #swap(CobraEngineFactory)}.
+         * @param e Error raised by the replacement engine.
+         */
+        void onSwapFailed(int generation, CobraException e);
+    }
+
+    private final int warmupFrames;
+    private final ThreadFactory threadFactory;
+    private final Listener listener;
+
+    private final Object lock = new Object();
+    private final List<Stream> streams = new ArrayList<>();
+    private CobraEngineFactory factory;
+    private int generation = 0;
+    private int targetGeneration = 0;
+    private int completedGeneration = 0;
+
+    private CobraHotSwap(
+            CobraEngineFactory factory,
+            int warmupFrames,
+            ThreadFactory threadFactory,
+            Listener listener) {
+        this.factory = factory;
+        this.warmupFrames = warmupFrames;
+        this.threadFactory = threadFactory;
+        this.listener = listener;
+    }
+
+    /**
+     * Creates a stream with the current configuration.
+     *
+     * @return Stream, which is an engine whose configuration follows the swaps of this instance.
+     * @throws CobraException if the engine cannot be created.
+     */
+    @Override
+    public CobraEngine create() throws CobraException {
+        CobraEngineFactory current;
+        int currentGeneration;
+        synchronized (lock) {
+            current = factory;
+            currentGeneration = generation;
+        }
+        Stream stream = new Stream(current.create(), currentGeneration);
+        synchronized (lock) {
+            streams.add(stream);
+        }
+        // a swap may have started while the engine was created
+        requestReplacements();
+        return stream;
+    }
+
+    /**
+     * Starts moving every stream to a new configuration. Returns immediately; progress is reported
+     * to the {@link Listener}. A swap is in progress, and another one is rejected, until
+     * {@link #isSwapping()} returns `false`.
+     *
+     * @param factory Factory of the new configuration, e.g. a {@link Cobra.Builder} with another device.
+     *                Its engines must have the same frame length and sample rate as the current ones.
+     * @return Generation of the new configuration.
+     * @throws CobraException if the factory is null or a swap is already in progress.
+     */
+    public int swap(final CobraEngineFactory factory) throws CobraException {
+        if (factory == null) {
+            throw new CobraInvalidArgumentException("Passed null engine factory to CobraHotSwap swap.");
+        }
+        final int swapGeneration;
+        synchronized (lock) {
+            // streams still warming up a replacement would be skipped by the next swap
+            if (targetGeneration != generation || findOutdated(generation, false) != null) {
+                throw new CobraInvalidStateException(
+                        "Attempted to call CobraHotSwap swap while a swap is in progress.");
+            }
+            swapGeneration = ++targetGeneration;
+        }
+
+        Thread thread = threadFactory.newThread(new Runnable() {
+            @Override
+            public void run() {
+                runSwap(factory, swapGeneration);
+            }
+        });
+        thread.setName("CobraHotSwap-" + swapGeneration);
+        thread.start();
+        return swapGeneration;
+    }
+
+    /**
+     * Getter for the generation of the configuration used for new streams.
+     *
+     * @return Generation, 0 for the configuration the instance was built with.
+     */
+    public int getGeneration() {
+        synchronized (lock) {
+            return generation;
+        }
+    }
+
+    /**
+     * Whether a swap is in progress.
+     *
+     * @return `true` from a call to {@link #swap(CobraEngineFactory)} until the swap completes or fails.
+     */
+    public boolean isSwapping() {
+        synchronized (lock) {
+            return targetGeneration != generation || findOutdated(generation, false) != null;
+        }
+    }
+
+    private void runSwap(CobraEngineFactory replacementFactory, int swapGeneration) {
+        // the first engine validates the new configuration before any stream depends on it
+        CobraEngine first;
+        try {
+            first = createPrimed(replacementFactory);
+        } catch (CobraException e) {
+            synchronized (lock) {
+                targetGeneration = generation;
+            }
+            listener.onSwapFailed(swapGeneration, e);
+            return;
+        }
+
+        synchronized (lock) {
+            factory = replacementFactory;
+            generation = swapGeneration;
+        }
+
+        while (true) {
+            Stream stream;
+            synchronized (lock) {
+                stream = findOutdated(swapGeneration, true);
+                if (stream == null) {
+                    break;
+                }
+                stream.replacing = true;
+            }
+
+            CobraEngine replacement = first;
+            first = null;
+            try {
+                if (replacement == null) {
+                    replacement = createPrimed(replacementFactory);
+                }
+                stream.offer(replacement, swapGeneration);
+            } catch (CobraException e) {
+                if (replacement != null) {
+                    replacement.delete();
+                }
+                stream.abandon(swapGeneration, e);
+            }
+        }
+
+        if (first != null) {
+            first.delete();
+        }
+        checkComplete(swapGeneration);
+    }
+
+    private CobraEngine createPrimed(CobraEngineFactory replacementFactory) throws CobraException {
+        CobraEngine replacement = replacementFactory.create();
+        try {
+            // lazy native allocations happen on the first frame; take that hit here rather than on a stream.
+            // The engine is not reset afterwards, since that re-creates it; the warm-up outweighs one silent frame.
+            replacement.process(new short[replacement.getFrameLength()]);
+            return replacement;
+        } catch (CobraException e) {
+            replacement.delete();
+            throw e;
+        }
+    }
+
+    private Stream findOutdated(int swapGeneration, boolean unclaimedOnly) {
+        for (Stream stream : streams) {
+            if (stream.generation < swapGeneration &&
+                    stream.failedGeneration != swapGeneration &&
+                    !(unclaimedOnly && stream.replacing)) {
+                return stream;
+            }
+        }
+        return null;
+    }
+
+    private void requestReplacements() {
+        synchronized (lock) {
+            if (findOutdated(generation, true) == null || targetGeneration != generation) {
+                return;
+            }
+        }
+        // the swap thread has finished claiming streams; replace latecomers on a thread of their own
+        final CobraEngineFactory current;
+        final int currentGeneration;
+        synchronized (lock) {
+            current = factory;
+            currentGeneration = generation;
+        }
+        Thread thread = threadFactory.newThread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    Stream stream;
+                    synchronized (lock) {
+                        stream = findOutdated(currentGeneration, true);
+                        if (stream == null) {
+                            return;
+                        }
+                        stream.replacing = true;
+                    }
+                    try {
+                        stream.offer(createPrimed(current), currentGeneration);
+                    } catch (CobraException e) {
+                        stream.abandon(currentGeneration, e);
+                    }
+                }
+            }
+        });
+        thread.setName("CobraHotSwap-" + currentGeneration);
+        thread.start();
+    }
+
+    private void checkComplete(int swapGeneration) {
+        synchronized (lock) {
+            if (generation != swapGeneration ||
+                    completedGeneration == swapGeneration ||
+                    findOutdated(swapGeneration, false) != null) {
+                return;
+            }
+            completedGeneration = swapGeneration;
+        }
+        listener.onSwapComplete(swapGeneration);
+    }
+
+    /**
+     * Engine of a single stream that cuts over to replacements offered by a swap.
+     */
+    private final class Stream implements CobraEngine {
+
+        private final int frameLength;
+        private final int sampleRate;
+
+        // only touched by the processing thread
+        private CobraEngine engine;
+        private CobraEngine warming = null;
+        private int warmingGeneration;
+        private int warmedFrames = 0;
+        private boolean deleted = false;
+
+        // guarded by lock
+        private int generation;
+        private int failedGeneration = -1;
+        private boolean replacing = false;
+        private CobraEngine pending = null;
+        private int pendingGeneration;
+        private volatile boolean hasPending = false;
+
+        Stream(CobraEngine engine, int generation) {
+            this.engine = engine;
+            this.generation = generation;
+            this.frameLength = engine.getFrameLength();
+            this.sampleRate = engine.getSampleRate();
+        }
+
+        @Override
+        public float process(short[] pcm) throws CobraException {
+            if (deleted) {
+                throw new CobraInvalidStateException("Attempted to call CobraHotSwap stream process after delete.");
+            }
+            if (hasPending) {
+                takePending();
+            }
+
+            float probability = engine.process(pcm);
+            if (warming != null) {
+                try {
+                    warming.process(pcm);
+                } catch (CobraException e) {
+                    warming.delete();
+                    warming = null;
+                    abandon(warmingGeneration, e);
+                    return probability;
+                }
+                if (++warmedFrames >= warmupFrames) {
+                    cutOver();
+                }
+            }
+            return probability;
+        }
+
+        @Override
+        public void reset() throws CobraException {
+            if (deleted) {
+                throw new CobraInvalidStateException("Attempted to call CobraHotSwap stream reset after delete.");
+            }
+            engine.reset();
+            if (warming != null) {
+                warming.reset();
+                warmedFrames = 0;
+            }
+        }
+
+        @Override
+        public int getFrameLength() {
+            return frameLength;
+        }
+
+        @Override
+        public int getSampleRate() {
+            return sampleRate;
+        }
+
+        @Override
+        public String getVersion() {
+            return engine != null ? engine.getVersion() : "";
+        }
+
+        @Override
+        public void delete() {
+            if (deleted) {
+                return;
+            }
+            deleted = true;
+            int swapGeneration;
+            synchronized (lock) {
+                streams.remove(this);
+                if (pending != null) {
+                    pending.delete();
+                    pending = null;
+                    hasPending = false;
+                }
+                swapGeneration = CobraHotSwap.this.generation;
+            }
+            if (warming != null) {
+                warming.delete();
+                warming = null;
+            }
+            engine.delete();
+            engine = null;
+            checkComplete(swapGeneration);
+        }
+
+        @Override
+        public void close() {
+            delete();
+        }
+
+        private void offer(CobraEngine replacement, int replacementGeneration) throws CobraException {
+            if (replacement.getFrameLength() != frameLength || replacement.getSampleRate() != sampleRate) {
+                throw new CobraInvalidArgumentException(
+                        "CobraHotSwap replacement has a different frame length or sample rate.");
+            }
+            synchronized (lock) {
+                if (!streams.contains(this)) {
+                    replacement.delete();
+                    return;
+                }
+                pending = replacement;
+                pendingGeneration = replacementGeneration;
+                hasPending = true;
+            }
+        }
+
+        private void abandon(int replacementGeneration, CobraException e) {
+            synchronized (lock) {
+                replacing = false;
+                failedGeneration = replacementGeneration;
+            }
+            listener.onSwapFailed(replacementGeneration, e);
+            checkComplete(replacementGeneration);
+        }
+
+        private void takePending() {
+            synchronized (lock) {
+                if (warming != null) {
+                    warming.delete();
+                }
+                warming = pending;
+                warmingGeneration = pendingGeneration;
+                warmedFrames = 0;
+                pending = null;
+                hasPending = false;
+            }
+            if (warmupFrames == 0) {
+                cutOver();
+            }
+        }
+
+        private void cutOver() {
+            CobraEngine previous = engine;
+            engine = warming;
+            warming = null;
+            synchronized (lock) {
+                generation = warmingGeneration;
+                replacing = false;
+            }
+            previous.delete();
+            checkComplete(warmingGeneration);
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraHotSwap with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private CobraEngineFactory engineFactory = null;
+        private int warmupFrames = 32;
+        private ThreadFactory threadFactory = Executors.defaultThreadFactory();
+        private Listener listener = null;
+
+        /**
+         * Setter for the initial configuration.
+         *
+         * @param engineFactory Engine factory, e.g. a configured {@link Cobra.Builder}.
+         */
+        public Builder setEngineFactory(CobraEngineFactory engineFactory) {
+            this.engineFactory = engineFactory;
+            return this;
+        }
+
+        /**
+         * Setter for the length of the warm-up overlap.
+         *
+         * @param warmupFrames Number of frames a replacement processes alongside the current engine
+         *                     before it takes over.
+         */
+        public Builder setWarmupFrames(int warmupFrames) {
+            this.warmupFrames = warmupFrames;
+            return this;
+        }
+
+        /**
+         * Setter for the factory of the background threads that build replacements.
+         *
+         * @param threadFactory Thread factory.
+         */
+        public Builder setThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        /**
+         * Setter for the receiver of swap events.
+         *
+         * @param listener Listener.
+         */
+        public Builder setListener(Listener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraHotSwap.
+         *
+         * @return An instance of CobraHotSwap
+         * @throws CobraException if the properties are invalid.
+         */
+        public CobraHotSwap build() throws CobraException {
+            if (engineFactory == null) {
+                throw new CobraInvalidArgumentException("No engine factory was provided to CobraHotSwap.");
+            }
+            if (warmupFrames < 0) {
+                throw new CobraInvalidArgumentException("Number of warm-up frames must not be negative.");
+            }
+            if (threadFactory == null) {
+                throw new CobraInvalidArgumentException("No thread factory was provided to CobraHotSwap.");
+            }
+            if (listener == null) {
+                throw new CobraInvalidArgumentException("No listener was provided to CobraHotSwap.");
+            }
+
+            return new CobraHotSwap(engineFactory, warmupFrames, threadFactory, listener);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import android.util.Log;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ *   Shares the voice activity detection of one audio source among any number of subscribers. The hub
+ *   owns a single engine and processes each frame of the source once; the result is then delivered to
+ *   every subscriber, each with its own smoothing. Features that watch the same microphone therefore
+ *   cost one inference per frame in total rather than one each.
+ *
+ *   <p>Subscribing and unsubscribing never block and may happen on any thread, including from within
+ *   a callback. The subscriber list is an immutable array replaced by compare-and-set, so the
+ *   processing thread iterates a consistent snapshot without taking a lock. A subscription made
+ *   during a call to {@link #process(short[])} receives results from the next frame on.
+ **/
+public class CobraHub implements CobraEngine {
+
+    private static final String TAG = "CobraHub";
+
+    /**
+     * Receiver of hub results. Callbacks are invoked on the thread that calls {@link #process(short[])}.
+     */
+    public interface Subscriber {
+
+        /**
+         * Called for every frame processed by the hub.
+         *
+         * @param probability Probability of voice activity smoothed for this subscriber.
+         * @param rawProbability Probability of voice activity of the frame as returned by the engine.
+         * @param frameIndex Index of the frame since the hub was created or last reset.
+         */
+        void onProbability(float probability, float rawProbability, long frameIndex);
+    }
+
+    private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+
+    private final CobraEngine engine;
+    private final AtomicReference<Subscription[]> subscriptions = new AtomicReference<>(NO_SUBSCRIPTIONS);
+    private long frameIndex = 0;
+    private boolean deleted = false;
+
+    private CobraHub(CobraEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Adds a subscriber.
+     *
+     * @param subscriber Receiver of the results.
+     * @param smoothing Weight of the latest frame in the subscriber's exponential moving average,
+     *                  within (0, 1]. 1 delivers the raw probabilities.
+     * @return Subscription, used to unsubscribe.
+     * @throws CobraException if the arguments are invalid.
+     */
+    public Subscription subscribe(Subscriber subscriber, float smoothing) throws CobraException {
+        if (subscriber == null) {
+            throw new CobraInvalidArgumentException("Passed null subscriber to CobraHub subscribe.");
+        }
+        if (!(smoothing > 0 && smoothing <= 1)) {
+            throw new CobraInvalidArgumentException("Smoothing must be within (0, 1].");
+        }
+
+        Subscription subscription = new Subscription(subscriber, smoothing);
+        while (true) {
+            Subscription[] current = subscriptions.get();
+            Subscription[] updated = new Subscription[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, current.length);
+            updated[current.length] = subscription;
+            if (subscriptions.compareAndSet(current, updated)) {
+                return subscription;
+            }
+        }
+    }
+
+    /**
+     * Processes a frame of the source once and delivers the result to every subscriber. A subscriber
+     * that throws is logged and does not affect the others.
+     *
+     * @param pcm A frame of audio samples of length {@link #getFrameLength()}.
+     * @return Probability of voice activity of the frame as returned by the engine.
+     * @throws CobraException if there is an error while processing the audio frame.
+     */
+    @Override
+    public float process(short[] pcm) throws CobraException {
+        if (deleted) {
+            throw new CobraInvalidStateException("Attempted to call CobraHub process after delete.");
+        }
+
+        float rawProbability = engine.process(pcm);
+        for (Subscription subscription : subscriptions.get()) {
+            subscription.deliver(rawProbability, frameIndex);
+        }
+        frameIndex++;
+        return rawProbability;
+    }
+
+    /**
+     * Resets the engine, the frame index and the smoothing state of every subscriber.
+     *
+     * @throws CobraException if there is an error while resetting the engine.
+     */
+    @Override
+    public void reset() throws CobraException {
+        if (deleted) {
+            throw new CobraInvalidStateException("Attempted to call CobraHub reset after delete.");
+        }
+        engine.reset();
+        frameIndex = 0;
+        for (Subscription subscription : subscriptions.get()) {
+            subscription.primed = false;
+        }
+    }
+
+    /**
+     * Getter for the number of active subscriptions.
+     *
+     * @return Number of subscribers.
+     */
+    public int getSubscriberCount() {
+        return subscriptions.get().length;
+    }
+
+    @Override
+    public int getFrameLength() {
+        return engine.getFrameLength();
+    }
+
+    @Override
+    public int getSampleRate() {
+        return engine.getSampleRate();
+    }
+
+    @Override
+    public String getVersion() {
+        return engine.getVersion();
+    }
+
+    /**
+     * Releases the engine and drops all subscriptions.
+     */
+    @Override
+    public void delete() {
+        if (!deleted) {
+            deleted = true;
+            subscriptions.set(NO_SUBSCRIPTIONS);
+            engine.delete();
+        }
+    }
+
+    @Override
+    public void close() {
+        delete();
+    }
+
+    private void remove(Subscription subscription) {
+        while (true) {
+            Subscription[] current = subscriptions.get();
+            int index = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == subscription) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            Subscription[] updated = current.length == 1 ? NO_SUBSCRIPTIONS : new Subscription[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, index);
+            System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+            if (subscriptions.compareAndSet(current, updated)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Registration of a subscriber with a hub.
+     */
+    public final class Subscription {
+
+        private final Subscriber subscriber;
+        private final float smoothing;
+
+        // only touched by the processing thread
+        private float state;
+        private boolean primed = false;
+
+        private Subscription(Subscriber subscriber, float smoothing) {
+            this.subscriber = subscriber;
+            this.smoothing = smoothing;
+        }
+
+        /**
+         * Removes the subscriber from the hub. Calling this more than once has no effect.
+         */
+        public void unsubscribe() {
+            remove(this);
+        }
+
+        private void deliver(float rawProbability, long frameIndex) {
+            state = primed ? state + smoothing * (rawProbability - state) : rawProbability;
+            primed = true;
+            try {
+                subscriber.onProbability(state, rawProbability, frameIndex);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "CobraHub subscriber failed.", e);
+            }
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraHub with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private CobraEngineFactory engineFactory = null;
+
+        /**
+         * Setter for the factory of the hub's engine.
+         *
+         * @param engineFactory Engine factory, e.g. a configured {@link Cobra.Builder}. The hub owns the
+         *                      engine it creates.
+         */
+        public Builder setEngineFactory(CobraEngineFactory engineFactory) {
+            this.engineFactory = engineFactory;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraHub.
+         *
+         * @return An instance of CobraHub
+         * @throws CobraException if the properties are invalid or the engine cannot be created.
+         */
+        public CobraHub build() throws CobraException {
+            if (engineFactory == null) {
+                throw new CobraInvalidArgumentException("No engine factory was provided to CobraHub.");
+            }
+
+            return new CobraHub(engineFactory.create());
+        }
+    }
+}
@@ -0,0 +1,525 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import android.os.Process;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ *   Finds the number of live streams a device sustains. Audio clips are replayed as N concurrent
+ *   streams, each with its own engine, paced by the wall clock: a frame of every stream becomes due
+ *   once per frame duration (32 ms for Cobra), with the streams staggered evenly across the period.
+ *   A pool of worker threads processes due frames in order. A frame misses its deadline if its result
+ *   is not ready within the deadline after the frame became due.
+ *
+ *   <p>{@link #run(short[]...)} ramps N up by doubling until the miss rate exceeds the target, then
+ *   narrows down the largest sustainable N by bisection. Every step reports its miss rate, p99
+ *   latency and the CPU used per stream.
+ **/
+public class CobraLoadGenerator {
+
+    private static final int LATENCY_BUCKET_US = 100;
+    private static final int LATENCY_BUCKETS = 10000;
+
+    private final CobraEngineFactory engineFactory;
+    private final int numThreads;
+    private final ThreadFactory threadFactory;
+    private final int initialStreams;
+    private final int maxStreams;
+    private final long stepNanos;
+    private final long deadlineNanos;
+    private final double maxMissRate;
+
+    private CobraLoadGenerator(
+            CobraEngineFactory engineFactory,
+            int numThreads,
+            ThreadFactory threadFactory,
+            int initialStreams,
+            int maxStreams,
+            long stepNanos,
+            long deadlineNanos,
+            double maxMissRate) {
+        this.engineFactory = engineFactory;
+        this.numThreads = numThreads;
+        this.threadFactory = threadFactory;
+        this.initialStreams = initialStreams;
+        this.maxStreams = maxStreams;
+        this.stepNanos = stepNanos;
+        this.deadlineNanos = deadlineNanos;
+        this.maxMissRate = maxMissRate;
+    }
+
+    /**
+     * Ramps the number of streams until the miss rate target is breached.
+     *
+     * @param clips Single-channel 16-bit audio clips sampled at the engine's sample rate. Stream `i`
+     *              replays clip `i % clips.length` in a loop, each stream starting at a different
+     *              offset. Clips cannot be empty.
+     * @return Results of every step and the largest sustainable number of streams.
+     * @throws CobraException if an engine cannot be created or fails to process a frame.
+     */
+    public Report run(short[]... clips) throws CobraException {
+        if (clips == null || clips.length == 0) {
+            throw new CobraInvalidArgumentException("No clips were provided to CobraLoadGenerator.");
+        }
+        for (int i = 0; i < clips.length; i++) {
+            if (clips[i] == null || clips[i].length == 0) {
+                throw new CobraInvalidArgumentException(String.format("CobraLoadGenerator clip %d is empty.", i));
+            }
+        }
+
+        List<CobraEngine> engines = new ArrayList<>();
+        List<Step> steps = new ArrayList<>();
+        try {
+            int sustainable = 0;
+            int breached = 0;
+            int streams = initialStreams;
+            while (true) {
+                Step step = runStep(engines, streams, clips);
+                steps.add(step);
+                if (!step.isSustainable()) {
+                    breached = streams;
+                    break;
+                }
+                sustainable = streams;
+                if (streams == maxStreams) {
+                    break;
+                }
+                streams = Math.min(streams * 2, maxStreams);
+            }
+
+            while (breached - sustainable > 1) {
+                int streamsToTry = (sustainable + breached) / 2;
+                Step step = runStep(engines, streamsToTry, clips);
+                steps.add(step);
+                if (step.isSustainable()) {
+                    sustainable = streamsToTry;
+                } else {
+                    breached = streamsToTry;
+                }
+            }
+            return new Report(steps, sustainable);
+        } finally {
+            for (CobraEngine engine : engines) {
+                engine.delete();
+            }
+        }
+    }
+
+    private Step runStep(List<CobraEngine> engines, int streams, short[][] clips) throws CobraException {
+        // engines are kept across steps and not reset, which would cost as much as creating them
+        while (engines.size() < streams) {
+            engines.add(engineFactory.create());
+        }
+
+        final CobraEngine first = engines.get(0);
+        final long frameNanos = first.getFrameLength() * 1000000000L / first.getSampleRate();
+        final long start = System.nanoTime() + frameNanos;
+        final long end = start + stepNanos;
+
+        int threads = Math.min(numThreads, streams);
+        Worker[] workers = new Worker[threads];
+        for (int w = 0; w < threads; w++) {
+            workers[w] = new Worker((streams - w + threads - 1) / threads, first.getFrameLength(), end, frameNanos);
+        }
+        for (int i = 0; i < streams; i++) {
+            short[] clip = clips[i % clips.length];
+            workers[i % threads].addStream(
+                    engines.get(i),
+                    clip,
+                    (int) ((long) clip.length * i / streams),
+                    start + frameNanos * i / streams);
+        }
+
+        long cpuBefore = Process.getElapsedCpuTime();
+        long wallBefore = System.nanoTime();
+        Thread[] workerThreads = new Thread[threads];
+        for (int w = 0; w < threads; w++) {
+            workerThreads[w] = threadFactory.newThread(workers[w]);
+            workerThreads[w].start();
+        }
+        for (Thread thread : workerThreads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CobraInvalidStateException("Interrupted while waiting for CobraLoadGenerator workers.");
+            }
+        }
+        double cpuCores = (Process.getElapsedCpuTime() - cpuBefore) * 1e6 / (System.nanoTime() - wallBefore);
+
+        long[] histogram = new long[LATENCY_BUCKETS];
+        long frames = 0;
+        long misses = 0;
+        for (Worker worker : workers) {
+            if (worker.error != null) {
+                throw worker.error;
+            }
+            for (int i = 0; i < LATENCY_BUCKETS; i++) {
+                histogram[i] += worker.histogram[i];
+            }
+            frames += worker.frames;
+            misses += worker.misses;
+        }
+        return new Step(streams, frames, misses, percentileMs(histogram, frames, 99), cpuCores / streams);
+    }
+
+    private static double percentileMs(long[] histogram, long total, double percentile) {
+        long target = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= target) {
+                return (i + 1) * LATENCY_BUCKET_US / 1000.0;
+            }
+        }
+        return histogram.length * LATENCY_BUCKET_US / 1000.0;
+    }
+
+    /**
+     * Processes the frames of a fixed set of streams in the order they become due.
+     */
+    private final class Worker implements Runnable {
+
+        private final CobraEngine[] engines;
+        private final short[][] clips;
+        private final int[] positions;
+        private final long[] due;
+        private final short[] pcm;
+        private final long end;
+        private final long frameNanos;
+        private int count = 0;
+
+        private final long[] histogram = new long[LATENCY_BUCKETS];
+        private long frames = 0;
+        private long misses = 0;
+        private CobraException error;
+
+        Worker(int capacity, int frameLength, long end, long frameNanos) {
+            this.engines = new CobraEngine[capacity];
+            this.clips = new short[capacity][];
+            this.positions = new int[capacity];
+            this.due = new long[capacity];
+            this.pcm = new short[frameLength];
+            this.end = end;
+            this.frameNanos = frameNanos;
+        }
+
+        void addStream(CobraEngine engine, short[] clip, int position, long firstDue) {
+            engines[count] = engine;
+            clips[count] = clip;
+            positions[count] = position;
+            due[count] = firstDue;
+            count++;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    int next = 0;
+                    for (int i = 1; i < count; i++) {
+                        if (due[i] < due[next]) {
+                            next = i;
+                        }
+                    }
+                    if (due[next] >= end) {
+                        return;
+                    }
+                    long wait;
+                    while ((wait = due[next] - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+
+                    short[] clip = clips[next];
+                    int position = positions[next];
+                    for (int i = 0; i < pcm.length; i++) {
+                        pcm[i] = clip[position];
+                        position = position + 1 < clip.length ? position + 1 : 0;
+                    }
+                    positions[next] = position;
+                    engines[next].process(pcm);
+
+                    long latency = System.nanoTime() - due[next];
+                    int bucket = (int) (latency / 1000 / LATENCY_BUCKET_US);
+                    histogram[Math.min(bucket, LATENCY_BUCKETS - 1)]++;
+                    frames++;
+                    if (latency > deadlineNanos) {
+                        misses++;
+                    }
+                    due[next] += frameNanos;
+                }
+            } catch (CobraException e) {
+                error = e;
+            }
+        }
+    }
+
+    /**
+     * Results of a run at a fixed number of streams.
+     */
+    public final class Step {
+
+        private final int streams;
+        private final long frames;
+        private final long misses;
+        private final double p99LatencyMs;
+        private final double cpuCoresPerStream;
+
+        Step(int streams, long frames, long misses, double p99LatencyMs, double cpuCoresPerStream) {
+            this.streams = streams;
+            this.frames = frames;
+            this.misses = misses;
+            this.p99LatencyMs = p99LatencyMs;
+            this.cpuCoresPerStream = cpuCoresPerStream;
+        }
+
+        /**
+         * Getter for the number of concurrent streams.
+         *
+         * @return Number of streams.
+         */
+        public int getStreams() {
+            return streams;
+        }
+
+        /**
+         * Getter for the fraction of frames that missed their deadline.
+         *
+         * @return Miss rate within [0, 1].
+         */
+        public double getMissRate() {
+            return frames > 0 ? (double) misses / frames : 0;
+        }
+
+        /**
+         * Getter for the 99th percentile of the time from a frame becoming due to its result.
+         *
+         * @return Latency in milliseconds, with a resolution of 0.1 ms.
+         */
+        public double getP99LatencyMs() {
+            return p99LatencyMs;
+        }
+
+        /**
+         * Getter for the CPU used per stream.
+         *
+         * @return Process CPU time divided by wall time and by the number of streams, in cores.
+         */
+        public double getCpuCoresPerStream() {
+            return cpuCoresPerStream;
+        }
+
+        /**
+         * Getter for whether the step met the miss rate target.
+         *
+         * @return True if the device sustained this number of streams.
+         */
+        public boolean isSustainable() {
+            return getMissRate() <= maxMissRate;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "streams=%d missRate=%.4f p99=%.1fms cpuPerStream=%.3f %s",
+                    streams,
+                    getMissRate(),
+                    p99LatencyMs,
+                    cpuCoresPerStream,
+                    isSustainable() ? "ok" : "breached");
+        }
+    }
+
+    /**
+     * Results of a ramp.
+     */
+    public static class Report {
+
+        private final List<Step> steps;
+        private final int maxSustainableStreams;
+
+        Report(List<Step> steps, int maxSustainableStreams) {
+            this.steps = Collections.unmodifiableList(steps);
+            this.maxSustainableStreams = maxSustainableStreams;
+        }
+
+        /**
+         * Getter for the results of every step, in the order they were run.
+         *
+         * @return List of steps.
+         */
+        public List<Step> getSteps() {
+            return steps;
+        }
+
+        /**
+         * Getter for the largest number of streams that met the miss rate target.
+         *
+         * @return Number of streams, or 0 if even the initial number was not sustained.
+         */
+        public int getMaxSustainableStreams() {
+            return maxSustainableStreams;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            for (Step step : steps) {
+                builder.append(step).append('\n');
+            }
+            builder.append("maxSustainableStreams=").append(maxSustainableStreams);
+            return builder.toString();
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraLoadGenerator with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private CobraEngineFactory engineFactory = null;
+        private int numThreads = Runtime.getRuntime().availableProcessors();
+        private ThreadFactory threadFactory = Executors.defaultThreadFactory();
+        private int initialStreams = 1;
+        private int maxStreams = 256;
+        private int stepDurationMs = 10000;
+        private int deadlineMs = 100;
+        private double maxMissRate = 0.01;
+
+        /**
+         * Setter for the factory that creates the engine of each stream.
+         *
+         * @param engineFactory Engine factory, e.g. a configured {@link Cobra.Builder}.
+         */
+        public Builder setEngineFactory(CobraEngineFactory engineFactory) {
+            this.engineFactory = engineFactory;
+            return this;
+        }
+
+        /**
+         * Setter for the number of worker threads streams are spread across.
+         *
+         * @param numThreads Number of worker threads. Defaults to the number of available processors.
+         */
+        public Builder setNumThreads(int numThreads) {
+            this.numThreads = numThreads;
+            return this;
+        }
+
+        /**
+         * Setter for the factory of the worker threads.
+         *
+         * @param threadFactory Factory used to create worker threads (e.g. {@link CobraThreadFactory}).
+         */
+        public Builder setThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        /**
+         * Setter for the number of streams of the first step.
+         *
+         * @param initialStreams Number of streams.
+         */
+        public Builder setInitialStreams(int initialStreams) {
+            this.initialStreams = initialStreams;
+            return this;
+        }
+
+        /**
+         * Setter for the upper bound of the ramp.
+         *
+         * @param maxStreams Maximum number of streams tried.
+         */
+        public Builder setMaxStreams(int maxStreams) {
+            this.maxStreams = maxStreams;
+            return this;
+        }
+
+        /**
+         * Setter for the duration of each step.
+         *
+         * @param stepDurationMs Wall-clock time in milliseconds each number of streams is run for.
+         */
+        public Builder setStepDurationMs(int stepDurationMs) {
+            this.stepDurationMs = stepDurationMs;
+            return this;
+        }
+
+        /**
+         * Setter for the per-frame deadline.
+         *
+         * @param deadlineMs Maximum time in milliseconds from a frame becoming due to its result.
+         */
+        public Builder setDeadlineMs(int deadlineMs) {
+            this.deadlineMs = deadlineMs;
+            return this;
+        }
+
+        /**
+         * Setter for the miss rate target.
+         *
+         * @param maxMissRate Largest fraction of frames allowed to miss their deadline for a number of
+         *                    streams to count as sustainable.
+         */
+        public Builder setMaxMissRate(double maxMissRate) {
+            this.maxMissRate = maxMissRate;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraLoadGenerator.
+         *
+         * @return An instance of CobraLoadGenerator
+         * @throws CobraException if the properties are invalid.
+         */
+        public CobraLoadGenerator build() throws CobraException {
+            if (engineFactory == null) {
+                throw new CobraInvalidArgumentException("No engine factory was provided to CobraLoadGenerator.");
+            }
+            if (numThreads <= 0) {
+                throw new CobraInvalidArgumentException("Number of threads must be positive.");
+            }
+            if (threadFactory == null) {
+                throw new CobraInvalidArgumentException("No thread factory was provided to CobraLoadGenerator.");
+            }
+            if (initialStreams <= 0 || maxStreams < initialStreams) {
+                throw new CobraInvalidArgumentException("Stream counts must satisfy 0 < initial <= maximum.");
+            }
+            if (stepDurationMs <= 0) {
+                throw new CobraInvalidArgumentException("Step duration must be positive.");
+            }
+            if (deadlineMs <= 0) {
+                throw new CobraInvalidArgumentException("Deadline must be a positive number of milliseconds.");
+            }
+            if (!(maxMissRate >= 0 && maxMissRate < 1)) {
+                throw new CobraInvalidArgumentException("Miss rate target must be within [0, 1).");
+            }
+
+            return new CobraLoadGenerator(
+                    engineFactory,
+                    numThreads,
+                    threadFactory,
+                    initialStreams,
+                    maxStreams,
+                    stepDurationMs * 1000000L,
+                    deadlineMs * 1000000L,
+                    maxMissRate);
+        }
+    }
+}
@@ -0,0 +1,377 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import java.nio.ShortBuffer;
+
+/**
+ *   Voice activity detection for multi-channel interleaved audio. Each channel is processed by its
+ *   own engine instance, so per-channel detection results are independent. Channels are split across
+ *   a fixed set of worker threads (the calling thread being one of them), and each worker
+ *   deinterleaves and processes its own channels into preallocated buffers. A call to
+ *   {@link #process(short[], float[])} therefore performs no allocation and its latency scales with
+ *   the number of cores rather than the number of channels.
+ **/
+public class CobraMultiChannel {
+
+    private final CobraEngine[] engines;
+    private final short[][] frames;
+    private final int channelCount;
+    private final int frameLength;
+
+    private final int numWorkers;
+    private final Thread[] workers;
+    private final Exception[] errors;
+
+    // guarded by lock; workers start on a new generation and count themselves out of pending
+    private final Object lock = new Object();
+    private long generation = 0;
+    private int pending = 0;
+    private boolean workerDied = false;
+
+    private short[] inputArray;
+    private ShortBuffer inputBuffer;
+    private float[] output;
+    private volatile boolean deleted = false;
+
+    private CobraMultiChannel(CobraEngine[] engines, int numWorkers) {
+        this.engines = engines;
+        this.channelCount = engines.length;
+        this.frameLength = engines[0].getFrameLength();
+        this.frames = new short[channelCount][frameLength];
+        this.numWorkers = numWorkers;
+        this.errors = new Exception[numWorkers];
+
+        workers = new Thread[numWorkers - 1];
+        for (int i = 0; i < workers.length; i++) {
+            final int worker = i + 1;
+            workers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    runWorker(worker);
+                }
+            }, "CobraMultiChannel-" + worker);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Releases resources acquired by CobraMultiChannel, including the engine of every channel.
+     */
+    public void delete() {
+        synchronized (lock) {
+            if (deleted) {
+                return;
+            }
+            deleted = true;
+            lock.notifyAll();
+        }
+
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        for (CobraEngine engine : engines) {
+            engine.delete();
+        }
+    }
+
+    /**
+     * Processes a frame of interleaved multi-channel audio.
+     *
+     * @param pcm Interleaved audio samples holding {@link #getFrameLength()} samples for each of the
+     *            {@link #getChannelCount()} channels.
+     * @param probabilities Output array of length {@link #getChannelCount()} that receives the
+     *                      probability of voice activity of each channel.
+     * @throws CobraException if there is an error while processing the audio frame.
+     */
+    public void process(short[] pcm, float[] probabilities) throws CobraException {
+        if (pcm == null) {
+            throw new CobraInvalidArgumentException("Passed null frame to CobraMultiChannel process.");
+        }
+        if (pcm.length != frameLength * channelCount) {
+            throw new CobraInvalidArgumentException(
+                    String.format("CobraMultiChannel process requires frames of length %d. " +
+                            "Received frame of size %d.", frameLength * channelCount, pcm.length));
+        }
+        run(pcm, null, probabilities);
+    }
+
+    /**
+     * Processes a frame of interleaved multi-channel audio held in a (possibly direct) buffer. Samples
+     * are read with absolute gets starting at the current position, which is left unchanged.
+     *
+     * @param pcm Buffer holding {@link #getFrameLength()} interleaved samples for each of the
+     *            {@link #getChannelCount()} channels, starting at its current position.
+     * @param probabilities Output array of length {@link #getChannelCount()} that receives the
+     *                      probability of voice activity of each channel.
+     * @throws CobraException if there is an error while processing the audio frame.
+     */
+    public void process(ShortBuffer pcm, float[] probabilities) throws CobraException {
+        if (pcm == null) {
+            throw new CobraInvalidArgumentException("Passed null frame to CobraMultiChannel process.");
+        }
+        if (pcm.remaining() < frameLength * channelCount) {
+            throw new CobraInvalidArgumentException(
+                    String.format("CobraMultiChannel process requires frames of length %d. " +
+                            "Received frame of size %d.", frameLength * channelCount, pcm.remaining()));
+        }
+        run(null, pcm, probabilities);
+    }
+
+    /**
+     * Getter for the number of interleaved channels.
+     *
+     * @return Number of channels.
+     */
+    public int getChannelCount() {
+        return channelCount;
+    }
+
+    /**
+     * Getter for required number of audio samples per channel per frame.
+     *
+     * @return Required number of audio samples per channel per frame.
+     */
+    public int getFrameLength() {
+        return frameLength;
+    }
+
+    private void run(short[] array, ShortBuffer buffer, float[] probabilities) throws CobraException {
+        if (deleted) {
+            throw new CobraInvalidStateException("Attempted to call CobraMultiChannel process after delete.");
+        }
+        if (probabilities == null || probabilities.length != channelCount) {
+            throw new CobraInvalidArgumentException(
+                    String.format("CobraMultiChannel process requires an output array of length %d.",
+                            channelCount));
+        }
+
+        inputArray = array;
+        inputBuffer = buffer;
+        output = probabilities;
+
+        if (numWorkers > 1) {
+            synchronized (lock) {
+                if (workerDied) {
+                    throw new CobraInvalidStateException("A CobraMultiChannel worker has stopped unexpectedly.");
+                }
+                generation++;
+                pending = numWorkers - 1;
+                lock.notifyAll();
+            }
+            processChannels(0);
+            awaitWorkers();
+        } else {
+            processChannels(0);
+        }
+
+        inputArray = null;
+        inputBuffer = null;
+        output = null;
+
+        for (int i = 0; i < numWorkers; i++) {
+            Exception e = errors[i];
+            if (e != null) {
+                errors[i] = null;
+                if (e instanceof RuntimeException) {
+                    throw (RuntimeException) e;
+                }
+                throw (CobraException) e;
+            }
+        }
+    }
+
+    private void awaitWorkers() throws CobraException {
+        // workers are busy for at most one frame, and they read the caller's buffers until they are done,
+        // so an interrupt is deferred rather than abandoning them mid-frame
+        boolean interrupted = false;
+        synchronized (lock) {
+            while (pending > 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (workerDied) {
+                throw new CobraInvalidStateException("A CobraMultiChannel worker has stopped unexpectedly.");
+            }
+        }
+    }
+
+    private void runWorker(int worker) {
+        long seen = 0;
+        try {
+            while (true) {
+                synchronized (lock) {
+                    while (generation == seen && !deleted) {
+                        try {
+                            lock.wait();
+                        } catch (InterruptedException ignored) {
+                            // only delete() stops a worker
+                        }
+                    }
+                    if (deleted) {
+                        return;
+                    }
+                    seen = generation;
+                }
+                try {
+                    processChannels(worker);
+                } finally {
+                    synchronized (lock) {
+                        pending--;
+                        lock.notifyAll();
+                    }
+                }
+            }
+        } finally {
+            synchronized (lock) {
+                if (!deleted) {
+                    workerDied = true;
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    private void processChannels(int worker) {
+        for (int c = worker; c < channelCount; c += numWorkers) {
+            short[] frame = frames[c];
+            if (inputArray != null) {
+                for (int i = 0, j = c; i < frameLength; i++, j += channelCount) {
+                    frame[i] = inputArray[j];
+                }
+            } else {
+                int base = inputBuffer.position() + c;
+                for (int i = 0, j = base; i < frameLength; i++, j += channelCount) {
+                    frame[i] = inputBuffer.get(j);
+                }
+            }
+
+            try {
+                output[c] = engines[c].process(frame);
+            } catch (CobraException | RuntimeException e) {
+                if (errors[worker] == null) {
+                    errors[worker] = e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraMultiChannel with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private final Cobra.Builder cobraBuilder = new Cobra.Builder();
+        private CobraEngineFactory engineFactory = null;
+        private int channelCount = 0;
+        private int numThreads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Setter the AccessKey.
+         *
+         * @param accessKey AccessKey obtained from Picovoice Console
+         */
+        public Builder setAccessKey(String accessKey) {
+            cobraBuilder.setAccessKey(accessKey);
+            return this;
+        }
+
+        /**
+         * Setter for the device string used by the Cobra instance of every channel.
+         *
+         * @param device String representation of the device (e.g., CPU or GPU) to use for inference.
+         *               See {@link Cobra.Builder#setDevice(String)}.
+         */
+        public Builder setDevice(String device) {
+            cobraBuilder.setDevice(device);
+            return this;
+        }
+
+        /**
+         * Setter for the factory of the channel engines. When set, the AccessKey and device are not
+         * used.
+         *
+         * @param engineFactory Engine factory, e.g. a {@link CobraSimulatedEngine.Builder}. One engine is
+         *                      created per channel and owned by CobraMultiChannel.
+         */
+        public Builder setEngineFactory(CobraEngineFactory engineFactory) {
+            this.engineFactory = engineFactory;
+            return this;
+        }
+
+        /**
+         * Setter for the number of interleaved channels.
+         *
+         * @param channelCount Number of interleaved channels. One Cobra instance is created per channel.
+         */
+        public Builder setChannelCount(int channelCount) {
+            this.channelCount = channelCount;
+            return this;
+        }
+
+        /**
+         * Setter for the number of threads that process channels in parallel.
+         *
+         * @param numThreads Number of threads, including the calling thread. Defaults to the number of
+         *                   available processors and is capped at the number of channels.
+         */
+        public Builder setNumThreads(int numThreads) {
+            this.numThreads = numThreads;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraMultiChannel.
+         *
+         * @return An instance of CobraMultiChannel
+         * @throws CobraException if there is an error while initializing the channel engines.
+         */
+        public CobraMultiChannel build() throws CobraException {
+            if (channelCount <= 0) {
+                throw new CobraInvalidArgumentException("Channel count must be positive.");
+            }
+            if (numThreads <= 0) {
+                throw new CobraInvalidArgumentException("Number of threads must be positive.");
+            }
+
+            CobraEngineFactory factory = engineFactory != null ? engineFactory : cobraBuilder;
+            CobraEngine[] engines = new CobraEngine[channelCount];
+            try {
+                for (int i = 0; i < channelCount; i++) {
+                    engines[i] = factory.create();
+                }
+            } catch (CobraException e) {
+                for (CobraEngine engine : engines) {
+                    if (engine != null) {
+                        engine.delete();
+                    }
+                }
+                throw e;
+            }
+
+            return new CobraMultiChannel(
+                    engines,
+                    Math.min(numThreads, channelCount));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import android.util.Log;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide bookkeeping for native Cobra engines. Every native handle is tracked by a phantom
+ * reference to its owning {@link Cobra} object. If the owner becomes unreachable without having been
+ * deleted, a daemon thread releases the handle and logs where the leaked instance was created.
+ *
+ * <p>`java.lang.ref.Cleaner` is not available at the minimum supported API level, hence the explicit
+ * reference queue.
+ */
+final class CobraNativeTracker {
+
+    private static final String TAG = "Cobra";
+
+    private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+    private static final Set<Handle> TRACKED = Collections.synchronizedSet(new HashSet<Handle>());
+    private static final AtomicInteger LIVE_INSTANCES = new AtomicInteger();
+    private static final AtomicLong NATIVE_BYTES = new AtomicLong();
+
+    static {
+        Thread reaper = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    try {
+                        Handle handle = (Handle) QUEUE.remove();
+                        if (handle.release()) {
+                            Log.w(TAG, "Cobra instance was not deleted. Released leaked native engine " +
+                                    "allocated at:", handle.allocationSite);
+                        }
+                    } catch (InterruptedException ignored) {
+                        return;
+                    }
+                }
+            }
+        }, "CobraNativeTracker");
+        reaper.setDaemon(true);
+        reaper.start();
+    }
+
+    private CobraNativeTracker() { }
+
+    static Handle track(Object owner, long value, long nativeBytes) {
+        Handle handle = new Handle(owner, value, nativeBytes);
+        TRACKED.add(handle);
+        LIVE_INSTANCES.incrementAndGet();
+        NATIVE_BYTES.addAndGet(nativeBytes);
+        return handle;
+    }
+
+    static int getLiveInstanceCount() {
+        return LIVE_INSTANCES.get();
+    }
+
+    static long getEstimatedNativeBytes() {
+        return NATIVE_BYTES.get();
+    }
+
+    /**
+     * Native engine handle whose release is guaranteed to happen at most once, either explicitly
+     * or once its owner has been garbage collected.
+     */
+    static final class Handle extends PhantomReference<Object> {
+
+        private final Throwable allocationSite;
+        private volatile long value;
+        private long nativeBytes;
+
+        private Handle(Object owner, long value, long nativeBytes) {
+            super(owner, QUEUE);
+            this.value = value;
+            this.nativeBytes = nativeBytes;
+            this.allocationSite = new Throwable("Cobra allocation site");
+        }
+
+        long getValue() {
+            return value;
+        }
+
+        synchronized void replace(long freshValue, long freshNativeBytes) {
+            if (value == 0) {
+                CobraNative.delete(freshValue);
+                return;
+            }
+            CobraNative.delete(value);
+            value = freshValue;
+            NATIVE_BYTES.addAndGet(freshNativeBytes - nativeBytes);
+            nativeBytes = freshNativeBytes;
+        }
+
+        synchronized boolean release() {
+            if (value == 0) {
+                return false;
+            }
+            CobraNative.delete(value);
+            value = 0;
+            clear();
+            TRACKED.remove(this);
+            LIVE_INSTANCES.decrementAndGet();
+            NATIVE_BYTES.addAndGet(-nativeBytes);
+            return true;
+        }
+    }
+}
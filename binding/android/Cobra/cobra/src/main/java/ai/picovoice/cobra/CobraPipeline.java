@@ -0,0 +1,231 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ *   Double-buffered pipeline that overlaps reading audio with inference. A reader thread fills large
+ *   buffers from the source while the calling thread runs the engine over previously filled buffers.
+ *   Buffers are recycled through a bounded queue, so memory use is fixed and the reader never runs
+ *   more than a few buffers ahead. Throughput approaches the slower of the I/O and inference rates
+ *   instead of their sum.
+ **/
+public class CobraPipeline {
+
+    /**
+     * Receiver of pipeline results. Callbacks are invoked on the thread that called
+     * {@link #run(CobraEngine, ReadableByteChannel, Listener)}.
+     */
+    public interface Listener {
+
+        /**
+         * Called for every frame processed.
+         *
+         * @param frameIndex Index of the frame within the source.
+         * @param probability Probability of voice activity. It is a floating-point number within [0, 1].
+         */
+        void onProbability(long frameIndex, float probability);
+    }
+
+    private final int bufferFrames;
+    private final int bufferCount;
+    private final ThreadFactory threadFactory;
+
+    private CobraPipeline(int bufferFrames, int bufferCount, ThreadFactory threadFactory) {
+        this.bufferFrames = bufferFrames;
+        this.bufferCount = bufferCount;
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Processes a source of raw audio until it is exhausted. A trailing partial frame is ignored.
+     *
+     * @param engine Engine (e.g. {@link Cobra}) used for detection.
+     * @param source Channel of single-channel, 16-bit little-endian PCM sampled at
+     *               {@link CobraEngine#getSampleRate()}, positioned at the first sample.
+     * @param listener Receiver of the results.
+     * @return Number of frames processed.
+     * @throws CobraException if there is an error while processing the audio.
+     * @throws IOException if reading from the source fails.
+     * @throws RuntimeException if the source raises one; it is rethrown on the calling thread.
+     */
+    public long run(CobraEngine engine, ReadableByteChannel source, Listener listener)
+            throws CobraException, IOException {
+        final int frameLength = engine.getFrameLength();
+        final int frameBytes = frameLength * 2;
+
+        final BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(bufferCount);
+        final BlockingQueue<ByteBuffer> full = new ArrayBlockingQueue<>(bufferCount + 1);
+        for (int i = 0; i < bufferCount; i++) {
+            free.add(ByteBuffer.allocateDirect(bufferFrames * frameBytes).order(ByteOrder.LITTLE_ENDIAN));
+        }
+        final ByteBuffer endOfStream = ByteBuffer.allocate(0);
+        final Throwable[] readError = new Throwable[1];
+        final AtomicBoolean cancelled = new AtomicBoolean(false);
+
+        Thread reader = threadFactory.newThread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (true) {
+                        ByteBuffer buffer = free.take();
+                        if (cancelled.get()) {
+                            break;
+                        }
+                        buffer.clear();
+                        boolean eof = false;
+                        while (buffer.hasRemaining()) {
+                            if (source.read(buffer) < 0) {
+                                eof = true;
+                                break;
+                            }
+                        }
+                        buffer.flip();
+                        if (buffer.hasRemaining()) {
+                            full.put(buffer);
+                        }
+                        if (eof) {
+                            break;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    readError[0] = new InterruptedIOException("CobraPipeline reader was interrupted.");
+                } catch (IOException | RuntimeException | Error e) {
+                    readError[0] = e;
+                } finally {
+                    // `full` has room for every buffer plus the end-of-stream marker
+                    full.offer(endOfStream);
+                }
+            }
+        });
+        reader.start();
+
+        short[] pcm = new short[frameLength];
+        long frameIndex = 0;
+        boolean completed = false;
+        try {
+            while (true) {
+                ByteBuffer buffer;
+                try {
+                    buffer = full.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for CobraPipeline reader.");
+                }
+                if (buffer == endOfStream) {
+                    break;
+                }
+
+                ShortBuffer samples = buffer.asShortBuffer();
+                while (samples.remaining() >= frameLength) {
+                    samples.get(pcm);
+                    listener.onProbability(frameIndex++, engine.process(pcm));
+                }
+                free.add(buffer);
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                // wake the reader without interrupting it, which would close an interruptible source
+                cancelled.set(true);
+                free.offer(endOfStream);
+            }
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (readError[0] instanceof IOException) {
+            throw (IOException) readError[0];
+        }
+        if (readError[0] instanceof RuntimeException) {
+            throw (RuntimeException) readError[0];
+        }
+        if (readError[0] instanceof Error) {
+            throw (Error) readError[0];
+        }
+        return frameIndex;
+    }
+
+    /**
+     * Builder for creating an instance of CobraPipeline with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private int bufferFrames = 256;
+        private int bufferCount = 3;
+        private ThreadFactory threadFactory = Executors.defaultThreadFactory();
+
+        /**
+         * Setter for the size of each buffer.
+         *
+         * @param bufferFrames Number of frames read from the source into each buffer.
+         */
+        public Builder setBufferFrames(int bufferFrames) {
+            this.bufferFrames = bufferFrames;
+            return this;
+        }
+
+        /**
+         * Setter for the number of buffers in rotation.
+         *
+         * @param bufferCount Number of recycled buffers. Two suffice for double buffering; a third
+         *                    absorbs jitter in either stage.
+         */
+        public Builder setBufferCount(int bufferCount) {
+            this.bufferCount = bufferCount;
+            return this;
+        }
+
+        /**
+         * Setter for the factory of the reader thread.
+         *
+         * @param threadFactory Factory used to create the reader thread (e.g. {@link CobraThreadFactory}).
+         */
+        public Builder setThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraPipeline.
+         *
+         * @return An instance of CobraPipeline
+         * @throws CobraException if the properties are invalid.
+         */
+        public CobraPipeline build() throws CobraException {
+            if (bufferFrames <= 0) {
+                throw new CobraInvalidArgumentException("Buffer size must be a positive number of frames.");
+            }
+            if (bufferCount < 2) {
+                throw new CobraInvalidArgumentException("At least two buffers are required.");
+            }
+            if (threadFactory == null) {
+                throw new CobraInvalidArgumentException("No thread factory was provided to CobraPipeline.");
+            }
+
+            return new CobraPipeline(bufferFrames, bufferCount, threadFactory);
+        }
+    }
+}
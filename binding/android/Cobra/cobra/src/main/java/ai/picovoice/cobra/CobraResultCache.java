@@ -0,0 +1,361 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ *   On-disk cache of Cobra probability tracks for WAV files. Entries are keyed by the SHA-256 of the
+ *   PCM data together with the Cobra version and device string, so identical audio is only processed
+ *   once regardless of file name. A cache hit costs one hashing pass over the file and a read-only
+ *   memory map of the stored track.
+ *
+ *   <p>Entries are immutable files published by atomic rename, so lookups take no locks. Inserting
+ *   and evicting entries is serialized across processes sharing the cache directory with a file
+ *   lock. When the cache grows beyond its size limit, least recently used entries are evicted. A hit
+ *   refreshes the modification time of its entry; where the storage does not allow setting it, the
+ *   hit is recorded by rewriting a marker file next to the entry instead.
+ **/
+public class CobraResultCache {
+
+    private static final String ENTRY_SUFFIX = ".prob";
+    private static final String ACCESS_SUFFIX = ".used";
+    private static final String LOCK_FILE = ".lock";
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    private static final Object PROCESS_LOCK = new Object();
+
+    private final File directory;
+    private final long maxSizeBytes;
+
+    private CobraResultCache(File directory, long maxSizeBytes) {
+        this.directory = directory;
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    /**
+     * Returns the probability track of a WAV file, running Cobra only if the track is not cached.
+     *
+     * @param cobra Engine (e.g. {@link Cobra}) used on a cache miss. It should be freshly created or reset.
+     * @param wavFile Path to a single-channel, 16-bit WAV file sampled at {@link CobraEngine#getSampleRate()}.
+     * @return Read-only buffer holding one probability of voice activity per whole frame of audio.
+     * @throws CobraException if there is an error while processing the audio.
+     * @throws IOException if reading the audio or accessing the cache fails.
+     */
+    public FloatBuffer process(CobraEngine cobra, File wavFile) throws CobraException, IOException {
+        try (FileInputStream inputStream = new FileInputStream(wavFile)) {
+            FileChannel input = inputStream.getChannel();
+            CobraWav.Format format = CobraWav.readHeader(input);
+            if (format.audioFormat != CobraWav.FORMAT_PCM ||
+                    format.channelCount != 1 ||
+                    format.bitsPerSample != 16 ||
+                    format.sampleRate != cobra.getSampleRate()) {
+                throw new CobraInvalidArgumentException(
+                        String.format("CobraResultCache requires single-channel 16-bit PCM WAV at %dHz.",
+                                cobra.getSampleRate()));
+            }
+
+            long dataEnd = format.dataOffset + Math.min(format.getAudioBytes(), input.size() - format.dataOffset);
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            String device = cobra instanceof Cobra ? ((Cobra) cobra).getDevice() : cobra.getClass().getName();
+            String key = hash(input, dataEnd, buffer, cobra.getVersion(), device);
+
+            File entry = new File(directory, key + ENTRY_SUFFIX);
+            FloatBuffer cached = map(entry);
+            if (cached != null) {
+                touch(entry);
+                return cached;
+            }
+
+            input.position(format.dataOffset);
+            File temp = File.createTempFile(key, ".tmp", directory);
+            try {
+                infer(cobra, input, dataEnd, temp, buffer);
+                publish(temp, entry);
+            } finally {
+                if (temp.exists()) {
+                    temp.delete();
+                }
+            }
+
+            FloatBuffer track = map(entry);
+            if (track == null) {
+                throw new IOException(String.format("Cache entry '%s' was evicted before it could be read.", entry));
+            }
+            return track;
+        }
+    }
+
+    /**
+     * Getter for the total size of all entries in the cache.
+     *
+     * @return Cache size in bytes.
+     */
+    public long getSizeBytes() {
+        long size = 0;
+        for (File f : listEntries()) {
+            size += f.length();
+        }
+        return size;
+    }
+
+    private static String hash(
+            FileChannel input,
+            long dataEnd,
+            ByteBuffer buffer,
+            String version,
+            String device) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+
+        long remaining = dataEnd - input.position();
+        while (remaining > 0) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), remaining));
+            int n = input.read(buffer);
+            if (n < 0) {
+                break;
+            }
+            remaining -= n;
+            buffer.flip();
+            digest.update(buffer);
+        }
+
+        Charset utf8 = Charset.forName("UTF-8");
+        digest.update((byte) 0);
+        digest.update(version.getBytes(utf8));
+        digest.update((byte) 0);
+        digest.update(device.getBytes(utf8));
+
+        byte[] bytes = digest.digest();
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static void infer(CobraEngine cobra, FileChannel input, long dataEnd, File temp, ByteBuffer buffer)
+            throws CobraException, IOException {
+        final int frameLength = cobra.getFrameLength();
+        ByteBuffer frameBuffer = ByteBuffer.allocate(frameLength * 2).order(ByteOrder.LITTLE_ENDIAN);
+        ShortBuffer frameSamples = frameBuffer.asShortBuffer();
+        short[] pcm = new short[frameLength];
+
+        try (RandomAccessFile outputFile = new RandomAccessFile(temp, "rw")) {
+            FileChannel output = outputFile.getChannel();
+            buffer.clear();
+
+            while (input.position() + frameBuffer.capacity() <= dataEnd) {
+                frameBuffer.clear();
+                while (frameBuffer.hasRemaining()) {
+                    if (input.read(frameBuffer) < 0) {
+                        break;
+                    }
+                }
+                if (frameBuffer.hasRemaining()) {
+                    break;
+                }
+
+                frameSamples.rewind();
+                frameSamples.get(pcm);
+                buffer.putFloat(cobra.process(pcm));
+                if (buffer.remaining() < 4) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        output.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                output.write(buffer);
+            }
+            output.force(false);
+        }
+    }
+
+    private void publish(File temp, File entry) throws IOException {
+        synchronized (PROCESS_LOCK) {
+            try (RandomAccessFile lockFile = new RandomAccessFile(new File(directory, LOCK_FILE), "rw")) {
+                FileLock lock = lockFile.getChannel().lock();
+                try {
+                    if (!entry.exists() && !temp.renameTo(entry)) {
+                        throw new IOException(String.format("Failed to publish cache entry '%s'.", entry));
+                    }
+                    evict(entry);
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    private static void touch(File entry) throws IOException {
+        if (entry.setLastModified(System.currentTimeMillis())) {
+            return;
+        }
+        // writing sets the modification time on storage that does not allow setting it directly
+        try (RandomAccessFile marker = new RandomAccessFile(accessMarker(entry), "rw")) {
+            marker.setLength(0);
+            marker.write(0);
+        }
+    }
+
+    private static long lastAccess(File entry) {
+        return Math.max(entry.lastModified(), accessMarker(entry).lastModified());
+    }
+
+    private static File accessMarker(File entry) {
+        String name = entry.getName();
+        return new File(
+                entry.getParentFile(),
+                name.substring(0, name.length() - ENTRY_SUFFIX.length()) + ACCESS_SUFFIX);
+    }
+
+    private void evict(File keep) {
+        File[] entries = listEntries();
+        long size = 0;
+        for (File f : entries) {
+            size += f.length();
+        }
+        if (size <= maxSizeBytes) {
+            return;
+        }
+
+        final long[] lastModified = new long[entries.length];
+        Integer[] order = new Integer[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            lastModified[i] = lastAccess(entries[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Long.compare(lastModified[a], lastModified[b]);
+            }
+        });
+
+        for (Integer i : order) {
+            if (size <= maxSizeBytes) {
+                break;
+            }
+            File f = entries[i];
+            if (f.equals(keep)) {
+                continue;
+            }
+            long length = f.length();
+            if (f.delete()) {
+                size -= length;
+                accessMarker(f).delete();
+            }
+        }
+    }
+
+    private File[] listEntries() {
+        File[] entries = directory.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File f) {
+                return f.isFile() && f.getName().endsWith(ENTRY_SUFFIX);
+            }
+        });
+        return entries != null ? entries : new File[0];
+    }
+
+    private static FloatBuffer map(File entry) throws IOException {
+        RandomAccessFile file;
+        try {
+            file = new RandomAccessFile(entry, "r");
+        } catch (IOException e) {
+            return null;
+        }
+        try {
+            FileChannel channel = file.getChannel();
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asFloatBuffer();
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraResultCache with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private File directory = null;
+        private long maxSizeBytes = 256L * 1024 * 1024;
+
+        /**
+         * Setter for the cache directory. Processes that share results should use the same directory.
+         *
+         * @param directory Local directory holding the cache entries. It is created if missing.
+         */
+        public Builder setDirectory(File directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        /**
+         * Setter for the maximum size of the cache.
+         *
+         * @param maxSizeBytes Total size in bytes above which least recently used entries are evicted.
+         */
+        public Builder setMaxSizeBytes(long maxSizeBytes) {
+            this.maxSizeBytes = maxSizeBytes;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraResultCache.
+         *
+         * @return An instance of CobraResultCache
+         * @throws CobraException if the properties are invalid or the directory cannot be created.
+         */
+        public CobraResultCache build() throws CobraException {
+            if (directory == null) {
+                throw new CobraInvalidArgumentException("No directory was provided to CobraResultCache.");
+            }
+            if (maxSizeBytes <= 0) {
+                throw new CobraInvalidArgumentException("Maximum cache size must be positive.");
+            }
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new CobraIOException(
+                        String.format("Failed to create cache directory '%s'.", directory.getAbsolutePath()));
+            }
+
+            return new CobraResultCache(directory, maxSizeBytes);
+        }
+    }
+}
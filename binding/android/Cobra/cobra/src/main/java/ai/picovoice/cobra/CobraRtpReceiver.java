@@ -0,0 +1,801 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *   Receives live audio as RTP over UDP and runs voice activity detection on it. Every
+ *   synchronization source (SSRC) gets its own engine. Packets pass through an adaptive jitter
+ *   buffer that restores their order and releases them on a playout clock; a packet that has not
+ *   arrived by its playout time is concealed with silence and dropped if it arrives later. The
+ *   playout delay follows the interarrival jitter of the stream (RFC 3550) and is kept within a
+ *   configured range, which bounds the latency added by the buffer.
+ *
+ *   <p>Payloads of G.711 mu-law (payload type 0), G.711 A-law (8) and L16 (a configurable dynamic
+ *   payload type) are decoded, upsampled to the engine's sample rate and reframed to its frame
+ *   length. All buffers are allocated when a stream starts, so packets are received, reordered and
+ *   decoded without allocation.
+ *
+ *   <p>Engines are created on a separate thread, so that a new source does not stall the playout of
+ *   the others. Packets of a new source are buffered meanwhile. If its engine cannot be created, the
+ *   source is ignored until it has been silent for the stream timeout.
+ **/
+public class CobraRtpReceiver {
+
+    private static final String TAG = "CobraRtpReceiver";
+
+    private static final int PAYLOAD_TYPE_PCMU = 0;
+    private static final int PAYLOAD_TYPE_PCMA = 8;
+    private static final int G711_SAMPLE_RATE = 8000;
+    private static final int MAX_PACKET_SIZE = 1500;
+    private static final int RTP_HEADER_SIZE = 12;
+    private static final long TICK_MS = 5;
+
+    /**
+     * Receiver of results. Callbacks are invoked on the receiver thread.
+     */
+    public interface Listener {
+
+        /**
+         * Called for every frame of a stream processed by its engine.
+         *
+         * @param ssrc Synchronization source of the stream.
+         * @param probability Probability of voice activity. It is a floating-point number within [0, 1].
+         * @param frameIndex Index of the frame within the stream.
+         */
+        void onProbability(long ssrc, float probability, long frameIndex);
+
+        /**
+         * Called when the engine of a stream cannot be created or fails to process a frame.
+         *
+         * @param ssrc Synchronization source of the stream.
+         * @param e The error raised by the engine.
+         */
+        void onError(long ssrc, CobraException e);
+    }
+
+    private final CobraEngineFactory engineFactory;
+    private final InetSocketAddress bindAddress;
+    private final Listener listener;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final int bufferPackets;
+    private final int l16PayloadType;
+    private final int l16SampleRate;
+    private final long streamTimeoutNanos;
+    private final Stream[] streams;
+
+    private final AtomicLong packetCount = new AtomicLong();
+    private final AtomicLong latePacketCount = new AtomicLong();
+    private final AtomicLong concealedPacketCount = new AtomicLong();
+
+    private volatile boolean running = false;
+    private DatagramChannel channel;
+    private Selector selector;
+    private Thread thread;
+    private ExecutorService engineExecutor;
+    private final Queue<CreatedEngine> createdEngines = new ConcurrentLinkedQueue<>();
+
+    private CobraRtpReceiver(
+            CobraEngineFactory engineFactory,
+            InetSocketAddress bindAddress,
+            Listener listener,
+            long minDelayNanos,
+            long maxDelayNanos,
+            int bufferPackets,
+            int l16PayloadType,
+            int l16SampleRate,
+            int maxStreams,
+            long streamTimeoutNanos) {
+        this.engineFactory = engineFactory;
+        this.bindAddress = bindAddress;
+        this.listener = listener;
+        this.minDelayNanos = minDelayNanos;
+        this.maxDelayNanos = maxDelayNanos;
+        this.bufferPackets = bufferPackets;
+        this.l16PayloadType = l16PayloadType;
+        this.l16SampleRate = l16SampleRate;
+        this.streamTimeoutNanos = streamTimeoutNanos;
+        this.streams = new Stream[maxStreams];
+    }
+
+    /**
+     * Binds the UDP socket and starts the receiver thread.
+     *
+     * @throws IOException if the socket cannot be bound.
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        selector = Selector.open();
+        try {
+            channel = DatagramChannel.open();
+            channel.socket().bind(bindAddress);
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ);
+        } catch (IOException e) {
+            closeQuietly();
+            throw e;
+        }
+
+        running = true;
+        engineExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, TAG + "-engines");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runReceiver();
+            }
+        }, TAG);
+        thread.start();
+    }
+
+    /**
+     * Stops the receiver thread, closes the socket and releases the engines of all streams.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+
+        // let an engine being created finish rather than interrupt native initialization
+        engineExecutor.shutdown();
+        try {
+            engineExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        engineExecutor = null;
+        CreatedEngine created;
+        while ((created = createdEngines.poll()) != null) {
+            if (created.engine != null) {
+                created.engine.delete();
+            }
+        }
+    }
+
+    /**
+     * Getter for the UDP port the receiver is bound to.
+     *
+     * @return Port number, or -1 if the receiver is not running.
+     */
+    public synchronized int getLocalPort() {
+        return running ? channel.socket().getLocalPort() : -1;
+    }
+
+    /**
+     * Getter for the number of RTP packets accepted.
+     *
+     * @return Number of packets.
+     */
+    public long getPacketCount() {
+        return packetCount.get();
+    }
+
+    /**
+     * Getter for the number of packets dropped because they arrived after their playout time.
+     *
+     * @return Number of late packets.
+     */
+    public long getLatePacketCount() {
+        return latePacketCount.get();
+    }
+
+    /**
+     * Getter for the number of packets replaced with silence because they had not arrived by their
+     * playout time.
+     *
+     * @return Number of concealed packets.
+     */
+    public long getConcealedPacketCount() {
+        return concealedPacketCount.get();
+    }
+
+    private void runReceiver() {
+        ByteBuffer packet = ByteBuffer.allocateDirect(MAX_PACKET_SIZE).order(ByteOrder.BIG_ENDIAN);
+        try {
+            while (running) {
+                selector.select(TICK_MS);
+                selector.selectedKeys().clear();
+
+                long now = System.nanoTime();
+                while (true) {
+                    packet.clear();
+                    if (channel.receive(packet) == null) {
+                        break;
+                    }
+                    packet.flip();
+                    receive(packet, now);
+                }
+
+                CreatedEngine created;
+                while ((created = createdEngines.poll()) != null) {
+                    attach(created);
+                }
+
+                for (int i = 0; i < streams.length; i++) {
+                    Stream stream = streams[i];
+                    if (stream == null || !stream.active) {
+                        continue;
+                    }
+                    if (now - stream.lastArrival > streamTimeoutNanos) {
+                        stream.close();
+                        continue;
+                    }
+                    stream.playout(now);
+                }
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to receive RTP packet.", e);
+        } finally {
+            for (Stream stream : streams) {
+                if (stream != null && stream.active) {
+                    stream.close();
+                }
+            }
+            closeQuietly();
+        }
+    }
+
+    private void receive(ByteBuffer packet, long arrival) {
+        int length = packet.remaining();
+        if (length < RTP_HEADER_SIZE || (packet.get(0) & 0xC0) != 0x80) {
+            return;
+        }
+        int first = packet.get(0) & 0xFF;
+        int payloadType = packet.get(1) & 0x7F;
+        int sequence = packet.getShort(2) & 0xFFFF;
+        long timestamp = packet.getInt(4) & 0xFFFFFFFFL;
+        long ssrc = packet.getInt(8) & 0xFFFFFFFFL;
+
+        int offset = RTP_HEADER_SIZE + 4 * (first & 0x0F);
+        if ((first & 0x10) != 0) {
+            if (offset + 4 > length) {
+                return;
+            }
+            offset += 4 + 4 * (packet.getShort(offset + 2) & 0xFFFF);
+        }
+        if ((first & 0x20) != 0) {
+            length -= packet.get(length - 1) & 0xFF;
+        }
+        if (offset >= length) {
+            return;
+        }
+
+        int sampleRate;
+        if (payloadType == PAYLOAD_TYPE_PCMU || payloadType == PAYLOAD_TYPE_PCMA) {
+            sampleRate = G711_SAMPLE_RATE;
+        } else if (payloadType == l16PayloadType) {
+            sampleRate = l16SampleRate;
+        } else {
+            return;
+        }
+
+        Stream stream = streamOf(ssrc, sampleRate);
+        if (stream == null) {
+            return;
+        }
+        if (stream.failed) {
+            // the source stays ignored, rather than retried, for as long as it keeps sending
+            stream.lastArrival = arrival;
+            return;
+        }
+        if (sampleRate != stream.sampleRate) {
+            return;
+        }
+        packetCount.incrementAndGet();
+        packet.position(offset);
+        packet.limit(length);
+        stream.receive(packet, payloadType, sequence, timestamp, arrival);
+    }
+
+    private Stream streamOf(long ssrc, int sampleRate) {
+        Stream free = null;
+        for (int i = 0; i < streams.length; i++) {
+            Stream stream = streams[i];
+            if (stream == null) {
+                // slots are filled in order, so no stream follows an unused slot
+                if (free == null) {
+                    free = streams[i] = new Stream();
+                }
+                break;
+            } else if (stream.active && stream.ssrc == ssrc) {
+                return stream;
+            } else if (!stream.active && free == null) {
+                free = stream;
+            }
+        }
+        if (free == null) {
+            return null;
+        }
+
+        free.open(ssrc, sampleRate);
+        final CreatedEngine created = new CreatedEngine(free, free.generation);
+        engineExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    created.engine = engineFactory.create();
+                } catch (CobraException e) {
+                    created.error = e;
+                }
+                createdEngines.add(created);
+                selector.wakeup();
+            }
+        });
+        return free;
+    }
+
+    private void attach(CreatedEngine created) {
+        Stream stream = created.stream;
+        if (!stream.active || stream.generation != created.generation) {
+            // the source timed out while its engine was being created
+            if (created.engine != null) {
+                created.engine.delete();
+            }
+            return;
+        }
+        if (created.error != null) {
+            stream.failed = true;
+            listener.onError(stream.ssrc, created.error);
+            return;
+        }
+        if (stream.sampleRate > created.engine.getSampleRate()) {
+            stream.failed = true;
+            listener.onError(stream.ssrc, new CobraInvalidArgumentException(String.format(
+                    "Cannot convert %dHz RTP audio to %dHz.",
+                    stream.sampleRate,
+                    created.engine.getSampleRate())));
+            created.engine.delete();
+            return;
+        }
+        stream.attach(created.engine);
+    }
+
+    private void closeQuietly() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+            selector.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Engine created off the receiver thread for a stream, identified by the generation of its slot.
+     */
+    private static final class CreatedEngine {
+
+        private final Stream stream;
+        private final int generation;
+        private CobraEngine engine;
+        private CobraException error;
+
+        CreatedEngine(Stream stream, int generation) {
+            this.stream = stream;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Jitter buffer, decoder and engine of a single synchronization source.
+     */
+    private final class Stream {
+
+        // jitter buffer slots, indexed by sequence number modulo the buffer size, a power of two that
+        // divides 2^16 so that slots stay consistent across the wrap of the sequence number
+        private final byte[][] payloads = new byte[bufferPackets][MAX_PACKET_SIZE];
+        private final ByteBuffer[] payloadBuffers = new ByteBuffer[bufferPackets];
+        private final int[] sequences = new int[bufferPackets];
+        private final long[] timestamps = new long[bufferPackets];
+        private final int[] lengths = new int[bufferPackets];
+        private final int[] payloadTypes = new int[bufferPackets];
+
+        private final short[] decoded = new short[MAX_PACKET_SIZE];
+
+        private boolean active = false;
+        private boolean failed = false;
+        private int generation = 0;
+        private long ssrc;
+        private int sampleRate;
+        private CobraEngine engine;
+
+        private boolean started;
+        private long firstTimestamp;
+        private long lastTimestamp;
+        private int nextSequence;
+        private int newestSequence;
+        private long nextTimestamp;
+        private int lastPacketSamples;
+        private long lastArrival;
+
+        private long transitBase;
+        private long lastTransit;
+        private double jitterNanos;
+
+        // linear interpolation to the engine's sample rate and reframing
+        private short[] frame;
+        private int frameFill;
+        private short previousSample;
+        private int phase;
+        private long frameIndex;
+
+        Stream() {
+            for (int i = 0; i < bufferPackets; i++) {
+                payloadBuffers[i] = ByteBuffer.wrap(payloads[i]).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        void open(long ssrc, int sampleRate) {
+            this.active = true;
+            this.failed = false;
+            this.generation++;
+            this.ssrc = ssrc;
+            this.sampleRate = sampleRate;
+            this.engine = null;
+            this.started = false;
+            jitterNanos = 0;
+        }
+
+        void attach(CobraEngine engine) {
+            this.engine = engine;
+            if (frame == null || frame.length != engine.getFrameLength()) {
+                frame = new short[engine.getFrameLength()];
+            }
+            frameFill = 0;
+            previousSample = 0;
+            phase = engine.getSampleRate();
+            frameIndex = 0;
+        }
+
+        void close() {
+            active = false;
+            if (engine != null) {
+                engine.delete();
+                engine = null;
+            }
+        }
+
+        void receive(ByteBuffer packet, int payloadType, int sequence, long timestamp, long arrival) {
+            lastArrival = arrival;
+            if (started && (short) (sequence - nextSequence) >= bufferPackets) {
+                // the source jumped further than the buffer spans, e.g. after a restart; resynchronize
+                started = false;
+            }
+            if (!started) {
+                started = true;
+                firstTimestamp = timestamp;
+                lastTimestamp = 0;
+                nextSequence = sequence;
+                newestSequence = sequence;
+                nextTimestamp = 0;
+                lastPacketSamples = 0;
+                transitBase = arrival;
+                lastTransit = arrival;
+                for (int i = 0; i < bufferPackets; i++) {
+                    sequences[i] = -1;
+                }
+            }
+
+            // extend the 32-bit timestamp relative to the first packet of the stream
+            long relative = lastTimestamp + (int) ((timestamp - firstTimestamp) - lastTimestamp);
+            lastTimestamp = Math.max(lastTimestamp, relative);
+
+            long transit = arrival - relative * 1000000000L / sampleRate;
+            jitterNanos += (Math.abs(transit - lastTransit) - jitterNanos) / 16;
+            lastTransit = transit;
+            // follow the minimum transit time, creeping up slowly to track clock drift
+            transitBase = transit < transitBase ? transit : transitBase + (transit - transitBase) / 1024;
+
+            int ahead = (short) (sequence - nextSequence);
+            if (relative < nextTimestamp || ahead < 0) {
+                latePacketCount.incrementAndGet();
+                return;
+            }
+
+            if ((short) (sequence - newestSequence) > 0) {
+                newestSequence = sequence;
+            }
+            int slot = sequence & (bufferPackets - 1);
+            int length = packet.remaining();
+            packet.get(payloads[slot], 0, length);
+            sequences[slot] = sequence;
+            timestamps[slot] = relative;
+            lengths[slot] = length;
+            payloadTypes[slot] = payloadType;
+        }
+
+        void playout(long now) {
+            // packets wait in the buffer until the engine has been created
+            if (!started || engine == null) {
+                return;
+            }
+            long delay = Math.min(Math.max(minDelayNanos + (long) (4 * jitterNanos), minDelayNanos), maxDelayNanos);
+            long playoutTimestamp = (now - transitBase - delay) * sampleRate / 1000000000L;
+
+            while (active) {
+                int slot = nextSequence & (bufferPackets - 1);
+                if (sequences[slot] == nextSequence) {
+                    long timestamp = timestamps[slot];
+                    if (timestamp > playoutTimestamp) {
+                        return;
+                    }
+                    // a timestamp gap without a sequence gap is discontinuous transmission
+                    pushSilence((int) Math.min(timestamp - nextTimestamp, sampleRate));
+                    int samples = decode(slot);
+                    push(decoded, samples);
+                    sequences[slot] = -1;
+                    lastPacketSamples = samples;
+                    nextTimestamp = timestamp + samples;
+                    nextSequence = (nextSequence + 1) & 0xFFFF;
+                } else {
+                    // a packet is only known to be missing once a later one has arrived
+                    if (lastPacketSamples == 0 ||
+                            (short) (newestSequence - nextSequence) <= 0 ||
+                            nextTimestamp + lastPacketSamples > playoutTimestamp) {
+                        return;
+                    }
+                    concealOne();
+                }
+            }
+        }
+
+        private void concealOne() {
+            concealedPacketCount.incrementAndGet();
+            int slot = nextSequence & (bufferPackets - 1);
+            if (sequences[slot] == nextSequence) {
+                sequences[slot] = -1;
+            }
+            pushSilence(lastPacketSamples);
+            nextTimestamp += lastPacketSamples;
+            nextSequence = (nextSequence + 1) & 0xFFFF;
+        }
+
+        private int decode(int slot) {
+            int length = lengths[slot];
+            ByteBuffer payload = payloadBuffers[slot];
+            payload.clear();
+            if (payloadTypes[slot] == PAYLOAD_TYPE_PCMU) {
+                CobraAudioSource.MULAW.decode(payload, decoded, 0, length);
+                return length;
+            }
+            if (payloadTypes[slot] == PAYLOAD_TYPE_PCMA) {
+                CobraAudioSource.ALAW.decode(payload, decoded, 0, length);
+                return length;
+            }
+            // L16 is big-endian in RTP
+            byte[] bytes = payloads[slot];
+            int samples = length / 2;
+            for (int i = 0; i < samples; i++) {
+                decoded[i] = (short) ((bytes[2 * i] << 8) | (bytes[2 * i + 1] & 0xFF));
+            }
+            return samples;
+        }
+
+        private void pushSilence(int samples) {
+            for (int i = 0; i < samples && active; i++) {
+                pushSample((short) 0);
+            }
+        }
+
+        private void push(short[] samples, int count) {
+            for (int i = 0; i < count && active; i++) {
+                pushSample(samples[i]);
+            }
+        }
+
+        private void pushSample(short sample) {
+            // output samples lie within (previous, current]; phase is their offset in units of 1 / targetRate
+            final int targetRate = engine.getSampleRate();
+            while (phase <= targetRate) {
+                frame[frameFill++] = (short) (previousSample + (sample - previousSample) * phase / targetRate);
+                if (frameFill == frame.length) {
+                    frameFill = 0;
+                    try {
+                        listener.onProbability(ssrc, engine.process(frame), frameIndex++);
+                    } catch (CobraException e) {
+                        listener.onError(ssrc, e);
+                    } catch (RuntimeException e) {
+                        Log.e(TAG, "CobraRtpReceiver listener failed.", e);
+                    }
+                }
+                phase += sampleRate;
+            }
+            phase -= targetRate;
+            previousSample = sample;
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraRtpReceiver with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private CobraEngineFactory engineFactory = null;
+        private InetSocketAddress bindAddress = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        private Listener listener = null;
+        private int minDelayMs = 20;
+        private int maxDelayMs = 200;
+        private int bufferPackets = 64;
+        private int l16PayloadType = 96;
+        private int l16SampleRate = 16000;
+        private int maxStreams = 16;
+        private int streamTimeoutMs = 5000;
+
+        /**
+         * Setter for the factory that creates the engine of each stream.
+         *
+         * @param engineFactory Engine factory, e.g. a configured {@link Cobra.Builder}.
+         */
+        public Builder setEngineFactory(CobraEngineFactory engineFactory) {
+            this.engineFactory = engineFactory;
+            return this;
+        }
+
+        /**
+         * Setter for the local address to receive on.
+         *
+         * @param bindAddress Address and UDP port. Defaults to an ephemeral port on the loopback interface.
+         */
+        public Builder setBindAddress(InetSocketAddress bindAddress) {
+            this.bindAddress = bindAddress;
+            return this;
+        }
+
+        /**
+         * Setter for the receiver of results.
+         *
+         * @param listener Listener.
+         */
+        public Builder setListener(Listener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Setter for the range of the adaptive playout delay.
+         *
+         * @param minDelayMs Playout delay in milliseconds with no jitter.
+         * @param maxDelayMs Upper bound of the playout delay in milliseconds, and so of the latency added
+         *                   by the jitter buffer.
+         */
+        public Builder setDelayRangeMs(int minDelayMs, int maxDelayMs) {
+            this.minDelayMs = minDelayMs;
+            this.maxDelayMs = maxDelayMs;
+            return this;
+        }
+
+        /**
+         * Setter for the capacity of each jitter buffer.
+         *
+         * @param bufferPackets Number of packets buffered per stream. It must be a power of two of at
+         *                      most 16384 and cover the maximum delay.
+         */
+        public Builder setBufferPackets(int bufferPackets) {
+            this.bufferPackets = bufferPackets;
+            return this;
+        }
+
+        /**
+         * Setter for the dynamic payload type of single-channel L16 audio.
+         *
+         * @param payloadType Payload type as negotiated out of band (e.g. in SDP).
+         * @param sampleRate Sample rate of the L16 audio. It cannot exceed the engine's sample rate.
+         */
+        public Builder setL16PayloadType(int payloadType, int sampleRate) {
+            this.l16PayloadType = payloadType;
+            this.l16SampleRate = sampleRate;
+            return this;
+        }
+
+        /**
+         * Setter for the maximum number of concurrent streams.
+         *
+         * @param maxStreams Number of streams. Packets of further sources are ignored.
+         */
+        public Builder setMaxStreams(int maxStreams) {
+            this.maxStreams = maxStreams;
+            return this;
+        }
+
+        /**
+         * Setter for when a silent source is considered gone.
+         *
+         * @param streamTimeoutMs Time in milliseconds without packets after which a stream's engine is
+         *                        released.
+         */
+        public Builder setStreamTimeoutMs(int streamTimeoutMs) {
+            this.streamTimeoutMs = streamTimeoutMs;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraRtpReceiver.
+         *
+         * @return An instance of CobraRtpReceiver
+         * @throws CobraException if the properties are invalid.
+         */
+        public CobraRtpReceiver build() throws CobraException {
+            if (engineFactory == null) {
+                throw new CobraInvalidArgumentException("No engine factory was provided to CobraRtpReceiver.");
+            }
+            if (bindAddress == null) {
+                throw new CobraInvalidArgumentException("No bind address was provided to CobraRtpReceiver.");
+            }
+            if (listener == null) {
+                throw new CobraInvalidArgumentException("No listener was provided to CobraRtpReceiver.");
+            }
+            if (minDelayMs < 0 || maxDelayMs < minDelayMs) {
+                throw new CobraInvalidArgumentException("Playout delays must satisfy 0 <= minimum <= maximum.");
+            }
+            if (bufferPackets <= 0 || bufferPackets > (1 << 14) || (bufferPackets & (bufferPackets - 1)) != 0) {
+                throw new CobraInvalidArgumentException("Jitter buffer capacity must be a power of two up to 16384.");
+            }
+            if (l16PayloadType < 96 || l16PayloadType > 127) {
+                throw new CobraInvalidArgumentException("L16 payload type must be a dynamic payload type (96-127).");
+            }
+            if (l16SampleRate <= 0) {
+                throw new CobraInvalidArgumentException("L16 sample rate must be positive.");
+            }
+            if (maxStreams <= 0) {
+                throw new CobraInvalidArgumentException("Maximum number of streams must be positive.");
+            }
+            if (streamTimeoutMs <= 0) {
+                throw new CobraInvalidArgumentException("Stream timeout must be positive.");
+            }
+
+            return new CobraRtpReceiver(
+                    engineFactory,
+                    bindAddress,
+                    listener,
+                    minDelayMs * 1000000L,
+                    maxDelayMs * 1000000L,
+                    bufferPackets,
+                    l16PayloadType,
+                    l16SampleRate,
+                    maxStreams,
+                    streamTimeoutMs * 1000000L);
+        }
+    }
+}
@@ -0,0 +1,630 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import android.net.Credentials;
+import android.net.LocalServerSocket;
+import android.net.LocalSocket;
+import android.net.LocalSocketAddress;
+import android.os.Process;
+import android.util.Log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *   Local voice activity detection service. Clients on the same device stream raw audio over a
+ *   loopback TCP connection or a Unix-domain socket and receive the probability of voice activity of
+ *   each frame in return, so several processes can share one Cobra deployment. Each connection is
+ *   served by its own engine. TCP connections are multiplexed on a single NIO selector thread;
+ *   Unix-domain connections use a thread each because Android exposes them only as blocking streams.
+ *
+ *   <p>Protocol (all values little-endian): on connect the server sends two 32-bit integers, the frame
+ *   length and the sample rate. The client then streams single-channel 16-bit PCM. For every complete
+ *   frame received the server sends one 32-bit float. The server never listens on a non-loopback
+ *   interface.
+ *
+ *   <p>Every session costs an engine, and creating a {@link Cobra} validates the AccessKey. Engines of
+ *   TCP connections are therefore created on a separate thread, so that a connecting client does not
+ *   stall the sessions already being served, and the number of concurrent sessions is capped. The
+ *   Unix-domain socket only accepts peers running as the application's own UID or one of the UIDs
+ *   allowed on the builder. TCP peers cannot be identified, so any application on the device can
+ *   connect over loopback; disable TCP with {@link Builder#setPort(int)} where that matters.
+ **/
+public class CobraServer {
+
+    private static final String TAG = "CobraServer";
+    private static final int INPUT_FRAMES = 8;
+    private static final int OUTPUT_FRAMES = 256;
+
+    private final CobraEngineFactory engineFactory;
+    private final int port;
+    private final String localSocketName;
+    private final int maxSessions;
+    private final Set<Integer> allowedUids;
+
+    private volatile boolean running = false;
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private ExecutorService engineExecutor;
+    private final Queue<PendingSession> createdSessions = new ConcurrentLinkedQueue<>();
+    private LocalServerSocket localServer;
+    private Thread localAcceptThread;
+    private final Set<LocalSocket> localConnections = Collections.synchronizedSet(new HashSet<LocalSocket>());
+
+    private CobraServer(
+            CobraEngineFactory engineFactory,
+            int port,
+            String localSocketName,
+            int maxSessions,
+            Set<Integer> allowedUids) {
+        this.engineFactory = engineFactory;
+        this.port = port;
+        this.localSocketName = localSocketName;
+        this.maxSessions = maxSessions;
+        this.allowedUids = allowedUids;
+    }
+
+    /**
+     * Starts listening for connections.
+     *
+     * @throws IOException if a listening socket cannot be opened.
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        running = true;
+
+        try {
+            if (port >= 0) {
+                engineExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "CobraServer-engines");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+                selector = Selector.open();
+                serverChannel = ServerSocketChannel.open();
+                serverChannel.socket().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+                serverChannel.configureBlocking(false);
+                serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+                selectorThread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        runSelector();
+                    }
+                }, "CobraServer-tcp");
+                selectorThread.start();
+            }
+
+            if (localSocketName != null) {
+                localServer = new LocalServerSocket(localSocketName);
+                localAcceptThread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        runLocalAccept();
+                    }
+                }, "CobraServer-local");
+                localAcceptThread.start();
+            }
+        } catch (IOException e) {
+            stop();
+            throw e;
+        }
+    }
+
+    /**
+     * Stops listening, closes all connections and releases their engines.
+     */
+    public synchronized void stop() {
+        running = false;
+
+        if (selector != null) {
+            selector.wakeup();
+        }
+        join(selectorThread);
+        selectorThread = null;
+
+        if (engineExecutor != null) {
+            // let an engine being created finish rather than interrupt native initialization
+            engineExecutor.shutdown();
+            try {
+                engineExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            engineExecutor = null;
+        }
+        PendingSession pending;
+        while ((pending = createdSessions.poll()) != null) {
+            pending.discard();
+        }
+
+        if (localServer != null) {
+            // closing a LocalServerSocket does not unblock accept(), so wake it with a connection
+            try (LocalSocket wake = new LocalSocket()) {
+                wake.connect(new LocalSocketAddress(localSocketName));
+            } catch (IOException ignored) {
+            }
+            join(localAcceptThread);
+            localAcceptThread = null;
+            closeQuietly(localServer);
+            localServer = null;
+        }
+        synchronized (localConnections) {
+            for (LocalSocket socket : localConnections) {
+                closeQuietly(socket);
+            }
+            localConnections.clear();
+        }
+    }
+
+    /**
+     * Getter for the number of sessions currently open, including TCP sessions whose engine is still
+     * being created.
+     *
+     * @return Number of sessions.
+     */
+    public int getSessionCount() {
+        return sessionCount.get();
+    }
+
+    /**
+     * Getter for the loopback TCP port the server listens on.
+     *
+     * @return Port number, or -1 if TCP is disabled or the server is not running.
+     */
+    public synchronized int getPort() {
+        if (serverChannel == null || !serverChannel.isOpen()) {
+            return -1;
+        }
+        return serverChannel.socket().getLocalPort();
+    }
+
+    private void runSelector() {
+        try {
+            while (running) {
+                selector.select();
+                PendingSession pending;
+                while ((pending = createdSessions.poll()) != null) {
+                    attach(pending);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        serve(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Selector failed.", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Session) {
+                    ((Session) key.attachment()).close();
+                    sessionCount.decrementAndGet();
+                }
+                closeQuietly(key.channel());
+            }
+            closeQuietly(selector);
+            closeQuietly(serverChannel);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        if (!reserveSession()) {
+            closeQuietly(channel);
+            return;
+        }
+        final SelectionKey key;
+        try {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            // no interest until the engine exists; the client's audio waits in the socket buffer
+            key = channel.register(selector, 0);
+        } catch (IOException e) {
+            sessionCount.decrementAndGet();
+            closeQuietly(channel);
+            return;
+        }
+        engineExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                PendingSession pending = new PendingSession(key);
+                try {
+                    pending.engine = engineFactory.create();
+                } catch (CobraException e) {
+                    Log.e(TAG, "Failed to create engine for connection.", e);
+                }
+                createdSessions.add(pending);
+                selector.wakeup();
+            }
+        });
+    }
+
+    private void attach(PendingSession pending) {
+        SelectionKey key = pending.key;
+        if (pending.engine == null || !key.isValid()) {
+            pending.discard();
+            return;
+        }
+        Session session = new Session(pending.engine);
+        key.attach(session);
+        try {
+            update(key, (SocketChannel) key.channel(), session);
+        } catch (IOException | CobraException e) {
+            close(key, session);
+        }
+    }
+
+    private boolean reserveSession() {
+        if (sessionCount.incrementAndGet() > maxSessions) {
+            sessionCount.decrementAndGet();
+            Log.w(TAG, String.format("Rejected connection: %d sessions are open already.", maxSessions));
+            return false;
+        }
+        return true;
+    }
+
+    private void serve(SelectionKey key) {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Session session = (Session) key.attachment();
+        try {
+            if (key.isReadable() && channel.read(session.input) < 0) {
+                // the client is done sending; results still owed to it are written before closing
+                session.endOfInput = true;
+            }
+            update(key, channel, session);
+        } catch (IOException | CobraException e) {
+            close(key, session);
+        }
+    }
+
+    private void update(SelectionKey key, SocketChannel channel, Session session) throws IOException, CobraException {
+        boolean progress = true;
+        while (progress) {
+            progress = session.process();
+            session.output.flip();
+            progress |= channel.write(session.output) > 0;
+            session.output.compact();
+            if (session.output.position() > 0) {
+                break;
+            }
+        }
+
+        if (session.endOfInput && session.output.position() == 0) {
+            close(key, session);
+            return;
+        }
+        int ops = 0;
+        if (!session.endOfInput && session.input.hasRemaining()) {
+            ops |= SelectionKey.OP_READ;
+        }
+        if (session.output.position() > 0) {
+            ops |= SelectionKey.OP_WRITE;
+        }
+        key.interestOps(ops);
+    }
+
+    private void close(SelectionKey key, Session session) {
+        key.cancel();
+        closeQuietly(key.channel());
+        session.close();
+        sessionCount.decrementAndGet();
+    }
+
+    private void runLocalAccept() {
+        while (running) {
+            final LocalSocket socket;
+            try {
+                socket = localServer.accept();
+            } catch (IOException e) {
+                if (running) {
+                    Log.e(TAG, "Failed to accept local connection.", e);
+                }
+                return;
+            }
+            if (!running) {
+                closeQuietly(socket);
+                return;
+            }
+            if (!isAllowedPeer(socket) || !reserveSession()) {
+                closeQuietly(socket);
+                continue;
+            }
+            localConnections.add(socket);
+
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    serveLocal(socket);
+                }
+            }, "CobraServer-local-connection");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private boolean isAllowedPeer(LocalSocket socket) {
+        try {
+            Credentials credentials = socket.getPeerCredentials();
+            if (credentials.getUid() == Process.myUid() || allowedUids.contains(credentials.getUid())) {
+                return true;
+            }
+            Log.w(TAG, String.format("Rejected local connection from UID %d.", credentials.getUid()));
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to read credentials of local connection.", e);
+        }
+        return false;
+    }
+
+    private void serveLocal(LocalSocket socket) {
+        Session session = null;
+        try {
+            session = new Session(engineFactory.create());
+            InputStream is = socket.getInputStream();
+            OutputStream os = socket.getOutputStream();
+            ByteBuffer input = session.input;
+            ByteBuffer output = session.output;
+
+            while (running) {
+                boolean progress = session.process();
+                if (output.position() > 0) {
+                    os.write(output.array(), output.arrayOffset(), output.position());
+                    os.flush();
+                    output.clear();
+                }
+                if (progress) {
+                    continue;
+                }
+
+                int n = is.read(input.array(), input.arrayOffset() + input.position(), input.remaining());
+                if (n < 0) {
+                    break;
+                }
+                input.position(input.position() + n);
+            }
+        } catch (IOException | CobraException e) {
+            Log.w(TAG, "Local connection closed.", e);
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+            sessionCount.decrementAndGet();
+            localConnections.remove(socket);
+            closeQuietly(socket);
+        }
+    }
+
+    private static void join(Thread thread) {
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * TCP connection whose engine has been created, or failed to be, off the selector thread.
+     */
+    private final class PendingSession {
+
+        private final SelectionKey key;
+        private CobraEngine engine;
+
+        PendingSession(SelectionKey key) {
+            this.key = key;
+        }
+
+        void discard() {
+            if (engine != null) {
+                engine.delete();
+            }
+            key.cancel();
+            closeQuietly(key.channel());
+            sessionCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Per-connection state: the engine and the (heap) buffers shared by both transports.
+     */
+    private static final class Session {
+
+        private final CobraEngine engine;
+        private final short[] pcm;
+        private final ByteBuffer input;
+        private final ByteBuffer output;
+        private boolean endOfInput = false;
+
+        Session(CobraEngine engine) {
+            this.engine = engine;
+            this.pcm = new short[engine.getFrameLength()];
+            this.input = ByteBuffer.allocate(engine.getFrameLength() * 2 * INPUT_FRAMES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            this.output = ByteBuffer.allocate(4 * OUTPUT_FRAMES).order(ByteOrder.LITTLE_ENDIAN);
+            output.putInt(engine.getFrameLength());
+            output.putInt(engine.getSampleRate());
+        }
+
+        /**
+         * Processes complete frames from the input buffer while there is room for their results.
+         *
+         * @return Whether any frame was processed.
+         */
+        boolean process() throws CobraException {
+            boolean progress = false;
+            input.flip();
+            while (input.remaining() >= pcm.length * 2 && output.remaining() >= 4) {
+                for (int i = 0; i < pcm.length; i++) {
+                    pcm[i] = input.getShort();
+                }
+                output.putFloat(engine.process(pcm));
+                progress = true;
+            }
+            input.compact();
+            return progress;
+        }
+
+        void close() {
+            engine.delete();
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraServer with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private CobraEngineFactory engineFactory = null;
+        private int port = 0;
+        private String localSocketName = null;
+        private int maxSessions = 16;
+        private int[] allowedUids = new int[0];
+
+        /**
+         * Setter for the factory that creates the engine of each connection.
+         *
+         * @param engineFactory Engine factory, e.g. a configured {@link Cobra.Builder}.
+         */
+        public Builder setEngineFactory(CobraEngineFactory engineFactory) {
+            this.engineFactory = engineFactory;
+            return this;
+        }
+
+        /**
+         * Setter for the loopback TCP port.
+         *
+         * @param port Port to listen on. 0 selects an ephemeral port (see {@link CobraServer#getPort()})
+         *             and -1 disables TCP.
+         */
+        public Builder setPort(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Setter for the Unix-domain socket name.
+         *
+         * @param localSocketName Name of a socket in the Linux abstract namespace, or null to disable
+         *                        Unix-domain connections.
+         */
+        public Builder setLocalSocketName(String localSocketName) {
+            this.localSocketName = localSocketName;
+            return this;
+        }
+
+        /**
+         * Setter for the maximum number of concurrent sessions over both transports.
+         *
+         * @param maxSessions Maximum number of sessions, each holding an engine. Connections beyond it
+         *                    are closed immediately.
+         */
+        public Builder setMaxSessions(int maxSessions) {
+            this.maxSessions = maxSessions;
+            return this;
+        }
+
+        /**
+         * Setter for the UIDs allowed to connect over the Unix-domain socket.
+         *
+         * @param allowedUids UIDs of other applications allowed to connect, in addition to the
+         *                    application's own UID, which is always allowed.
+         */
+        public Builder setAllowedUids(int... allowedUids) {
+            this.allowedUids = allowedUids;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraServer.
+         *
+         * @return An instance of CobraServer
+         * @throws CobraException if the properties are invalid.
+         */
+        public CobraServer build() throws CobraException {
+            if (engineFactory == null) {
+                throw new CobraInvalidArgumentException("No engine factory was provided to CobraServer.");
+            }
+            if (port < -1 || port > 65535) {
+                throw new CobraInvalidArgumentException(String.format("Invalid port %d.", port));
+            }
+            if (port == -1 && localSocketName == null) {
+                throw new CobraInvalidArgumentException("CobraServer requires TCP or a local socket name.");
+            }
+            if (localSocketName != null && localSocketName.isEmpty()) {
+                throw new CobraInvalidArgumentException("Local socket name cannot be empty.");
+            }
+            if (maxSessions <= 0) {
+                throw new CobraInvalidArgumentException("Maximum number of sessions must be positive.");
+            }
+            if (allowedUids == null) {
+                throw new CobraInvalidArgumentException("Passed null allowed UIDs to CobraServer.");
+            }
+
+            Set<Integer> uids = new HashSet<>();
+            for (int uid : allowedUids) {
+                uids.add(uid);
+            }
+            return new CobraServer(engineFactory, port, localSocketName, maxSessions, uids);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ *   Removes silence from recordings. The input WAV is processed with Cobra frame by frame and only
+ *   voiced regions, extended by a configurable amount of padding on each side, are written to the
+ *   output WAV. Alongside the trimmed audio a time map is written so that sample offsets in the
+ *   trimmed file can be mapped back to the original recording.
+ *
+ *   <p>The time map is a sequence of little-endian 64-bit integer pairs, one per contiguous region
+ *   kept. Each pair holds the sample offset of the region in the trimmed file followed by its sample
+ *   offset in the original file. A trimmed offset `t` maps to `o + (t - t0)`, where `(t0, o)` is the
+ *   last pair with `t0 <= t`.
+ *
+ *   <p>All I/O goes through NIO channels and a fixed set of buffers allocated once per call.
+ **/
+public class CobraSilenceTrimmer {
+
+    private final float threshold;
+    private final int paddingMs;
+
+    private CobraSilenceTrimmer(float threshold, int paddingMs) {
+        this.threshold = threshold;
+        this.paddingMs = paddingMs;
+    }
+
+    /**
+     * Trims silence from a WAV file.
+     *
+     * @param cobra Engine (e.g. {@link Cobra}) used for detection. It should be freshly created or reset.
+     * @param input Path to a single-channel, 16-bit WAV file sampled at {@link CobraEngine#getSampleRate()}.
+     * @param output Path of the trimmed WAV file to write.
+     * @param timeMap Path of the time map file to write.
+     * @return Statistics of the trimmed recording.
+     * @throws CobraException if there is an error while processing the audio.
+     * @throws IOException if reading or writing any of the files fails.
+     */
+    public Result trim(CobraEngine cobra, File input, File output, File timeMap) throws CobraException, IOException {
+        try (FileInputStream inputStream = new FileInputStream(input);
+             RandomAccessFile outputFile = new RandomAccessFile(output, "rw");
+             RandomAccessFile timeMapFile = new RandomAccessFile(timeMap, "rw")) {
+            outputFile.setLength(0);
+            timeMapFile.setLength(0);
+            return trim(cobra, inputStream.getChannel(), outputFile.getChannel(), timeMapFile.getChannel());
+        }
+    }
+
+    /**
+     * Trims silence from a WAV stream.
+     *
+     * @param cobra Engine (e.g. {@link Cobra}) used for detection. It should be freshly created or reset.
+     * @param input Channel positioned at the start of a single-channel, 16-bit WAV stream sampled at
+     *              {@link CobraEngine#getSampleRate()}.
+     * @param output Channel positioned at the start of an empty file. The WAV header is patched in
+     *               place once the final length is known.
+     * @param timeMap Channel the time map is written to.
+     * @return Statistics of the trimmed recording.
+     * @throws CobraException if there is an error while processing the audio.
+     * @throws IOException if reading or writing any of the channels fails.
+     */
+    public Result trim(
+            CobraEngine cobra,
+            ReadableByteChannel input,
+            FileChannel output,
+            WritableByteChannel timeMap) throws CobraException, IOException {
+        CobraWav.Format format = CobraWav.readHeader(input);
+        if (format.audioFormat != CobraWav.FORMAT_PCM ||
+                format.channelCount != 1 ||
+                format.bitsPerSample != 16 ||
+                format.sampleRate != cobra.getSampleRate()) {
+            throw new CobraInvalidArgumentException(
+                    String.format("Silence trimming requires single-channel 16-bit PCM WAV at %dHz.",
+                            cobra.getSampleRate()));
+        }
+
+        final int frameLength = cobra.getFrameLength();
+        final int frameBytes = frameLength * 2;
+        final int paddingFrames = (int) Math.ceil(
+                (paddingMs * (double) cobra.getSampleRate()) / (1000.0 * frameLength));
+
+        final long headerPosition = output.position();
+        CobraWav.writeHeader(output, cobra.getSampleRate(), 1, 16, 0);
+
+        ByteBuffer frameBuffer = ByteBuffer.allocate(frameBytes).order(ByteOrder.LITTLE_ENDIAN);
+        ShortBuffer frameSamples = frameBuffer.asShortBuffer();
+        short[] pcm = new short[frameLength];
+
+        ByteBuffer[] history = new ByteBuffer[paddingFrames];
+        for (int i = 0; i < paddingFrames; i++) {
+            history[i] = ByteBuffer.allocate(frameBytes);
+        }
+        int historyHead = 0;
+        int historyCount = 0;
+
+        ByteBuffer mapEntry = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+
+        // chunks after `data` (e.g. `LIST` or `id3 `) are not audio
+        long remainingBytes = format.getAudioBytes();
+
+        long frameIndex = 0;
+        long writtenSamples = 0;
+        long writtenOriginalEnd = -1;
+        long segmentCount = 0;
+        int trailingFrames = 0;
+
+        while (true) {
+            int numRead = readFrame(input, frameBuffer, remainingBytes);
+            remainingBytes -= numRead;
+            if (numRead < frameBytes) {
+                if (numRead > 1 && trailingFrames > 0) {
+                    frameBuffer.flip();
+                    frameBuffer.limit(numRead & ~1);
+                    writeFully(output, frameBuffer);
+                    writtenSamples += numRead / 2;
+                }
+                break;
+            }
+
+            frameSamples.rewind();
+            frameSamples.get(pcm);
+            boolean voiced = cobra.process(pcm) >= threshold;
+
+            if (voiced) {
+                long regionStart = (frameIndex - historyCount) * frameLength;
+                if (regionStart != writtenOriginalEnd) {
+                    mapEntry.clear();
+                    mapEntry.putLong(writtenSamples).putLong(regionStart).flip();
+                    writeFully(timeMap, mapEntry);
+                    segmentCount++;
+                }
+                for (int i = 0; i < historyCount; i++) {
+                    ByteBuffer past = history[(historyHead + i) % paddingFrames];
+                    past.rewind();
+                    writeFully(output, past);
+                }
+                writtenSamples += (long) historyCount * frameLength;
+                historyCount = 0;
+                trailingFrames = paddingFrames;
+            }
+
+            if (voiced || trailingFrames > 0) {
+                if (!voiced) {
+                    trailingFrames--;
+                }
+                frameBuffer.rewind();
+                writeFully(output, frameBuffer);
+                writtenSamples += frameLength;
+                writtenOriginalEnd = (frameIndex + 1) * frameLength;
+            } else if (paddingFrames > 0) {
+                ByteBuffer slot;
+                if (historyCount == paddingFrames) {
+                    slot = history[historyHead];
+                    historyHead = (historyHead + 1) % paddingFrames;
+                } else {
+                    slot = history[(historyHead + historyCount) % paddingFrames];
+                    historyCount++;
+                }
+                slot.clear();
+                frameBuffer.rewind();
+                slot.put(frameBuffer);
+            }
+            frameIndex++;
+        }
+
+        long originalSamples = frameIndex * frameLength;
+        long endPosition = output.position();
+        output.position(headerPosition);
+        CobraWav.writeHeader(output, cobra.getSampleRate(), 1, 16, writtenSamples * 2);
+        output.position(endPosition);
+
+        return new Result(originalSamples, writtenSamples, segmentCount);
+    }
+
+    private static int readFrame(ReadableByteChannel channel, ByteBuffer buffer, long remainingBytes)
+            throws IOException {
+        buffer.clear();
+        if (remainingBytes < buffer.capacity()) {
+            buffer.limit((int) remainingBytes);
+        }
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+        return buffer.position();
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Statistics of a trimmed recording.
+     */
+    public static class Result {
+
+        private final long originalSamples;
+        private final long trimmedSamples;
+        private final long segmentCount;
+
+        Result(long originalSamples, long trimmedSamples, long segmentCount) {
+            this.originalSamples = originalSamples;
+            this.trimmedSamples = trimmedSamples;
+            this.segmentCount = segmentCount;
+        }
+
+        /**
+         * Getter for the number of whole-frame samples read from the original recording.
+         *
+         * @return Number of original samples.
+         */
+        public long getOriginalSamples() {
+            return originalSamples;
+        }
+
+        /**
+         * Getter for the number of samples written to the trimmed recording.
+         *
+         * @return Number of trimmed samples.
+         */
+        public long getTrimmedSamples() {
+            return trimmedSamples;
+        }
+
+        /**
+         * Getter for the number of contiguous regions kept, which equals the number of time map entries.
+         *
+         * @return Number of regions.
+         */
+        public long getSegmentCount() {
+            return segmentCount;
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraSilenceTrimmer with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private float threshold = 0.5f;
+        private int paddingMs = 250;
+
+        /**
+         * Setter for the voice probability threshold.
+         *
+         * @param threshold Frames with a probability of voice activity at or above this value are kept.
+         */
+        public Builder setThreshold(float threshold) {
+            this.threshold = threshold;
+            return this;
+        }
+
+        /**
+         * Setter for the padding kept around voiced regions.
+         *
+         * @param paddingMs Amount of audio in milliseconds kept before and after each voiced region.
+         */
+        public Builder setPaddingMs(int paddingMs) {
+            this.paddingMs = paddingMs;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraSilenceTrimmer.
+         *
+         * @return An instance of CobraSilenceTrimmer
+         * @throws CobraException if the properties are invalid.
+         */
+        public CobraSilenceTrimmer build() throws CobraException {
+            if (threshold < 0 || threshold > 1) {
+                throw new CobraInvalidArgumentException("Threshold must be within [0, 1].");
+            }
+            if (paddingMs < 0) {
+                throw new CobraInvalidArgumentException("Padding cannot be negative.");
+            }
+
+            return new CobraSilenceTrimmer(threshold, paddingMs);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+/**
+ *   Deterministic pure-Java stand-in for {@link Cobra}. The probability of voice activity is derived
+ *   from the smoothed energy of each frame, so identical input always yields identical output. An
+ *   optional simulated latency is spent busy-waiting on the calling thread to mimic the CPU cost of
+ *   native inference. It requires neither the native library nor an AccessKey, which makes it
+ *   suitable for testing and load-testing code built on {@link CobraEngine}. It is not a voice
+ *   activity detector.
+ **/
+public class CobraSimulatedEngine implements CobraEngine {
+
+    private static final double SILENCE_DBFS = -50.0;
+    private static final double SPEECH_DBFS = -30.0;
+    private static final float SMOOTHING = 0.5f;
+
+    private final int frameLength;
+    private final int sampleRate;
+    private final long latencyNanos;
+
+    private float state = 0.f;
+    private boolean deleted = false;
+
+    private CobraSimulatedEngine(int frameLength, int sampleRate, long latencyNanos) {
+        this.frameLength = frameLength;
+        this.sampleRate = sampleRate;
+        this.latencyNanos = latencyNanos;
+    }
+
+    @Override
+    public float process(short[] pcm) throws CobraException {
+        if (deleted) {
+            throw new CobraInvalidStateException("Attempted to call CobraSimulatedEngine process after delete.");
+        }
+        if (pcm == null) {
+            throw new CobraInvalidArgumentException("Passed null frame to CobraSimulatedEngine process.");
+        }
+        if (pcm.length != frameLength) {
+            throw new CobraInvalidArgumentException(
+                    String.format("CobraSimulatedEngine process requires frames of length %d. " +
+                            "Received frame of size %d.", frameLength, pcm.length));
+        }
+
+        long start = latencyNanos > 0 ? System.nanoTime() : 0;
+
+        double energy = 0;
+        for (short s : pcm) {
+            energy += (double) s * s;
+        }
+        double rms = Math.sqrt(energy / frameLength) / 32768.0;
+        double dbfs = 20.0 * Math.log10(Math.max(rms, 1e-9));
+        double level = (dbfs - SILENCE_DBFS) / (SPEECH_DBFS - SILENCE_DBFS);
+        float target = (float) Math.min(1.0, Math.max(0.0, level));
+        state += SMOOTHING * (target - state);
+
+        if (latencyNanos > 0) {
+            while (System.nanoTime() - start < latencyNanos) {
+                // busy-wait to occupy the CPU like native inference would
+            }
+        }
+        return state;
+    }
+
+    @Override
+    public void reset() throws CobraException {
+        if (deleted) {
+            throw new CobraInvalidStateException("Attempted to call CobraSimulatedEngine reset after delete.");
+        }
+        state = 0.f;
+    }
+
+    @Override
+    public int getFrameLength() {
+        return frameLength;
+    }
+
+    @Override
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public String getVersion() {
+        return "simulated";
+    }
+
+    @Override
+    public void delete() {
+        deleted = true;
+    }
+
+    @Override
+    public void close() {
+        delete();
+    }
+
+    /**
+     * Builder for creating an instance of CobraSimulatedEngine with a mixture of default arguments.
+     */
+    public static class Builder implements CobraEngineFactory {
+
+        private int frameLength = 512;
+        private int sampleRate = 16000;
+        private long latencyUs = 0;
+
+        /**
+         * Setter for the number of audio samples per frame.
+         *
+         * @param frameLength Number of audio samples per frame. Defaults to that of Cobra.
+         */
+        public Builder setFrameLength(int frameLength) {
+            this.frameLength = frameLength;
+            return this;
+        }
+
+        /**
+         * Setter for the audio sample rate.
+         *
+         * @param sampleRate Audio sample rate. Defaults to that of Cobra.
+         */
+        public Builder setSampleRate(int sampleRate) {
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        /**
+         * Setter for the simulated processing latency.
+         *
+         * @param latencyUs Time in microseconds each call to process spends busy-waiting.
+         */
+        public Builder setSimulatedLatencyUs(long latencyUs) {
+            this.latencyUs = latencyUs;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraSimulatedEngine.
+         *
+         * @return An instance of CobraSimulatedEngine
+         * @throws CobraException if the properties are invalid.
+         */
+        public CobraSimulatedEngine build() throws CobraException {
+            if (frameLength <= 0) {
+                throw new CobraInvalidArgumentException("Frame length must be positive.");
+            }
+            if (sampleRate <= 0) {
+                throw new CobraInvalidArgumentException("Sample rate must be positive.");
+            }
+            if (latencyUs < 0) {
+                throw new CobraInvalidArgumentException("Simulated latency cannot be negative.");
+            }
+
+            return new CobraSimulatedEngine(frameLength, sampleRate, latencyUs * 1000L);
+        }
+
+        /**
+         * Creates an instance of CobraSimulatedEngine. Equivalent to {@link #build()}.
+         *
+         * @return An instance of CobraSimulatedEngine
+         * @throws CobraException if the properties are invalid.
+         */
+        @Override
+        public CobraSimulatedEngine create() throws CobraException {
+            return build();
+        }
+    }
+}
@@ -0,0 +1,336 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ *   Processes a recording while it is still being written. The input file is polled for growth and
+ *   every newly appended complete frame is fed to the engine, with one little-endian 32-bit float
+ *   per frame appended to the output file. Progress is persisted in a checkpoint file holding the
+ *   input byte offset and the output position, so a restarted worker resumes at the exact frame
+ *   where the last checkpoint was taken without reprocessing earlier audio.
+ *
+ *   <p>The output is flushed to storage before each checkpoint, and checkpoints are replaced
+ *   atomically by writing a temporary file and renaming it. On resume the output is truncated to
+ *   the checkpointed position, discarding results written after the last checkpoint, which are then
+ *   recomputed. The engine starts without the temporal context of the audio before the checkpoint.
+ *
+ *   <p>Input is either a single-channel 16-bit PCM WAV file, whose header may still be incomplete
+ *   when following starts, or headerless 16-bit little-endian PCM. Following ends when {@link #stop()}
+ *   is called, when a WAV writer finalizes the data size in the header and all of it has been
+ *   processed, or when the file has not grown for the idle timeout.
+ **/
+public class CobraTailFollower {
+
+    private static final int CHECKPOINT_MAGIC = 0x50435443;
+    private static final int CHECKPOINT_SIZE = 4 + 8 + 8;
+    private static final int OUTPUT_BUFFER_FRAMES = 256;
+
+    private final boolean raw;
+    private final long pollIntervalMs;
+    private final long idleTimeoutMs;
+    private final int checkpointFrames;
+
+    private volatile boolean stopped = false;
+
+    private CobraTailFollower(boolean raw, long pollIntervalMs, long idleTimeoutMs, int checkpointFrames) {
+        this.raw = raw;
+        this.pollIntervalMs = pollIntervalMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.checkpointFrames = checkpointFrames;
+    }
+
+    /**
+     * Follows a growing recording until it is complete, stopped or idle. Resumes from the checkpoint
+     * if one exists.
+     *
+     * @param engine Engine (e.g. {@link Cobra}) used for detection. It should be freshly created or reset.
+     * @param input Recording being written.
+     * @param output File the probabilities are appended to.
+     * @param checkpoint File the progress is persisted to.
+     * @return Total number of frames in the output, including those processed before resuming.
+     * @throws CobraException if the input format is unsupported or there is an error while processing
+     *                        the audio.
+     * @throws IOException if accessing any of the files fails.
+     * @throws InterruptedException if interrupted while waiting for the input to grow.
+     */
+    public long follow(CobraEngine engine, File input, File output, File checkpoint)
+            throws CobraException, IOException, InterruptedException {
+        final int frameLength = engine.getFrameLength();
+        final int frameBytes = frameLength * 2;
+
+        long inputOffset = -1;
+        long outputPosition = 0;
+        if (checkpoint.exists()) {
+            long[] state = readCheckpoint(checkpoint);
+            inputOffset = state[0];
+            outputPosition = state[1];
+        }
+
+        try (FileInputStream inputStream = new FileInputStream(input);
+             RandomAccessFile outputFile = new RandomAccessFile(output, "rw")) {
+            FileChannel inputChannel = inputStream.getChannel();
+            FileChannel outputChannel = outputFile.getChannel();
+            if (outputChannel.size() < outputPosition) {
+                throw new IOException(String.format(
+                        "Output '%s' is shorter than its checkpoint '%s'.",
+                        output,
+                        checkpoint));
+            }
+            outputChannel.truncate(outputPosition);
+            outputChannel.position(outputPosition);
+
+            long dataOffset = raw ? 0 : -1;
+            long dataEnd = Long.MAX_VALUE;
+            long lastGrowth = System.currentTimeMillis();
+
+            ByteBuffer frameBuffer = ByteBuffer.allocate(frameBytes).order(ByteOrder.LITTLE_ENDIAN);
+            ShortBuffer frameSamples = frameBuffer.asShortBuffer();
+            ByteBuffer results = ByteBuffer.allocate(OUTPUT_BUFFER_FRAMES * 4).order(ByteOrder.LITTLE_ENDIAN);
+            short[] pcm = new short[frameLength];
+            int framesSinceCheckpoint = 0;
+
+            while (!stopped) {
+                if (dataOffset < 0) {
+                    inputChannel.position(0);
+                    CobraWav.Format format = tryReadHeader(inputChannel);
+                    if (format != null) {
+                        if (format.audioFormat != CobraWav.FORMAT_PCM ||
+                                format.channelCount != 1 ||
+                                format.bitsPerSample != 16 ||
+                                format.sampleRate != engine.getSampleRate()) {
+                            throw new CobraInvalidArgumentException(String.format(
+                                    "CobraTailFollower requires single-channel 16-bit PCM WAV at %dHz.",
+                                    engine.getSampleRate()));
+                        }
+                        dataOffset = format.dataOffset;
+                    }
+                }
+                if (dataOffset >= 0 && inputOffset < 0) {
+                    inputOffset = dataOffset;
+                }
+
+                boolean progress = false;
+                if (inputOffset >= 0) {
+                    long available = Math.min(inputChannel.size(), dataEnd);
+                    while (!stopped && available - inputOffset >= frameBytes) {
+                        frameBuffer.clear();
+                        while (frameBuffer.hasRemaining()) {
+                            if (inputChannel.read(frameBuffer, inputOffset + frameBuffer.position()) < 0) {
+                                throw new EOFException(String.format("'%s' was truncated while following.", input));
+                            }
+                        }
+                        frameSamples.rewind();
+                        frameSamples.get(pcm);
+                        results.putFloat(engine.process(pcm));
+                        inputOffset += frameBytes;
+                        progress = true;
+
+                        if (!results.hasRemaining()) {
+                            outputPosition += writeResults(outputChannel, results);
+                        }
+                        if (++framesSinceCheckpoint == checkpointFrames) {
+                            outputPosition += writeResults(outputChannel, results);
+                            writeCheckpoint(outputChannel, checkpoint, inputOffset, outputPosition);
+                            framesSinceCheckpoint = 0;
+                        }
+                    }
+                }
+
+                long now = System.currentTimeMillis();
+                if (progress) {
+                    lastGrowth = now;
+                    continue;
+                }
+                if (!raw && dataOffset >= 0 && dataEnd == Long.MAX_VALUE) {
+                    dataEnd = readFinalDataEnd(inputChannel, dataOffset);
+                }
+                if (inputOffset >= 0 && dataEnd - inputOffset < frameBytes) {
+                    break;
+                }
+                if (idleTimeoutMs > 0 && now - lastGrowth >= idleTimeoutMs) {
+                    break;
+                }
+                Thread.sleep(pollIntervalMs);
+            }
+
+            outputPosition += writeResults(outputChannel, results);
+            // without a data offset there is no position worth resuming from
+            if (inputOffset >= 0) {
+                writeCheckpoint(outputChannel, checkpoint, inputOffset, outputPosition);
+            }
+            return outputPosition / 4;
+        }
+    }
+
+    /**
+     * Makes a concurrent call to {@link #follow(CobraEngine, File, File, File)} checkpoint and return
+     * after its current frame. A stop is permanent: it also applies to calls that have not started
+     * yet, so resume with a new instance.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    private static CobraWav.Format tryReadHeader(FileChannel channel) throws IOException {
+        try {
+            return CobraWav.readHeader(channel);
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the data size from the WAV header, which writers typically patch when they finish.
+     *
+     * @return End of the audio data, or `Long.MAX_VALUE` if the writer has not finalized it yet.
+     */
+    private static long readFinalDataEnd(FileChannel channel, long dataOffset) throws IOException {
+        ByteBuffer size = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        while (size.hasRemaining()) {
+            if (channel.read(size, dataOffset - 4 + size.position()) < 0) {
+                return Long.MAX_VALUE;
+            }
+        }
+        long dataSize = size.getInt(0) & 0xFFFFFFFFL;
+        return dataSize == 0 || dataSize == 0xFFFFFFFFL ? Long.MAX_VALUE : dataOffset + dataSize;
+    }
+
+    private static int writeResults(FileChannel channel, ByteBuffer results) throws IOException {
+        results.flip();
+        int written = results.remaining();
+        while (results.hasRemaining()) {
+            channel.write(results);
+        }
+        results.clear();
+        return written;
+    }
+
+    private static long[] readCheckpoint(File checkpoint) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHECKPOINT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileInputStream stream = new FileInputStream(checkpoint)) {
+            FileChannel channel = stream.getChannel();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException(String.format("Checkpoint '%s' is truncated.", checkpoint));
+                }
+            }
+        }
+        if (buffer.getInt(0) != CHECKPOINT_MAGIC) {
+            throw new IOException(String.format("'%s' is not a CobraTailFollower checkpoint.", checkpoint));
+        }
+        return new long[]{buffer.getLong(4), buffer.getLong(12)};
+    }
+
+    private static void writeCheckpoint(FileChannel output, File checkpoint, long inputOffset, long outputPosition)
+            throws IOException {
+        // results must be durable before a checkpoint refers to them
+        output.force(false);
+
+        File temp = new File(checkpoint.getPath() + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocate(CHECKPOINT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(CHECKPOINT_MAGIC).putLong(inputOffset).putLong(outputPosition).flip();
+        try (FileOutputStream stream = new FileOutputStream(temp)) {
+            FileChannel channel = stream.getChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        if (!temp.renameTo(checkpoint)) {
+            throw new IOException(String.format("Failed to replace checkpoint '%s'.", checkpoint));
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraTailFollower with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private boolean raw = false;
+        private int pollIntervalMs = 100;
+        private int idleTimeoutMs = 0;
+        private int checkpointFrames = 32;
+
+        /**
+         * Setter for the input format.
+         *
+         * @param raw If true, the input is headerless 16-bit little-endian PCM at the engine's sample
+         *            rate. Otherwise it is a WAV file.
+         */
+        public Builder setRaw(boolean raw) {
+            this.raw = raw;
+            return this;
+        }
+
+        /**
+         * Setter for how often the input is checked for growth.
+         *
+         * @param pollIntervalMs Time in milliseconds between checks while no new frame is available.
+         */
+        public Builder setPollIntervalMs(int pollIntervalMs) {
+            this.pollIntervalMs = pollIntervalMs;
+            return this;
+        }
+
+        /**
+         * Setter for when an input that stopped growing is considered complete.
+         *
+         * @param idleTimeoutMs Time in milliseconds without growth after which following ends, or 0 to
+         *                      follow until stopped or until a WAV header is finalized.
+         */
+        public Builder setIdleTimeoutMs(int idleTimeoutMs) {
+            this.idleTimeoutMs = idleTimeoutMs;
+            return this;
+        }
+
+        /**
+         * Setter for how often progress is checkpointed.
+         *
+         * @param checkpointFrames Number of frames processed between checkpoints. Each checkpoint
+         *                         flushes the output to storage.
+         */
+        public Builder setCheckpointFrames(int checkpointFrames) {
+            this.checkpointFrames = checkpointFrames;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraTailFollower.
+         *
+         * @return An instance of CobraTailFollower
+         * @throws CobraException if the properties are invalid.
+         */
+        public CobraTailFollower build() throws CobraException {
+            if (pollIntervalMs <= 0) {
+                throw new CobraInvalidArgumentException("Poll interval must be a positive number of milliseconds.");
+            }
+            if (idleTimeoutMs < 0) {
+                throw new CobraInvalidArgumentException("Idle timeout cannot be negative.");
+            }
+            if (checkpointFrames <= 0) {
+                throw new CobraInvalidArgumentException("Checkpoint interval must be a positive number of frames.");
+            }
+
+            return new CobraTailFollower(raw, pollIntervalMs, idleTimeoutMs, checkpointFrames);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import android.os.Process;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *   Thread factory for inference workers that run {@link Cobra#process(short[])}. Workers are daemon
+ *   threads that raise their own priority to audio priority (or the priority set on the builder) when
+ *   they start, so that inference is scheduled ahead of regular application work.
+ *
+ *   <p>The factory does not pin workers to CPUs: the Android SDK offers no way to change the CPU
+ *   affinity of a thread, and the JNI layer of Cobra is part of the prebuilt native library. Where
+ *   workers run is left to the scheduler; {@link #getPlacements()} reports the CPU each live worker
+ *   last ran on, e.g. to check whether they end up on the big or LITTLE cores.
+ **/
+public class CobraThreadFactory implements ThreadFactory {
+
+    private static final String TAG = "CobraThreadFactory";
+
+    private final String namePrefix;
+    private final int priority;
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final List<Placement> placements = Collections.synchronizedList(new ArrayList<Placement>());
+
+    private CobraThreadFactory(String namePrefix, int priority) {
+        this.namePrefix = namePrefix;
+        this.priority = priority;
+    }
+
+    @Override
+    public Thread newThread(final Runnable r) {
+        int index = threadCount.getAndIncrement();
+        final Placement placement = new Placement(namePrefix + "-" + index);
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                placement.tid = Process.myTid();
+                try {
+                    Process.setThreadPriority(priority);
+                } catch (SecurityException e) {
+                    // the task still has to run; it does so at the inherited priority
+                    Log.w(TAG, "CobraThreadFactory could not set the worker priority.", e);
+                }
+                placements.add(placement);
+                try {
+                    r.run();
+                } finally {
+                    placements.remove(placement);
+                }
+            }
+        }, placement.threadName);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Getter for the placement of all live worker threads created by this factory.
+     *
+     * @return Snapshot of the worker placements.
+     */
+    public List<Placement> getPlacements() {
+        synchronized (placements) {
+            return new ArrayList<>(placements);
+        }
+    }
+
+    private static String readLine(File file) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            return reader.readLine();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Observed placement of a single worker thread.
+     */
+    public static class Placement {
+
+        private final String threadName;
+        private volatile int tid = 0;
+
+        Placement(String threadName) {
+            this.threadName = threadName;
+        }
+
+        /**
+         * Getter for the name of the worker thread.
+         *
+         * @return Thread name.
+         */
+        public String getThreadName() {
+            return threadName;
+        }
+
+        /**
+         * Getter for the Linux thread ID of the worker.
+         *
+         * @return Thread ID, or 0 if the worker has not started yet.
+         */
+        public int getTid() {
+            return tid;
+        }
+
+        /**
+         * Reads the CPU the worker last ran on from `/proc/self/task/[tid]/stat`.
+         *
+         * @return CPU index, or -1 if it could not be determined.
+         */
+        public int getLastCpu() {
+            if (tid == 0) {
+                return -1;
+            }
+            String stat = readLine(new File(String.format("/proc/self/task/%d/stat", tid)));
+            if (stat == null) {
+                return -1;
+            }
+            // fields after the parenthesised command name start at field 3; `processor` is field 39
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            if (fields.length <= 36) {
+                return -1;
+            }
+            try {
+                return Integer.parseInt(fields[36]);
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s tid=%d lastCpu=%d", threadName, tid, getLastCpu());
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraThreadFactory with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private String namePrefix = "CobraWorker";
+        private int priority = Process.THREAD_PRIORITY_AUDIO;
+
+        /**
+         * Setter for the worker thread name prefix.
+         *
+         * @param namePrefix Prefix of worker thread names. The worker index is appended.
+         */
+        public Builder setNamePrefix(String namePrefix) {
+            this.namePrefix = namePrefix;
+            return this;
+        }
+
+        /**
+         * Setter for the worker thread priority.
+         *
+         * @param priority Linux thread priority as accepted by {@link Process#setThreadPriority(int)},
+         *                from -20 (highest) to 19 (lowest).
+         */
+        public Builder setPriority(int priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraThreadFactory.
+         *
+         * @return An instance of CobraThreadFactory
+         * @throws CobraException if the properties are invalid.
+         */
+        public CobraThreadFactory build() throws CobraException {
+            if (namePrefix == null || namePrefix.isEmpty()) {
+                throw new CobraInvalidArgumentException("Thread name prefix cannot be empty.");
+            }
+            if (priority < -20 || priority > Process.THREAD_PRIORITY_LOWEST) {
+                throw new CobraInvalidArgumentException(
+                        String.format("Thread priority must be between -20 and %d.", Process.THREAD_PRIORITY_LOWEST));
+            }
+
+            return new CobraThreadFactory(namePrefix, priority);
+        }
+    }
+}
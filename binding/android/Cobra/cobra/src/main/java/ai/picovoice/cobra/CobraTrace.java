@@ -0,0 +1,88 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import android.os.Build;
+import android.os.Trace;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Emits Cobra events to the system trace (Perfetto / systrace), where they appear on the calling
+ * thread's timeline next to GC, JNI transitions and scheduling. Tracing is off by default and is
+ * enabled with {@link Cobra#setTracingEnabled(boolean)}. While it is off, every entry point returns
+ * after a single volatile read.
+ *
+ * <p>Sections need API 18, which is below the minimum supported level. Counters and the query of
+ * whether a trace is being recorded need API 29 and are skipped on older devices.
+ */
+final class CobraTrace {
+
+    // section names longer than this are rejected by the platform
+    private static final int MAX_NAME_LENGTH = 127;
+
+    private static final AtomicLong ERROR_COUNT = new AtomicLong();
+
+    private static volatile boolean enabled = false;
+
+    private CobraTrace() { }
+
+    static void setEnabled(boolean enabled) {
+        CobraTrace.enabled = enabled;
+    }
+
+    /**
+     * Opens a section on the calling thread if tracing is enabled and a trace is being recorded.
+     *
+     * @return Whether a section was opened and must be closed with {@link #endSection()}.
+     */
+    static boolean beginSection(String name) {
+        if (!isActive()) {
+            return false;
+        }
+        Trace.beginSection(name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name);
+        return true;
+    }
+
+    static void endSection() {
+        Trace.endSection();
+    }
+
+    static void counter(String name, long value) {
+        if (isActive() && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.setCounter(name, value);
+        }
+    }
+
+    /**
+     * Records an exception as an instant section named after its type and message stack depth, and
+     * bumps the cumulative `Cobra.errors` counter.
+     */
+    static void exception(CobraException e) {
+        if (!isActive()) {
+            return;
+        }
+        String[] messageStack = e.getMessageStack();
+        beginSection(String.format(
+                "%s depth=%d",
+                e.getClass().getSimpleName(),
+                messageStack != null ? messageStack.length : 0));
+        endSection();
+        counter("Cobra.errors", ERROR_COUNT.incrementAndGet());
+    }
+
+    private static boolean isActive() {
+        if (!enabled) {
+            return false;
+        }
+        return Build.VERSION.SDK_INT < Build.VERSION_CODES.Q || Trace.isEnabled();
+    }
+}
@@ -0,0 +1,360 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+/**
+ *   Engine that keeps a stream within real time by switching between engine configurations. It
+ *   tracks the real-time factor of every {@link #process(short[])} call (processing time divided by
+ *   the duration of the frame) as an exponentially weighted moving average. When the average exceeds
+ *   a threshold, the next configuration in an ordered list of candidates (e.g. {@link Cobra.Builder}s
+ *   for `cpu:1`, `cpu:2` and `gpu`) is created on a background thread while the current engine keeps
+ *   processing. The new engine takes over at the next frame boundary and the old one is released.
+ *
+ *   <p>The replacement engine starts without the temporal context of the stream, so probabilities
+ *   may briefly differ from those of an uninterrupted engine after a switch. Every switch, failed
+ *   switch and overload without a remaining candidate is reported to a {@link Listener}.
+ **/
+public class CobraWatchdog implements CobraEngine {
+
+    /**
+     * Receiver of watchdog events.
+     */
+    public interface Listener {
+
+        /**
+         * Called on the processing thread after a replacement engine has taken over.
+         *
+         * @param fromCandidate Index of the candidate that was replaced.
+         * @param toCandidate Index of the candidate now processing the stream.
+         * @param realTimeFactor Smoothed real-time factor that triggered the switch.
+         */
+        void onSwitch(int fromCandidate, int toCandidate, double realTimeFactor);
+
+        /**
+         * Called on the background thread if a replacement engine cannot be created. The candidate is
+         * skipped and the next one is tried if the stream stays over the threshold.
+         *
+         * @param candidate Index of the candidate that failed.
+         * @param e Error raised while creating the engine.
+         */
+        void onSwitchFailed(int candidate, CobraException e);
+
+        /**
+         * Called once on the processing thread when the stream exceeds the threshold and no
+         * candidate is left to switch to.
+         *
+         * @param candidate Index of the candidate processing the stream.
+         * @param realTimeFactor Smoothed real-time factor.
+         */
+        void onOverload(int candidate, double realTimeFactor);
+    }
+
+    private final CobraEngineFactory[] candidates;
+    private final double threshold;
+    private final double smoothing;
+    private final int warmupFrames;
+    private final Listener listener;
+    private final int frameLength;
+    private final int sampleRate;
+    private final long frameNanos;
+
+    private CobraEngine engine;
+    private int candidate = 0;
+    private double realTimeFactor = 0;
+    private long framesSinceSwitch = 0;
+    private boolean overloadReported = false;
+
+    private final Object lock = new Object();
+    private int nextCandidate = 1;
+    private boolean building = false;
+    private volatile CobraEngine pendingEngine = null;
+    private int pendingCandidate;
+    private boolean deleted = false;
+
+    private CobraWatchdog(
+            CobraEngineFactory[] candidates,
+            double threshold,
+            double smoothing,
+            int warmupFrames,
+            Listener listener) throws CobraException {
+        this.candidates = candidates;
+        this.threshold = threshold;
+        this.smoothing = smoothing;
+        this.warmupFrames = warmupFrames;
+        this.listener = listener;
+        this.engine = candidates[0].create();
+        this.frameLength = engine.getFrameLength();
+        this.sampleRate = engine.getSampleRate();
+        this.frameNanos = frameLength * 1000000000L / sampleRate;
+    }
+
+    @Override
+    public float process(short[] pcm) throws CobraException {
+        if (engine == null) {
+            throw new CobraInvalidStateException("Attempted to call CobraWatchdog process after delete.");
+        }
+        if (pendingEngine != null) {
+            adoptPendingEngine();
+        }
+
+        long start = System.nanoTime();
+        float probability = engine.process(pcm);
+        double sample = (double) (System.nanoTime() - start) / frameNanos;
+
+        framesSinceSwitch++;
+        realTimeFactor = framesSinceSwitch == 1 ? sample : realTimeFactor + smoothing * (sample - realTimeFactor);
+        if (framesSinceSwitch >= warmupFrames && realTimeFactor > threshold) {
+            escalate();
+        }
+        return probability;
+    }
+
+    @Override
+    public void reset() throws CobraException {
+        if (engine == null) {
+            throw new CobraInvalidStateException("Attempted to call CobraWatchdog reset after delete.");
+        }
+        engine.reset();
+    }
+
+    @Override
+    public int getFrameLength() {
+        return frameLength;
+    }
+
+    @Override
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public String getVersion() {
+        return engine != null ? engine.getVersion() : "";
+    }
+
+    /**
+     * Getter for the index of the candidate currently processing the stream.
+     *
+     * @return Index into the candidates passed to {@link Builder#setCandidates(CobraEngineFactory...)}.
+     */
+    public int getCandidateIndex() {
+        return candidate;
+    }
+
+    /**
+     * Getter for the smoothed real-time factor of the current engine.
+     *
+     * @return Processing time divided by audio duration. Values above 1 mean the stream falls behind.
+     */
+    public double getRealTimeFactor() {
+        return realTimeFactor;
+    }
+
+    @Override
+    public void delete() {
+        synchronized (lock) {
+            deleted = true;
+            if (pendingEngine != null) {
+                pendingEngine.delete();
+                pendingEngine = null;
+            }
+        }
+        if (engine != null) {
+            engine.delete();
+            engine = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        delete();
+    }
+
+    private void escalate() {
+        final int target;
+        synchronized (lock) {
+            if (building || pendingEngine != null) {
+                return;
+            }
+            target = nextCandidate < candidates.length ? nextCandidate++ : -1;
+            building = target >= 0;
+        }
+        if (target < 0) {
+            if (!overloadReported) {
+                overloadReported = true;
+                if (listener != null) {
+                    listener.onOverload(candidate, realTimeFactor);
+                }
+            }
+            return;
+        }
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                CobraEngine replacement = null;
+                CobraException error = null;
+                try {
+                    replacement = candidates[target].create();
+                    if (replacement.getFrameLength() != frameLength || replacement.getSampleRate() != sampleRate) {
+                        replacement.delete();
+                        replacement = null;
+                        error = new CobraInvalidArgumentException(String.format(
+                                "CobraWatchdog candidate %d has a different frame length or sample rate.",
+                                target));
+                    }
+                } catch (CobraException e) {
+                    error = e;
+                }
+
+                synchronized (lock) {
+                    building = false;
+                    if (replacement != null) {
+                        if (deleted) {
+                            replacement.delete();
+                        } else {
+                            pendingCandidate = target;
+                            pendingEngine = replacement;
+                        }
+                    }
+                }
+                if (error != null && listener != null) {
+                    listener.onSwitchFailed(target, error);
+                }
+            }
+        }, "CobraWatchdog-" + target);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void adoptPendingEngine() {
+        CobraEngine previous = engine;
+        int previousCandidate = candidate;
+        synchronized (lock) {
+            engine = pendingEngine;
+            candidate = pendingCandidate;
+            pendingEngine = null;
+        }
+        previous.delete();
+
+        double triggeringFactor = realTimeFactor;
+        realTimeFactor = 0;
+        framesSinceSwitch = 0;
+        if (listener != null) {
+            listener.onSwitch(previousCandidate, candidate, triggeringFactor);
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraWatchdog with a mixture of default arguments.
+     */
+    public static class Builder implements CobraEngineFactory {
+
+        private CobraEngineFactory[] candidates = null;
+        private double threshold = 0.8;
+        private double smoothing = 0.05;
+        private int warmupFrames = 32;
+        private Listener listener = null;
+
+        /**
+         * Setter for the engine configurations to switch between.
+         *
+         * @param candidates Engine factories in order of preference. The first is used initially and
+         *                   the watchdog moves down the list whenever the stream falls behind.
+         */
+        public Builder setCandidates(CobraEngineFactory... candidates) {
+            this.candidates = candidates;
+            return this;
+        }
+
+        /**
+         * Setter for the real-time factor threshold.
+         *
+         * @param threshold Smoothed real-time factor above which the next candidate is tried. Values
+         *                  below 1 leave headroom for scheduling jitter.
+         */
+        public Builder setThreshold(double threshold) {
+            this.threshold = threshold;
+            return this;
+        }
+
+        /**
+         * Setter for the smoothing of the real-time factor.
+         *
+         * @param smoothing Weight of the latest frame in the moving average, within (0, 1].
+         */
+        public Builder setSmoothing(double smoothing) {
+            this.smoothing = smoothing;
+            return this;
+        }
+
+        /**
+         * Setter for the number of frames an engine processes before it can be replaced.
+         *
+         * @param warmupFrames Number of frames. This also keeps the slow first calls of a new engine
+         *                     from triggering another switch.
+         */
+        public Builder setWarmupFrames(int warmupFrames) {
+            this.warmupFrames = warmupFrames;
+            return this;
+        }
+
+        /**
+         * Setter for the receiver of watchdog events.
+         *
+         * @param listener Listener, or null to ignore events.
+         */
+        public Builder setListener(Listener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraWatchdog with an engine of the first
+         * candidate.
+         *
+         * @return An instance of CobraWatchdog
+         * @throws CobraException if the properties are invalid or the first engine cannot be created.
+         */
+        public CobraWatchdog build() throws CobraException {
+            if (candidates == null || candidates.length == 0) {
+                throw new CobraInvalidArgumentException("No candidates were provided to CobraWatchdog.");
+            }
+            for (CobraEngineFactory candidate : candidates) {
+                if (candidate == null) {
+                    throw new CobraInvalidArgumentException("CobraWatchdog candidates cannot be null.");
+                }
+            }
+            if (!(threshold > 0)) {
+                throw new CobraInvalidArgumentException("Real-time factor threshold must be positive.");
+            }
+            if (!(smoothing > 0 && smoothing <= 1)) {
+                throw new CobraInvalidArgumentException("Smoothing must be within (0, 1].");
+            }
+            if (warmupFrames < 1) {
+                throw new CobraInvalidArgumentException("Number of warm-up frames must be positive.");
+            }
+
+            return new CobraWatchdog(candidates.clone(), threshold, smoothing, warmupFrames, listener);
+        }
+
+        /**
+         * Creates an instance of CobraWatchdog. Equivalent to {@link #build()}.
+         *
+         * @return An instance of CobraWatchdog
+         * @throws CobraException if the properties are invalid or the first engine cannot be created.
+         */
+        @Override
+        public CobraWatchdog create() throws CobraException {
+            return build();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Minimal RIFF/WAVE reader and writer used by the file processing utilities.
+ */
+final class CobraWav {
+
+    static final int FORMAT_PCM = 1;
+    static final int FORMAT_ALAW = 6;
+    static final int FORMAT_MULAW = 7;
+    static final int FORMAT_EXTENSIBLE = 0xFFFE;
+
+    static final int HEADER_SIZE = 44;
+
+    private static final int RIFF = 0x46464952;
+    private static final int WAVE = 0x45564157;
+    private static final int FMT = 0x20746d66;
+    private static final int DATA = 0x61746164;
+
+    private CobraWav() { }
+
+    /**
+     * Reads the header of a WAV file up to the start of its `data` chunk. Unknown chunks (e.g.
+     * `LIST`) are skipped. On return the channel is positioned at the first audio sample.
+     */
+    static Format readHeader(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+
+        readFully(channel, buffer, 12);
+        if (buffer.getInt(0) != RIFF || buffer.getInt(8) != WAVE) {
+            throw new IOException("Not a RIFF/WAVE file.");
+        }
+        long offset = 12;
+
+        Format format = null;
+        while (true) {
+            readFully(channel, buffer, 8);
+            int chunkId = buffer.getInt(0);
+            long chunkSize = buffer.getInt(4) & 0xFFFFFFFFL;
+            offset += 8;
+
+            if (chunkId == DATA) {
+                if (format == null) {
+                    throw new IOException("WAV `data` chunk precedes `fmt ` chunk.");
+                }
+                format.dataOffset = offset;
+                format.dataSize = chunkSize;
+                return format;
+            }
+
+            if (chunkId == FMT) {
+                if (chunkSize < 16 || chunkSize > buffer.capacity()) {
+                    throw new IOException(String.format("Invalid WAV `fmt ` chunk size %d.", chunkSize));
+                }
+                readFully(channel, buffer, (int) chunkSize);
+                format = new Format();
+                format.audioFormat = buffer.getShort(0) & 0xFFFF;
+                format.channelCount = buffer.getShort(2) & 0xFFFF;
+                format.sampleRate = buffer.getInt(4);
+                format.bitsPerSample = buffer.getShort(14) & 0xFFFF;
+                if (format.audioFormat == FORMAT_EXTENSIBLE && chunkSize >= 26) {
+                    format.audioFormat = buffer.getShort(24) & 0xFFFF;
+                }
+            } else {
+                skipFully(channel, buffer, chunkSize);
+            }
+            offset += chunkSize;
+
+            if ((chunkSize & 1) != 0) {
+                readFully(channel, buffer, 1);
+                offset++;
+            }
+        }
+    }
+
+    /**
+     * Writes a canonical 44-byte PCM WAV header.
+     */
+    static void writeHeader(
+            WritableByteChannel channel,
+            int sampleRate,
+            int channelCount,
+            int bitsPerSample,
+            long dataSize) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        int blockAlign = channelCount * bitsPerSample / 8;
+        header.putInt(RIFF)
+                .putInt((int) (36 + dataSize))
+                .putInt(WAVE)
+                .putInt(FMT)
+                .putInt(16)
+                .putShort((short) FORMAT_PCM)
+                .putShort((short) channelCount)
+                .putInt(sampleRate)
+                .putInt(sampleRate * blockAlign)
+                .putShort((short) blockAlign)
+                .putShort((short) bitsPerSample)
+                .putInt(DATA)
+                .putInt((int) dataSize);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer, int length) throws IOException {
+        buffer.clear().limit(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of WAV header.");
+            }
+        }
+    }
+
+    private static void skipFully(ReadableByteChannel channel, ByteBuffer buffer, long length) throws IOException {
+        while (length > 0) {
+            int n = (int) Math.min(length, buffer.capacity());
+            readFully(channel, buffer, n);
+            length -= n;
+        }
+    }
+
+    /**
+     * Format of a WAV file as described by its `fmt ` chunk.
+     */
+    static final class Format {
+        int audioFormat;
+        int channelCount;
+        int sampleRate;
+        int bitsPerSample;
+        long dataOffset;
+        long dataSize;
+
+        /**
+         * Number of audio bytes to read. Streaming writers leave the data size at 0 or its maximum until
+         * the recording ends, in which case the audio extends to the end of the file.
+         */
+        long getAudioBytes() {
+            return dataSize != 0 && dataSize != 0xFFFFFFFFL ? dataSize : Long.MAX_VALUE;
+        }
+    }
+}
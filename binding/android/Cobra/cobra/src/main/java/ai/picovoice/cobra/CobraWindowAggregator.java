@@ -0,0 +1,204 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+/**
+ *   Folds the per-frame probabilities of a stream into fixed-length time windows (e.g. one second or
+ *   one minute) and emits a {@link CobraWindowSummary} for each, so that analytics can ship a few
+ *   numbers per window instead of every probability. Frames are assigned to windows by their start
+ *   time, so windows of any length line up across streams even when they are not a whole number of
+ *   frames. Onsets are tracked across window boundaries.
+ *
+ *   <p>The aggregator reuses a single summary and does not allocate after construction. The summary
+ *   passed to the listener is only valid for the duration of the callback; use
+ *   {@link CobraWindowSummary#copyFrom(CobraWindowSummary)} or
+ *   {@link CobraWindowSummary#merge(CobraWindowSummary)} to retain it.
+ **/
+public class CobraWindowAggregator {
+
+    /**
+     * Receiver of window summaries. Callbacks are invoked on the thread that adds the probabilities.
+     */
+    public interface Listener {
+
+        /**
+         * Called when a window is complete.
+         *
+         * @param summary Summary of the window. It is reused after the callback returns.
+         */
+        void onWindow(CobraWindowSummary summary);
+    }
+
+    private final long windowMs;
+    private final long frameLength;
+    private final long sampleRate;
+    private final float threshold;
+    private final Listener listener;
+    private final CobraWindowSummary summary;
+
+    private long frameIndex = 0;
+    private long windowIndex = 0;
+    private boolean wasVoiced = false;
+
+    private CobraWindowAggregator(
+            long windowMs,
+            int frameLength,
+            int sampleRate,
+            float threshold,
+            int numBins,
+            Listener listener) throws CobraException {
+        this.windowMs = windowMs;
+        this.frameLength = frameLength;
+        this.sampleRate = sampleRate;
+        this.threshold = threshold;
+        this.listener = listener;
+        this.summary = new CobraWindowSummary(numBins);
+        summary.clear(0, (int) windowMs);
+    }
+
+    /**
+     * Adds the probability of the next frame of the stream. Completes the current window first if
+     * the frame starts after it.
+     *
+     * @param probability Probability of voice activity as returned by {@link CobraEngine#process(short[])}.
+     */
+    public void add(float probability) {
+        long frameStartMs = frameIndex * frameLength * 1000 / sampleRate;
+        long frameWindow = frameStartMs / windowMs;
+        while (windowIndex < frameWindow) {
+            emit();
+            windowIndex++;
+            summary.clear(windowIndex * windowMs, (int) windowMs);
+        }
+
+        boolean voiced = probability >= threshold;
+        summary.add(probability, voiced, voiced && !wasVoiced);
+        wasVoiced = voiced;
+        frameIndex++;
+    }
+
+    /**
+     * Emits the current, possibly partial, window if it contains any frames. Call this at the end of
+     * the stream.
+     */
+    public void flush() {
+        if (summary.getFrameCount() > 0) {
+            emit();
+            summary.clear(windowIndex * windowMs, (int) windowMs);
+        }
+    }
+
+    /**
+     * Discards the current window and restarts windowing at time zero, e.g. for a new stream.
+     */
+    public void reset() {
+        frameIndex = 0;
+        windowIndex = 0;
+        wasVoiced = false;
+        summary.clear(0, (int) windowMs);
+    }
+
+    private void emit() {
+        listener.onWindow(summary);
+    }
+
+    /**
+     * Builder for creating an instance of CobraWindowAggregator with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private int windowMs = 1000;
+        private int frameLength = 0;
+        private int sampleRate = 0;
+        private float threshold = 0.5f;
+        private int numBins = 10;
+        private Listener listener = null;
+
+        /**
+         * Setter for the length of a window.
+         *
+         * @param windowMs Length of a window in milliseconds. Must be at least the duration of a frame.
+         */
+        public Builder setWindowMs(int windowMs) {
+            this.windowMs = windowMs;
+            return this;
+        }
+
+        /**
+         * Setter for the engine that produces the probabilities.
+         *
+         * @param engine Engine whose frame length and sample rate determine the timing of frames.
+         */
+        public Builder setEngine(CobraEngine engine) {
+            this.frameLength = engine.getFrameLength();
+            this.sampleRate = engine.getSampleRate();
+            return this;
+        }
+
+        /**
+         * Setter for the voice activity threshold.
+         *
+         * @param threshold Probability at or above which a frame counts as voiced.
+         */
+        public Builder setThreshold(float threshold) {
+            this.threshold = threshold;
+            return this;
+        }
+
+        /**
+         * Setter for the resolution of the probability histogram.
+         *
+         * @param numBins Number of equally sized histogram bins over [0, 1].
+         */
+        public Builder setNumBins(int numBins) {
+            this.numBins = numBins;
+            return this;
+        }
+
+        /**
+         * Setter for the receiver of window summaries.
+         *
+         * @param listener Listener.
+         */
+        public Builder setListener(Listener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraWindowAggregator.
+         *
+         * @return An instance of CobraWindowAggregator
+         * @throws CobraException if the properties are invalid.
+         */
+        public CobraWindowAggregator build() throws CobraException {
+            if (windowMs <= 0) {
+                throw new CobraInvalidArgumentException("Window length must be a positive number of milliseconds.");
+            }
+            if (frameLength <= 0 || sampleRate <= 0) {
+                throw new CobraInvalidArgumentException("No engine was provided to CobraWindowAggregator.");
+            }
+            if ((long) windowMs * sampleRate < (long) frameLength * 1000) {
+                throw new CobraInvalidArgumentException(String.format(
+                        "Window length must be at least one frame (%.1fms).",
+                        frameLength * 1000.0 / sampleRate));
+            }
+            if (!(threshold >= 0 && threshold <= 1)) {
+                throw new CobraInvalidArgumentException("Threshold must be within [0, 1].");
+            }
+            if (listener == null) {
+                throw new CobraInvalidArgumentException("No listener was provided to CobraWindowAggregator.");
+            }
+
+            return new CobraWindowAggregator(windowMs, frameLength, sampleRate, threshold, numBins, listener);
+        }
+    }
+}
@@ -0,0 +1,379 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ *   Fixed-size summary of the probabilities of voice activity within a time window: frame count,
+ *   mean, maximum, fraction of voiced frames, number of onsets (transitions into voice activity) and
+ *   a histogram of probabilities. Summaries of the same window from different streams or devices can
+ *   be merged, and a summary serializes to a compact record for shipping.
+ *
+ *   <p>The serialized record stores integers as variable-length quantities, the mean and maximum as
+ *   16-bit fractions and the histogram as 8- or 16-bit counts. Counts beyond 16 bits are scaled down
+ *   by a power of two, so deserialized histograms of very long or merged windows are approximate. A
+ *   one-second window of 32 ms frames with 10 bins takes about 25 bytes instead of 125 bytes of raw
+ *   probabilities (5x), and a one-minute window about 30 bytes instead of 7.5 KB (250x); windows of
+ *   seven seconds or more are at least 30x smaller.
+ *
+ *   <p>Summaries are mutable so that they can be reused without allocation.
+ **/
+public class CobraWindowSummary {
+
+    private static final int FRACTION_SCALE = 0xFFFF;
+    private static final int WIDE_BINS = 0x80;
+
+    private long startMs = 0;
+    private int durationMs = 0;
+    private int frameCount = 0;
+    private double sum = 0;
+    private float max = 0;
+    private int voicedCount = 0;
+    private int onsetCount = 0;
+    private final int[] histogram;
+
+    /**
+     * Constructor.
+     *
+     * @param numBins Number of equally sized histogram bins over [0, 1].
+     * @throws CobraException if the number of bins is not positive.
+     */
+    public CobraWindowSummary(int numBins) throws CobraException {
+        if (numBins <= 0 || numBins > Short.MAX_VALUE) {
+            throw new CobraInvalidArgumentException(String.format("Invalid number of histogram bins %d.", numBins));
+        }
+        this.histogram = new int[numBins];
+    }
+
+    /**
+     * Getter for the start of the window.
+     *
+     * @return Start of the window in milliseconds since the start of the stream.
+     */
+    public long getStartMs() {
+        return startMs;
+    }
+
+    /**
+     * Getter for the length of the window.
+     *
+     * @return Length of the window in milliseconds.
+     */
+    public int getDurationMs() {
+        return durationMs;
+    }
+
+    /**
+     * Getter for the number of frames summarized.
+     *
+     * @return Number of frames.
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Getter for the mean probability.
+     *
+     * @return Mean probability of voice activity, or 0 if the summary is empty.
+     */
+    public float getMean() {
+        return frameCount > 0 ? (float) (sum / frameCount) : 0;
+    }
+
+    /**
+     * Getter for the maximum probability.
+     *
+     * @return Maximum probability of voice activity, or 0 if the summary is empty.
+     */
+    public float getMax() {
+        return max;
+    }
+
+    /**
+     * Getter for the fraction of voiced frames.
+     *
+     * @return Fraction of frames at or above the voice activity threshold, or 0 if the summary is empty.
+     */
+    public float getVoicedRatio() {
+        return frameCount > 0 ? (float) voicedCount / frameCount : 0;
+    }
+
+    /**
+     * Getter for the number of onsets.
+     *
+     * @return Number of frames at or above the voice activity threshold that follow a frame below it.
+     */
+    public int getOnsetCount() {
+        return onsetCount;
+    }
+
+    /**
+     * Getter for the number of histogram bins.
+     *
+     * @return Number of bins.
+     */
+    public int getNumBins() {
+        return histogram.length;
+    }
+
+    /**
+     * Getter for the count of a histogram bin.
+     *
+     * @param bin Index of the bin. Bin `b` counts probabilities within [b / numBins, (b + 1) / numBins).
+     * @return Number of frames in the bin.
+     */
+    public int getBinCount(int bin) {
+        return histogram[bin];
+    }
+
+    /**
+     * Adds the frames of another summary to this one. The summaries should describe the same window,
+     * e.g. of different streams.
+     *
+     * @param other Summary to merge into this one.
+     * @throws CobraException if the summaries have different numbers of bins.
+     */
+    public void merge(CobraWindowSummary other) throws CobraException {
+        if (other.histogram.length != histogram.length) {
+            throw new CobraInvalidArgumentException("Cannot merge window summaries with different histograms.");
+        }
+        if (frameCount == 0) {
+            startMs = other.startMs;
+            durationMs = other.durationMs;
+            max = other.max;
+        } else if (other.frameCount > 0) {
+            max = Math.max(max, other.max);
+        }
+        frameCount += other.frameCount;
+        sum += other.sum;
+        voicedCount += other.voicedCount;
+        onsetCount += other.onsetCount;
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] += other.histogram[i];
+        }
+    }
+
+    /**
+     * Copies another summary into this one.
+     *
+     * @param other Summary to copy.
+     * @throws CobraException if the summaries have different numbers of bins.
+     */
+    public void copyFrom(CobraWindowSummary other) throws CobraException {
+        clear(0, 0);
+        merge(other);
+        startMs = other.startMs;
+        durationMs = other.durationMs;
+    }
+
+    /**
+     * Getter for the size of the serialized summary. The size depends on the contents of the summary.
+     *
+     * @return Number of bytes written by {@link #writeTo(ByteBuffer)}.
+     */
+    public int getSerializedSize() {
+        return varLength(startMs) +
+                varLength(durationMs) +
+                varLength(frameCount) +
+                varLength(voicedCount) +
+                varLength(onsetCount) +
+                varLength(histogram.length) +
+                2 + 2 + 1 +
+                (maxBinCount() > 0xFF ? 2 : 1) * histogram.length;
+    }
+
+    /**
+     * Serializes the summary at the buffer's position.
+     *
+     * @param buffer Destination with at least {@link #getSerializedSize()} bytes remaining.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        putVar(buffer, startMs);
+        putVar(buffer, durationMs);
+        putVar(buffer, frameCount);
+        putVar(buffer, voicedCount);
+        putVar(buffer, onsetCount);
+        putVar(buffer, histogram.length);
+        buffer.putShort((short) toFraction(getMean()));
+        buffer.putShort((short) toFraction(max));
+
+        int shift = binShift();
+        boolean wide = maxBinCount() > 0xFF;
+        buffer.put((byte) (shift | (wide ? WIDE_BINS : 0)));
+        for (int count : histogram) {
+            int scaled = shift > 0 ? (int) (((long) count + (1L << (shift - 1))) >> shift) : count;
+            if (wide) {
+                buffer.putShort((short) Math.min(scaled, 0xFFFF));
+            } else {
+                buffer.put((byte) scaled);
+            }
+        }
+        buffer.order(order);
+    }
+
+    /**
+     * Replaces this summary with one serialized by {@link #writeTo(ByteBuffer)}.
+     *
+     * @param buffer Source positioned at a serialized summary.
+     * @throws CobraException if the serialized summary is malformed or has a different number of bins.
+     */
+    public void readFrom(ByteBuffer buffer) throws CobraException {
+        ByteOrder order = buffer.order();
+        int position = buffer.position();
+        boolean complete = false;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            long startMs = getVar(buffer);
+            int durationMs = (int) getVar(buffer);
+            int frameCount = (int) getVar(buffer);
+            int voicedCount = (int) getVar(buffer);
+            int onsetCount = (int) getVar(buffer);
+            long numBins = getVar(buffer);
+            if (numBins != histogram.length) {
+                throw new CobraInvalidArgumentException(String.format(
+                        "Serialized window summary has %d bins instead of %d.",
+                        numBins,
+                        histogram.length));
+            }
+            float mean = fromFraction(buffer.getShort());
+            float max = fromFraction(buffer.getShort());
+            int binFormat = buffer.get() & 0xFF;
+            int shift = binFormat & ~WIDE_BINS;
+            boolean wide = (binFormat & WIDE_BINS) != 0;
+            if (shift > 31 - 16) {
+                throw new CobraInvalidArgumentException("Serialized window summary has an invalid histogram scale.");
+            }
+            if (buffer.remaining() < (wide ? 2 : 1) * histogram.length) {
+                throw new BufferUnderflowException();
+            }
+
+            this.startMs = startMs;
+            this.durationMs = durationMs;
+            this.frameCount = frameCount;
+            this.sum = (double) mean * frameCount;
+            this.max = max;
+            this.voicedCount = voicedCount;
+            this.onsetCount = onsetCount;
+            for (int i = 0; i < histogram.length; i++) {
+                int scaled = wide ? buffer.getShort() & 0xFFFF : buffer.get() & 0xFF;
+                histogram[i] = scaled << shift;
+            }
+            complete = true;
+        } catch (BufferUnderflowException e) {
+            throw new CobraInvalidArgumentException("Serialized window summary is truncated.");
+        } finally {
+            if (!complete) {
+                buffer.position(position);
+            }
+            buffer.order(order);
+        }
+    }
+
+    private int maxBinCount() {
+        int maxCount = 0;
+        for (int count : histogram) {
+            maxCount = Math.max(maxCount, count);
+        }
+        return maxCount;
+    }
+
+    // smallest power of two that scales every bin count into 16 bits
+    private int binShift() {
+        int maxCount = maxBinCount();
+        int shift = 0;
+        while ((maxCount >> shift) > 0xFFFF) {
+            shift++;
+        }
+        return shift;
+    }
+
+    private static int toFraction(float value) {
+        return Math.round(Math.min(Math.max(value, 0.f), 1.f) * FRACTION_SCALE);
+    }
+
+    private static float fromFraction(short value) {
+        return (float) (value & 0xFFFF) / FRACTION_SCALE;
+    }
+
+    private static int varLength(long value) {
+        int length = 1;
+        while ((value >>>= 7) != 0) {
+            length++;
+        }
+        return length;
+    }
+
+    private static void putVar(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVar(ByteBuffer buffer) throws CobraException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new CobraInvalidArgumentException("Serialized window summary has an invalid integer.");
+    }
+
+    void clear(long startMs, int durationMs) {
+        this.startMs = startMs;
+        this.durationMs = durationMs;
+        frameCount = 0;
+        sum = 0;
+        max = 0;
+        voicedCount = 0;
+        onsetCount = 0;
+        Arrays.fill(histogram, 0);
+    }
+
+    void add(float probability, boolean voiced, boolean onset) {
+        max = frameCount == 0 ? probability : Math.max(max, probability);
+        frameCount++;
+        sum += probability;
+        if (voiced) {
+            voicedCount++;
+        }
+        if (onset) {
+            onsetCount++;
+        }
+        int bin = (int) (probability * histogram.length);
+        histogram[Math.min(Math.max(bin, 0), histogram.length - 1)]++;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "start=%dms duration=%dms frames=%d mean=%.3f max=%.3f voiced=%.3f onsets=%d histogram=%s",
+                startMs,
+                durationMs,
+                frameCount,
+                getMean(),
+                max,
+                getVoicedRatio(),
+                onsetCount,
+                Arrays.toString(histogram));
+    }
+}
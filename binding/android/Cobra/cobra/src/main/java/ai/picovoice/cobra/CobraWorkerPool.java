@@ -0,0 +1,717 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.content.ServiceConnection;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.IBinder;
+import android.os.Looper;
+import android.os.Message;
+import android.os.Messenger;
+import android.os.RemoteException;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ *   Runs Cobra engines in a pool of worker processes, so that a fault in native code terminates a
+ *   worker instead of the application. Engines created by the pool are proxies that implement
+ *   {@link CobraEngine}; each is placed on the least loaded worker. Frames and results are exchanged
+ *   through memory shared with the worker, and only a short message crosses the process boundary per
+ *   frame.
+ *
+ *   <p>When a worker dies, Android restarts it and the pool reconnects. Engines that lived on it are
+ *   recreated on any worker that is available, and a frame in flight is processed again, so callers do
+ *   not observe the crash apart from the engine's internal state starting afresh. A frame whose
+ *   processing kills a worker twice in a row fails with {@link CobraIOException}.
+ *
+ *   <p>Connections to the workers are delivered on the main thread, so the pool must be built on
+ *   another thread. Only one pool can exist at a time because the worker processes are declared
+ *   statically in the library manifest.
+ **/
+public class CobraWorkerPool implements CobraEngineFactory {
+
+    private static final String TAG = "CobraWorkerPool";
+
+    private static final int MAX_FRAME_LENGTH = 4096;
+    private static final int SLOT_BYTES = CobraWorkerService.SLOT_PCM_OFFSET + 2 * MAX_FRAME_LENGTH;
+    private static final int MAX_ATTEMPTS = 2;
+
+    private static final AtomicBoolean ACTIVE = new AtomicBoolean(false);
+
+    private final Context context;
+    private final String accessKey;
+    private final String device;
+    private final int slotsPerWorker;
+    private final long timeoutMs;
+    private final HandlerThread replyThread;
+    private final Worker[] workers;
+
+    // guarded by this
+    private boolean deleted = false;
+    private int restartCount = 0;
+
+    private CobraWorkerPool(
+            Context context,
+            String accessKey,
+            String device,
+            int numWorkers,
+            int slotsPerWorker,
+            long timeoutMs) throws CobraException {
+        this.context = context;
+        this.accessKey = accessKey;
+        this.device = device;
+        this.slotsPerWorker = slotsPerWorker;
+        this.timeoutMs = timeoutMs;
+        this.replyThread = new HandlerThread(TAG);
+        this.workers = new Worker[numWorkers];
+
+        replyThread.start();
+        try {
+            for (int i = 0; i < numWorkers; i++) {
+                workers[i] = new Worker(i);
+            }
+            for (Worker worker : workers) {
+                Intent intent = new Intent(context, CobraWorkerService.WORKERS[worker.index]);
+                if (!context.bindService(intent, worker, Context.BIND_AUTO_CREATE | Context.BIND_IMPORTANT)) {
+                    throw new CobraIOException(String.format(
+                            "Failed to bind CobraWorkerService worker %d. Is it declared in the manifest?",
+                            worker.index));
+                }
+                worker.bound = true;
+            }
+            awaitWorkers();
+        } catch (CobraException e) {
+            delete();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates an engine in one of the worker processes.
+     *
+     * @return Proxy of the engine.
+     * @throws CobraException if no worker becomes available in time or the engine cannot be created.
+     */
+    @Override
+    public CobraEngine create() throws CobraException {
+        RemoteEngine engine = new RemoteEngine();
+        engine.attach();
+        return engine;
+    }
+
+    /**
+     * Getter for the process IDs of the workers, e.g. for monitoring.
+     *
+     * @return Process ID of each worker, or 0 for a worker that is not connected.
+     */
+    public synchronized int[] getWorkerPids() {
+        int[] pids = new int[workers.length];
+        for (int i = 0; i < workers.length; i++) {
+            pids[i] = workers[i].ready ? workers[i].pid : 0;
+        }
+        return pids;
+    }
+
+    /**
+     * Getter for the number of times a worker process has died and been reconnected.
+     *
+     * @return Number of worker restarts.
+     */
+    public synchronized int getRestartCount() {
+        return restartCount;
+    }
+
+    /**
+     * Unbinds the worker processes, which terminates them. Engines created by the pool stop working.
+     */
+    public void delete() {
+        synchronized (this) {
+            if (deleted) {
+                return;
+            }
+            deleted = true;
+            for (Worker worker : workers) {
+                if (worker == null) {
+                    continue;
+                }
+                worker.messenger = null;
+                worker.ready = false;
+                worker.generation++;
+            }
+            notifyAll();
+        }
+        for (Worker worker : workers) {
+            if (worker == null) {
+                continue;
+            }
+            if (worker.bound) {
+                context.unbindService(worker);
+            }
+            worker.notifyEngines();
+            if (!worker.sharedFile.delete()) {
+                Log.w(TAG, "Failed to delete " + worker.sharedFile);
+            }
+        }
+        replyThread.quit();
+        ACTIVE.set(false);
+    }
+
+    private synchronized void awaitWorkers() throws CobraException {
+        long deadline = System.nanoTime() + timeoutMs * 1000000L;
+        for (Worker worker : workers) {
+            while (!worker.ready) {
+                awaitUntil(deadline, "CobraWorkerPool workers did not start in time.");
+            }
+        }
+    }
+
+    private void awaitUntil(long deadline, String timeoutMessage) throws CobraException {
+        long remainingMs = (deadline - System.nanoTime()) / 1000000L;
+        if (remainingMs <= 0) {
+            throw new CobraIOException(timeoutMessage);
+        }
+        try {
+            wait(remainingMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CobraIOException(e);
+        }
+    }
+
+    private static CobraException remoteException(String type, String message, String[] messageStack) {
+        try {
+            // engine exceptions are kept with their constructors for the native layer, see consumer-rules.pro
+            return (CobraException) Class.forName(CobraException.class.getPackage().getName() + "." + type)
+                    .getConstructor(String.class, String[].class)
+                    .newInstance(message, messageStack);
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            return new CobraException(message, messageStack);
+        }
+    }
+
+    /**
+     * Connection to a worker process and its shared memory.
+     */
+    private final class Worker implements ServiceConnection {
+
+        private final int index;
+        private final File sharedFile;
+        private final ByteBuffer shared;
+        private final Messenger replyMessenger;
+        private final RemoteEngine[] slots = new RemoteEngine[slotsPerWorker];
+
+        // guarded by the pool
+        private Messenger messenger;
+        private boolean bound = false;
+        private boolean ready = false;
+        private int pid = 0;
+        private int used = 0;
+        private volatile int generation = 0;
+
+        Worker(int index) throws CobraException {
+            this.index = index;
+            this.sharedFile = new File(context.getCacheDir(), String.format("cobra_worker_%d.shm", index));
+            try (RandomAccessFile file = new RandomAccessFile(sharedFile, "rw")) {
+                file.setLength((long) slotsPerWorker * SLOT_BYTES);
+                this.shared = file.getChannel()
+                        .map(FileChannel.MapMode.READ_WRITE, 0, (long) slotsPerWorker * SLOT_BYTES)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+            } catch (IOException e) {
+                throw new CobraIOException(e);
+            }
+            this.replyMessenger = new Messenger(new Handler(replyThread.getLooper()) {
+                @Override
+                public void handleMessage(Message msg) {
+                    onReply(msg);
+                }
+            });
+        }
+
+        @Override
+        public void onServiceConnected(ComponentName name, IBinder service) {
+            Messenger connected = new Messenger(service);
+            int configureGeneration;
+            synchronized (CobraWorkerPool.this) {
+                if (deleted) {
+                    return;
+                }
+                messenger = connected;
+                configureGeneration = ++generation;
+            }
+
+            Message msg = Message.obtain(null, CobraWorkerService.MSG_CONFIGURE, 0, configureGeneration);
+            Bundle data = msg.getData();
+            data.putString(CobraWorkerService.KEY_ACCESS_KEY, accessKey);
+            data.putString(CobraWorkerService.KEY_DEVICE, device);
+            data.putString(CobraWorkerService.KEY_SHARED_FILE, sharedFile.getAbsolutePath());
+            data.putInt(CobraWorkerService.KEY_SLOT_COUNT, slotsPerWorker);
+            data.putInt(CobraWorkerService.KEY_SLOT_BYTES, SLOT_BYTES);
+            msg.replyTo = replyMessenger;
+            try {
+                connected.send(msg);
+            } catch (RemoteException e) {
+                Log.w(TAG, String.format("CobraWorkerService worker %d died while connecting.", index), e);
+            }
+        }
+
+        @Override
+        public void onServiceDisconnected(ComponentName name) {
+            Log.w(TAG, String.format("CobraWorkerService worker %d died; restarting.", index));
+            synchronized (CobraWorkerPool.this) {
+                messenger = null;
+                ready = false;
+                generation++;
+                restartCount++;
+            }
+            notifyEngines();
+        }
+
+        /**
+         * Marks the connection of the given generation as dead when a send fails before Android
+         * reports the disconnection, so that engines do not retry on it.
+         */
+        private void onDeath(int deadGeneration) {
+            synchronized (CobraWorkerPool.this) {
+                if (generation != deadGeneration) {
+                    return;
+                }
+                messenger = null;
+                ready = false;
+                generation++;
+            }
+            notifyEngines();
+        }
+
+        private void onReply(Message msg) {
+            if (msg.what == CobraWorkerService.MSG_CONFIGURE) {
+                Bundle data = msg.getData();
+                synchronized (CobraWorkerPool.this) {
+                    if (msg.arg2 != generation) {
+                        return;
+                    }
+                    if (data.getString(CobraWorkerService.KEY_ERROR_TYPE) != null) {
+                        Log.e(TAG, String.format(
+                                "CobraWorkerService worker %d failed to start: %s",
+                                index,
+                                data.getString(CobraWorkerService.KEY_ERROR_MESSAGE)));
+                        return;
+                    }
+                    pid = data.getInt(CobraWorkerService.KEY_PID);
+                    ready = true;
+                    CobraWorkerPool.this.notifyAll();
+                }
+                return;
+            }
+
+            RemoteEngine engine;
+            synchronized (CobraWorkerPool.this) {
+                engine = msg.arg1 >= 0 && msg.arg1 < slots.length ? slots[msg.arg1] : null;
+            }
+            if (engine != null) {
+                engine.onReply(this, msg);
+            }
+        }
+
+        private void notifyEngines() {
+            RemoteEngine[] engines;
+            synchronized (CobraWorkerPool.this) {
+                engines = slots.clone();
+            }
+            for (RemoteEngine engine : engines) {
+                if (engine != null) {
+                    synchronized (engine) {
+                        engine.notifyAll();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Proxy of an engine that lives in a worker process.
+     */
+    private final class RemoteEngine implements CobraEngine {
+
+        private Worker worker = null;
+        private int slot = -1;
+        private int generation = -1;
+        private int frameLength = 0;
+        private int sampleRate = 0;
+        private String version = null;
+        private boolean isDeleted = false;
+
+        // pending request, guarded by this
+        private int sequence = 0;
+        private boolean replied = false;
+        private String errorType = null;
+        private String errorMessage = null;
+        private String[] errorStack = null;
+
+        @Override
+        public float process(short[] pcm) throws CobraException {
+            if (isDeleted) {
+                throw new CobraInvalidStateException("Attempted to call CobraWorkerPool engine process after delete.");
+            }
+            if (pcm == null) {
+                throw new CobraInvalidArgumentException("Passed null frame to CobraWorkerPool engine process.");
+            }
+            if (pcm.length != frameLength) {
+                throw new CobraInvalidArgumentException(
+                        String.format("CobraWorkerPool engine process requires frames of length %d. " +
+                                "Received frame of size %d.", frameLength, pcm.length));
+            }
+
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                attach();
+                ByteBuffer shared = worker.shared;
+                int base = slot * SLOT_BYTES;
+                for (int i = 0; i < pcm.length; i++) {
+                    shared.putShort(base + CobraWorkerService.SLOT_PCM_OFFSET + 2 * i, pcm[i]);
+                }
+                if (call(CobraWorkerService.MSG_PROCESS)) {
+                    return shared.getFloat(base + CobraWorkerService.SLOT_RESULT_OFFSET);
+                }
+            }
+            throw new CobraIOException("CobraWorkerPool worker terminated while processing the frame.");
+        }
+
+        @Override
+        public void reset() throws CobraException {
+            if (isDeleted) {
+                throw new CobraInvalidStateException("Attempted to call CobraWorkerPool engine reset after delete.");
+            }
+            // an engine recreated after its worker died starts afresh, which is what a reset achieves
+            attach();
+            call(CobraWorkerService.MSG_RESET);
+        }
+
+        @Override
+        public int getFrameLength() {
+            return frameLength;
+        }
+
+        @Override
+        public int getSampleRate() {
+            return sampleRate;
+        }
+
+        @Override
+        public String getVersion() {
+            return version;
+        }
+
+        @Override
+        public void delete() {
+            if (isDeleted) {
+                return;
+            }
+            isDeleted = true;
+            Messenger messenger;
+            synchronized (CobraWorkerPool.this) {
+                messenger = worker != null && worker.generation == generation ? worker.messenger : null;
+            }
+            if (messenger != null) {
+                try {
+                    messenger.send(Message.obtain(null, CobraWorkerService.MSG_DELETE, slot, 0));
+                } catch (RemoteException ignored) {
+                }
+            }
+            detach();
+        }
+
+        @Override
+        public void close() {
+            delete();
+        }
+
+        /**
+         * Ensures the engine exists on a live worker, recreating it on the least loaded one if needed.
+         */
+        private void attach() throws CobraException {
+            long deadline = System.nanoTime() + timeoutMs * 1000000L;
+            while (worker == null || worker.generation != generation) {
+                detach();
+                synchronized (CobraWorkerPool.this) {
+                    Worker chosen = null;
+                    while (chosen == null) {
+                        if (deleted) {
+                            throw new CobraInvalidStateException(
+                                    "Attempted to use CobraWorkerPool engine after delete.");
+                        }
+                        boolean anyReady = false;
+                        for (Worker candidate : workers) {
+                            if (!candidate.ready) {
+                                continue;
+                            }
+                            anyReady = true;
+                            if (candidate.used < slotsPerWorker &&
+                                    (chosen == null || candidate.used < chosen.used)) {
+                                chosen = candidate;
+                            }
+                        }
+                        if (chosen == null) {
+                            if (anyReady) {
+                                throw new CobraInvalidStateException("All CobraWorkerPool engine slots are in use.");
+                            }
+                            awaitUntil(deadline, "No CobraWorkerPool worker became available in time.");
+                        }
+                    }
+
+                    int free = 0;
+                    while (chosen.slots[free] != null) {
+                        free++;
+                    }
+                    chosen.slots[free] = this;
+                    chosen.used++;
+                    worker = chosen;
+                    slot = free;
+                    generation = chosen.generation;
+                }
+
+                int knownFrameLength = frameLength;
+                boolean created;
+                try {
+                    created = call(CobraWorkerService.MSG_CREATE);
+                } catch (CobraException e) {
+                    detach();
+                    throw e;
+                }
+                if (created) {
+                    if (knownFrameLength != 0 && knownFrameLength != frameLength) {
+                        throw new CobraInvalidStateException(
+                                "CobraWorkerPool engine changed frame length after a restart.");
+                    }
+                    return;
+                }
+                // the worker died before creating the engine; try again on whichever worker is available
+                if (System.nanoTime() - deadline > 0) {
+                    throw new CobraIOException("No CobraWorkerPool worker could create the engine in time.");
+                }
+            }
+        }
+
+        private void detach() {
+            synchronized (CobraWorkerPool.this) {
+                if (worker != null && worker.slots[slot] == this) {
+                    worker.slots[slot] = null;
+                    worker.used--;
+                }
+                worker = null;
+                slot = -1;
+            }
+        }
+
+        /**
+         * Sends a request to the worker and waits for its reply.
+         *
+         * @return `false` if the worker died before replying.
+         */
+        private boolean call(int what) throws CobraException {
+            Messenger messenger;
+            synchronized (CobraWorkerPool.this) {
+                messenger = worker.generation == generation ? worker.messenger : null;
+            }
+            if (messenger == null) {
+                return false;
+            }
+
+            int requestSequence;
+            synchronized (this) {
+                requestSequence = ++sequence;
+                replied = false;
+                errorType = null;
+            }
+            Message msg = Message.obtain(null, what, slot, requestSequence);
+            msg.replyTo = worker.replyMessenger;
+            try {
+                messenger.send(msg);
+            } catch (RemoteException e) {
+                worker.onDeath(generation);
+                return false;
+            }
+
+            synchronized (this) {
+                long deadline = System.nanoTime() + timeoutMs * 1000000L;
+                while (!replied) {
+                    if (worker.generation != generation) {
+                        return false;
+                    }
+                    long remainingMs = (deadline - System.nanoTime()) / 1000000L;
+                    if (remainingMs <= 0) {
+                        throw new CobraIOException("CobraWorkerPool worker did not respond in time.");
+                    }
+                    try {
+                        wait(remainingMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CobraIOException(e);
+                    }
+                }
+                if (errorType != null) {
+                    throw remoteException(errorType, errorMessage, errorStack);
+                }
+                return true;
+            }
+        }
+
+        private synchronized void onReply(Worker from, Message msg) {
+            if (from != worker || msg.arg2 != sequence) {
+                return;
+            }
+            // replies to frames carry no data unless processing failed
+            Bundle data = msg.peekData();
+            if (data != null) {
+                errorType = data.getString(CobraWorkerService.KEY_ERROR_TYPE);
+                errorMessage = data.getString(CobraWorkerService.KEY_ERROR_MESSAGE);
+                errorStack = data.getStringArray(CobraWorkerService.KEY_ERROR_STACK);
+                if (errorType == null && msg.what == CobraWorkerService.MSG_CREATE) {
+                    frameLength = data.getInt(CobraWorkerService.KEY_FRAME_LENGTH);
+                    sampleRate = data.getInt(CobraWorkerService.KEY_SAMPLE_RATE);
+                    version = data.getString(CobraWorkerService.KEY_VERSION);
+                }
+            }
+            replied = true;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraWorkerPool with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private Context context = null;
+        private String accessKey = null;
+        private String device = null;
+        private int numWorkers = 2;
+        private int slotsPerWorker = 16;
+        private int timeoutMs = 5000;
+
+        /**
+         * Setter for the Android context used to bind the worker processes.
+         *
+         * @param context Context. Its application context is retained.
+         */
+        public Builder setContext(Context context) {
+            this.context = context;
+            return this;
+        }
+
+        /**
+         * Setter the AccessKey.
+         *
+         * @param accessKey AccessKey obtained from Picovoice Console
+         */
+        public Builder setAccessKey(String accessKey) {
+            this.accessKey = accessKey;
+            return this;
+        }
+
+        /**
+         * Setter for the device string.
+         *
+         * @param device String representation of the device to use for inference in the workers. See
+         *               {@link Cobra.Builder#setDevice(String)}.
+         */
+        public Builder setDevice(String device) {
+            this.device = device;
+            return this;
+        }
+
+        /**
+         * Setter for the number of worker processes.
+         *
+         * @param numWorkers Number of worker processes, between 1 and 4.
+         */
+        public Builder setNumWorkers(int numWorkers) {
+            this.numWorkers = numWorkers;
+            return this;
+        }
+
+        /**
+         * Setter for the number of engines each worker can host.
+         *
+         * @param slotsPerWorker Number of engines per worker.
+         */
+        public Builder setSlotsPerWorker(int slotsPerWorker) {
+            this.slotsPerWorker = slotsPerWorker;
+            return this;
+        }
+
+        /**
+         * Setter for how long to wait for a worker.
+         *
+         * @param timeoutMs Time in milliseconds to wait for a worker to start, restart or reply.
+         */
+        public Builder setTimeoutMs(int timeoutMs) {
+            this.timeoutMs = timeoutMs;
+            return this;
+        }
+
+        /**
+         * Validates properties, starts the worker processes and creates an instance of CobraWorkerPool.
+         * Must not be called on the main thread.
+         *
+         * @return An instance of CobraWorkerPool
+         * @throws CobraException if the properties are invalid or the workers fail to start.
+         */
+        public CobraWorkerPool build() throws CobraException {
+            if (context == null) {
+                throw new CobraInvalidArgumentException("No context was provided to CobraWorkerPool.");
+            }
+            if (accessKey == null || accessKey.equals("")) {
+                throw new CobraInvalidArgumentException("No AccessKey was provided to CobraWorkerPool.");
+            }
+            if (numWorkers < 1 || numWorkers > CobraWorkerService.WORKERS.length) {
+                throw new CobraInvalidArgumentException(String.format(
+                        "Number of workers must be between 1 and %d.",
+                        CobraWorkerService.WORKERS.length));
+            }
+            if (slotsPerWorker <= 0) {
+                throw new CobraInvalidArgumentException("Number of engines per worker must be positive.");
+            }
+            if (timeoutMs <= 0) {
+                throw new CobraInvalidArgumentException("Worker timeout must be positive.");
+            }
+            if (Looper.myLooper() != null && Looper.myLooper() == Looper.getMainLooper()) {
+                throw new CobraInvalidStateException("CobraWorkerPool cannot be built on the main thread.");
+            }
+            if (!ACTIVE.compareAndSet(false, true)) {
+                throw new CobraInvalidStateException("Only one CobraWorkerPool can exist at a time.");
+            }
+
+            try {
+                return new CobraWorkerPool(
+                        context.getApplicationContext(),
+                        accessKey,
+                        device == null ? "best" : device,
+                        numWorkers,
+                        slotsPerWorker,
+                        timeoutMs);
+            } catch (CobraException | RuntimeException e) {
+                ACTIVE.set(false);
+                throw e;
+            }
+        }
+    }
+}
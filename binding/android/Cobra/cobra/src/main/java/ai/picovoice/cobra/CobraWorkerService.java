@@ -0,0 +1,249 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra;
+
+import android.app.Service;
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.IBinder;
+import android.os.Message;
+import android.os.Messenger;
+import android.os.Process;
+import android.os.RemoteException;
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ *   Hosts Cobra engines in a worker process on behalf of {@link CobraWorkerPool}. Each of the nested
+ *   services is declared in the library manifest with a process of its own, so that a fault in native
+ *   code terminates only that worker. Applications do not use this class directly. The services are
+ *   merged into the manifest of every application that uses the library; applications that do not
+ *   use {@link CobraWorkerPool} can remove them with `tools:node="remove"`.
+ *
+ *   <p>Audio frames and results are exchanged through a file that both processes map into memory,
+ *   divided into one slot per stream. Messages only signal that a slot is ready to be processed; they
+ *   carry no audio.
+ **/
+public class CobraWorkerService extends Service {
+
+    private static final String TAG = "CobraWorkerService";
+
+    static final int MSG_CONFIGURE = 1;
+    static final int MSG_CREATE = 2;
+    static final int MSG_PROCESS = 3;
+    static final int MSG_RESET = 4;
+    static final int MSG_DELETE = 5;
+
+    static final String KEY_ACCESS_KEY = "accessKey";
+    static final String KEY_DEVICE = "device";
+    static final String KEY_SHARED_FILE = "sharedFile";
+    static final String KEY_SLOT_COUNT = "slotCount";
+    static final String KEY_SLOT_BYTES = "slotBytes";
+    static final String KEY_PID = "pid";
+    static final String KEY_FRAME_LENGTH = "frameLength";
+    static final String KEY_SAMPLE_RATE = "sampleRate";
+    static final String KEY_VERSION = "version";
+    static final String KEY_ERROR_TYPE = "errorType";
+    static final String KEY_ERROR_MESSAGE = "errorMessage";
+    static final String KEY_ERROR_STACK = "errorStack";
+
+    // slot layout: result (float), reserved (int), frame (16-bit PCM)
+    static final int SLOT_RESULT_OFFSET = 0;
+    static final int SLOT_PCM_OFFSET = 8;
+
+    /**
+     * Worker process 0.
+     */
+    public static class Worker0 extends CobraWorkerService {
+    }
+
+    /**
+     * Worker process 1.
+     */
+    public static class Worker1 extends CobraWorkerService {
+    }
+
+    /**
+     * Worker process 2.
+     */
+    public static class Worker2 extends CobraWorkerService {
+    }
+
+    /**
+     * Worker process 3.
+     */
+    public static class Worker3 extends CobraWorkerService {
+    }
+
+    static final Class<?>[] WORKERS = {Worker0.class, Worker1.class, Worker2.class, Worker3.class};
+
+    private HandlerThread thread;
+    private Messenger messenger;
+
+    // only touched by the worker thread
+    private String accessKey;
+    private String device;
+    private ByteBuffer shared;
+    private int slotBytes;
+    private Cobra[] engines = new Cobra[0];
+    private short[] frame = new short[0];
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        thread = new HandlerThread(TAG);
+        thread.start();
+        messenger = new Messenger(new Handler(thread.getLooper()) {
+            @Override
+            public void handleMessage(Message msg) {
+                handle(msg);
+            }
+        });
+    }
+
+    @Override
+    public IBinder onBind(Intent intent) {
+        return messenger.getBinder();
+    }
+
+    @Override
+    public void onDestroy() {
+        // the engines belong to the worker thread, so let it finish its messages before deleting them
+        thread.quitSafely();
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        for (Cobra engine : engines) {
+            if (engine != null) {
+                engine.delete();
+            }
+        }
+        super.onDestroy();
+    }
+
+    private void handle(Message msg) {
+        Message reply = Message.obtain(null, msg.what, msg.arg1, msg.arg2);
+        try {
+            switch (msg.what) {
+                case MSG_CONFIGURE:
+                    configure(msg.getData());
+                    reply.getData().putInt(KEY_PID, Process.myPid());
+                    break;
+                case MSG_CREATE:
+                    create(msg.arg1, reply.getData());
+                    break;
+                case MSG_PROCESS:
+                    process(msg.arg1);
+                    break;
+                case MSG_RESET:
+                    engineAt(msg.arg1).reset();
+                    break;
+                case MSG_DELETE:
+                    delete(msg.arg1);
+                    return;
+                default:
+                    return;
+            }
+        } catch (CobraException e) {
+            Bundle data = reply.getData();
+            data.putString(KEY_ERROR_TYPE, e.getClass().getSimpleName());
+            data.putString(KEY_ERROR_MESSAGE, e.getMessage());
+            data.putStringArray(KEY_ERROR_STACK, e.getMessageStack());
+        }
+
+        if (msg.replyTo != null) {
+            try {
+                msg.replyTo.send(reply);
+            } catch (RemoteException e) {
+                Log.w(TAG, "Failed to reply to CobraWorkerPool.", e);
+            }
+        }
+    }
+
+    private void configure(Bundle data) throws CobraException {
+        for (int i = 0; i < engines.length; i++) {
+            delete(i);
+        }
+        accessKey = data.getString(KEY_ACCESS_KEY);
+        device = data.getString(KEY_DEVICE);
+        int slotCount = data.getInt(KEY_SLOT_COUNT);
+        slotBytes = data.getInt(KEY_SLOT_BYTES);
+        try (RandomAccessFile file = new RandomAccessFile(data.getString(KEY_SHARED_FILE), "rw")) {
+            // the mapping stays valid after the file is closed
+            shared = file.getChannel()
+                    .map(FileChannel.MapMode.READ_WRITE, 0, (long) slotCount * slotBytes)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new CobraIOException(e);
+        }
+        engines = new Cobra[slotCount];
+    }
+
+    private void create(int slot, Bundle data) throws CobraException {
+        if (slot < 0 || slot >= engines.length) {
+            throw new CobraInvalidArgumentException(String.format("Invalid CobraWorkerService slot %d.", slot));
+        }
+        delete(slot);
+        Cobra engine = new Cobra.Builder()
+                .setAccessKey(accessKey)
+                .setDevice(device)
+                .build();
+        if (SLOT_PCM_OFFSET + 2 * engine.getFrameLength() > slotBytes) {
+            engine.delete();
+            throw new CobraInvalidStateException("Cobra frame length exceeds the CobraWorkerService slot size.");
+        }
+        engines[slot] = engine;
+        if (frame.length != engine.getFrameLength()) {
+            frame = new short[engine.getFrameLength()];
+        }
+        data.putInt(KEY_FRAME_LENGTH, engine.getFrameLength());
+        data.putInt(KEY_SAMPLE_RATE, engine.getSampleRate());
+        data.putString(KEY_VERSION, engine.getVersion());
+    }
+
+    private void process(int slot) throws CobraException {
+        Cobra engine = engineAt(slot);
+        int base = slot * slotBytes;
+        for (int i = 0; i < frame.length; i++) {
+            frame[i] = shared.getShort(base + SLOT_PCM_OFFSET + 2 * i);
+        }
+        shared.putFloat(base + SLOT_RESULT_OFFSET, engine.process(frame));
+    }
+
+    private Cobra engineAt(int slot) throws CobraException {
+        if (slot < 0 || slot >= engines.length || engines[slot] == null) {
+            throw new CobraInvalidStateException(String.format("No engine in CobraWorkerService slot %d.", slot));
+        }
+        return engines[slot];
+    }
+
+    private void delete(int slot) {
+        if (slot >= 0 && slot < engines.length && engines[slot] != null) {
+            engines[slot].delete();
+            engines[slot] = null;
+        }
+    }
+}
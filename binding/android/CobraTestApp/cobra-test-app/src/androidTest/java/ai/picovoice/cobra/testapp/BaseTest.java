@@ -12,6 +12,7 @@ package ai.picovoice.cobra.testapp;
 
 import android.content.Context;
 import android.content.res.AssetManager;
+import android.os.Process;
 
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 import androidx.test.platform.app.InstrumentationRegistry;
@@ -22,22 +23,64 @@ import org.junit.runner.RunWith;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import ai.picovoice.cobra.Cobra;
+import ai.picovoice.cobra.CobraAdmissionController;
+import ai.picovoice.cobra.CobraAudioSource;
+import ai.picovoice.cobra.CobraDispatcher;
+import ai.picovoice.cobra.CobraEngine;
+import ai.picovoice.cobra.CobraEngineFactory;
+import ai.picovoice.cobra.CobraEvaluator;
 import ai.picovoice.cobra.CobraException;
+import ai.picovoice.cobra.CobraFrameScheduler;
+import ai.picovoice.cobra.CobraHotSwap;
+import ai.picovoice.cobra.CobraHub;
+import ai.picovoice.cobra.CobraInvalidArgumentException;
+import ai.picovoice.cobra.CobraInvalidStateException;
+import ai.picovoice.cobra.CobraLoadGenerator;
+import ai.picovoice.cobra.CobraMultiChannel;
+import ai.picovoice.cobra.CobraPipeline;
+import ai.picovoice.cobra.CobraResultCache;
+import ai.picovoice.cobra.CobraRtpReceiver;
+import ai.picovoice.cobra.CobraServer;
+import ai.picovoice.cobra.CobraSilenceTrimmer;
+import ai.picovoice.cobra.CobraSimulatedEngine;
+import ai.picovoice.cobra.CobraTailFollower;
+import ai.picovoice.cobra.CobraThreadFactory;
+import ai.picovoice.cobra.CobraWatchdog;
+import ai.picovoice.cobra.CobraWindowAggregator;
+import ai.picovoice.cobra.CobraWindowSummary;
+import ai.picovoice.cobra.CobraWorkerPool;
 
 import static org.junit.Assert.*;
 
@@ -120,13 +163,1365 @@ public class BaseTest {
         assertTrue(error < 0.1);
     }
 
+    @Test
+    public void testReset() throws CobraException, IOException {
+        Cobra cobra = new Cobra.Builder()
+                .setAccessKey(accessKey)
+                .setDevice(device)
+                .build();
+
+        File testAudio = new File(getAudioFilepath("sample.wav"));
+
+        List<Float> firstProbs = processAudio(cobra, testAudio);
+        cobra.reset();
+        List<Float> secondProbs = processAudio(cobra, testAudio);
+        cobra.delete();
+
+        assertEquals(firstProbs.size(), secondProbs.size());
+        for (int i = 0; i < firstProbs.size(); i++) {
+            assertEquals(firstProbs.get(i), secondProbs.get(i), 1e-6f);
+        }
+    }
+
+    @Test
+    public void testProcessBatch() throws CobraException, IOException {
+        final int numStreams = 3;
+        Cobra[] engines = new Cobra[numStreams];
+        for (int i = 0; i < numStreams; i++) {
+            engines[i] = new Cobra.Builder()
+                    .setAccessKey(accessKey)
+                    .setDevice(device)
+                    .build();
+        }
+        File testAudio = new File(getAudioFilepath("sample.wav"));
+        List<Float> expectedProbs = processAudio(engines[0], testAudio);
+        engines[0].reset();
+
+        int frameLength = engines[0].getFrameLength();
+        byte[] wav = new byte[(int) testAudio.length()];
+        try (FileInputStream audioInputStream = new FileInputStream(testAudio)) {
+            assertEquals(wav.length, audioInputStream.read(wav));
+        }
+        ByteBuffer pcm = ByteBuffer.wrap(wav, 44, wav.length - 44).slice().order(ByteOrder.LITTLE_ENDIAN);
+
+        short[] block = new short[numStreams * frameLength];
+        float[] probs = new float[numStreams];
+        for (int frame = 0; frame < expectedProbs.size(); frame++) {
+            for (int i = 0; i < frameLength; i++) {
+                short sample = pcm.getShort(2 * (frame * frameLength + i));
+                for (int stream = 0; stream < numStreams; stream++) {
+                    block[stream * frameLength + i] = sample;
+                }
+            }
+            Cobra.processBatch(engines, numStreams, block, probs);
+            for (int stream = 0; stream < numStreams; stream++) {
+                assertEquals(expectedProbs.get(frame), probs[stream], 1e-6f);
+            }
+        }
+
+        engines[2].delete();
+        boolean didFail = false;
+        try {
+            Cobra.processBatch(engines, numStreams, block, probs);
+        } catch (CobraInvalidStateException e) {
+            didFail = true;
+        }
+        assertTrue(didFail);
+        engines[0].delete();
+        engines[1].delete();
+    }
+
+    @Test
+    public void testMultiChannel() throws CobraException, IOException {
+        File testAudio = new File(getAudioFilepath("sample.wav"));
+        List<Float> expectedProbs;
+        try (CobraEngine engine = new CobraSimulatedEngine.Builder().build()) {
+            expectedProbs = processAudio(engine, testAudio);
+        }
+
+        CobraMultiChannel multiChannel = new CobraMultiChannel.Builder()
+                .setEngineFactory(new CobraSimulatedEngine.Builder())
+                .setChannelCount(3)
+                .setNumThreads(2)
+                .build();
+        int frameLength = multiChannel.getFrameLength();
+        byte[] wav = new byte[(int) testAudio.length()];
+        try (FileInputStream audioInputStream = new FileInputStream(testAudio)) {
+            assertEquals(wav.length, audioInputStream.read(wav));
+        }
+        ByteBuffer pcm = ByteBuffer.wrap(wav, 44, wav.length - 44).slice().order(ByteOrder.LITTLE_ENDIAN);
+
+        // channels 0 and 2 carry the sample, channel 1 is silent
+        short[] interleaved = new short[3 * frameLength];
+        float[] probs = new float[3];
+        for (int frame = 0; frame < expectedProbs.size(); frame++) {
+            for (int i = 0; i < frameLength; i++) {
+                short sample = pcm.getShort(2 * (frame * frameLength + i));
+                interleaved[3 * i] = sample;
+                interleaved[3 * i + 2] = sample;
+            }
+            // an interrupt of the caller must neither fail the frame nor leave the workers stuck
+            if (frame == expectedProbs.size() / 2) {
+                Thread.currentThread().interrupt();
+            }
+            multiChannel.process(interleaved, probs);
+            if (frame == expectedProbs.size() / 2) {
+                assertTrue(Thread.interrupted());
+            }
+            assertEquals(expectedProbs.get(frame), probs[0], 0.f);
+            assertEquals(0.f, probs[1], 0.f);
+            assertEquals(expectedProbs.get(frame), probs[2], 0.f);
+        }
+
+        boolean didFail = false;
+        try {
+            multiChannel.process(new short[frameLength], probs);
+        } catch (CobraException e) {
+            didFail = true;
+        }
+        assertTrue(didFail);
+        multiChannel.delete();
+    }
+
+    @Test
+    public void testSilenceTrimmer() throws CobraException, IOException {
+        final int frameLength = 512;
+        // 10 silent frames, 20 voiced frames and 10 silent frames, followed by a loud `LIST` chunk
+        short[] samples = new short[40 * frameLength];
+        for (int i = 10 * frameLength; i < 30 * frameLength; i++) {
+            samples[i] = (short) (i % 2 == 0 ? 16000 : -16000);
+        }
+        byte[] trailer = new byte[4 * frameLength];
+        Arrays.fill(trailer, (byte) 0x40);
+
+        File input = new File(appContext.getCacheDir(), "trimmer_input.wav");
+        File output = new File(appContext.getCacheDir(), "trimmer_output.wav");
+        File timeMap = new File(appContext.getCacheDir(), "trimmer_output.map");
+        writeWav(input, samples, trailer);
+
+        CobraSilenceTrimmer trimmer = new CobraSilenceTrimmer.Builder()
+                .setPaddingMs(0)
+                .build();
+        CobraSilenceTrimmer.Result result;
+        try (CobraEngine engine = new CobraSimulatedEngine.Builder().build()) {
+            result = trimmer.trim(engine, input, output, timeMap);
+        }
+
+        assertEquals(40 * frameLength, result.getOriginalSamples());
+        assertEquals(20 * frameLength, result.getTrimmedSamples());
+        assertEquals(1, result.getSegmentCount());
+
+        assertEquals(44 + 2 * 20 * frameLength, output.length());
+        byte[] trimmed = new byte[(int) output.length()];
+        try (FileInputStream inputStream = new FileInputStream(output)) {
+            assertEquals(trimmed.length, inputStream.read(trimmed));
+        }
+        ByteBuffer header = ByteBuffer.wrap(trimmed).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals("RIFF", new String(trimmed, 0, 4));
+        assertEquals(36 + 2 * 20 * frameLength, header.getInt(4));
+        assertEquals("WAVE", new String(trimmed, 8, 4));
+        assertEquals(16000, header.getInt(24));
+        assertEquals("data", new String(trimmed, 36, 4));
+        assertEquals(2 * 20 * frameLength, header.getInt(40));
+        for (int i = 0; i < 20 * frameLength; i++) {
+            assertEquals(samples[10 * frameLength + i], header.getShort(44 + 2 * i));
+        }
+
+        byte[] map = new byte[(int) timeMap.length()];
+        try (FileInputStream inputStream = new FileInputStream(timeMap)) {
+            assertEquals(16, inputStream.read(map));
+        }
+        ByteBuffer entry = ByteBuffer.wrap(map).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(0, entry.getLong(0));
+        assertEquals(10 * frameLength, entry.getLong(8));
+    }
+
+    @Test
+    public void testResultCache() throws CobraException, IOException, InterruptedException {
+        File directory = new File(appContext.getCacheDir(), "result_cache");
+        File[] stale = directory.listFiles();
+        if (stale != null) {
+            for (File f : stale) {
+                f.delete();
+            }
+        }
+
+        final int numFrames = 32;
+        File[] inputs = new File[3];
+        for (int i = 0; i < inputs.length; i++) {
+            short[] samples = new short[numFrames * 512];
+            Arrays.fill(samples, (short) (1000 * (i + 1)));
+            inputs[i] = new File(appContext.getCacheDir(), String.format(Locale.US, "cache_input_%d.wav", i));
+            writeWav(inputs[i], samples, null);
+        }
+
+        // room for two tracks of 4-byte probabilities
+        CobraResultCache cache = new CobraResultCache.Builder()
+                .setDirectory(directory)
+                .setMaxSizeBytes(2 * numFrames * 4)
+                .build();
+        List<Float> expectedProbs;
+        try (CobraEngine engine = new CobraSimulatedEngine.Builder().build()) {
+            expectedProbs = processAudio(engine, inputs[0]);
+        }
+
+        try (CobraEngine engine = new CobraSimulatedEngine.Builder().build()) {
+            FloatBuffer track = cache.process(engine, inputs[0]);
+            assertEquals(numFrames, track.remaining());
+            for (int i = 0; i < numFrames; i++) {
+                assertEquals(expectedProbs.get(i), track.get(i), 0.f);
+            }
+        }
+        Thread.sleep(1100);
+        try (CobraEngine engine = new CobraSimulatedEngine.Builder().build()) {
+            cache.process(engine, inputs[1]);
+        }
+        Thread.sleep(1100);
+
+        // a hit does not touch the engine, so a deleted one still works
+        CobraEngine deleted = new CobraSimulatedEngine.Builder().build();
+        deleted.delete();
+        FloatBuffer hit = cache.process(deleted, inputs[0]);
+        assertEquals(expectedProbs.get(numFrames - 1), hit.get(numFrames - 1), 0.f);
+        Thread.sleep(1100);
+
+        // inserting a third track evicts the least recently used one
+        try (CobraEngine engine = new CobraSimulatedEngine.Builder().build()) {
+            cache.process(engine, inputs[2]);
+        }
+        assertEquals(2 * numFrames * 4, cache.getSizeBytes());
+        cache.process(deleted, inputs[0]);
+        cache.process(deleted, inputs[2]);
+        boolean didFail = false;
+        try {
+            cache.process(deleted, inputs[1]);
+        } catch (CobraInvalidStateException e) {
+            didFail = true;
+        }
+        assertTrue(didFail);
+    }
+
+    @Test
+    public void testPipeline() throws CobraException, IOException {
+        Cobra cobra = new Cobra.Builder()
+                .setAccessKey(accessKey)
+                .setDevice(device)
+                .build();
+
+        File testAudio = new File(getAudioFilepath("sample.wav"));
+        List<Float> expectedProbs = processAudio(cobra, testAudio);
+        cobra.reset();
+
+        final List<Float> probs = new ArrayList<>();
+        CobraPipeline pipeline = new CobraPipeline.Builder()
+                .setBufferFrames(16)
+                .build();
+        try (FileInputStream audioInputStream = new FileInputStream(testAudio)) {
+            FileChannel channel = audioInputStream.getChannel();
+            channel.position(44);
+            long numFrames = pipeline.run(cobra, channel, new CobraPipeline.Listener() {
+                @Override
+                public void onProbability(long frameIndex, float probability) {
+                    assertEquals(probs.size(), frameIndex);
+                    probs.add(probability);
+                }
+            });
+            assertEquals(expectedProbs.size(), numFrames);
+        }
+        cobra.delete();
+
+        assertEquals(expectedProbs.size(), probs.size());
+        for (int i = 0; i < probs.size(); i++) {
+            assertEquals(expectedProbs.get(i), probs.get(i), 1e-6f);
+        }
+
+        // an unchecked error of the source ends the run and is rethrown on the calling thread
+        boolean didFail = false;
+        try (CobraSimulatedEngine engine = new CobraSimulatedEngine.Builder().build()) {
+            pipeline.run(engine, new ReadableByteChannel() {
+                @Override
+                public int read(ByteBuffer dst) {
+                    throw new IllegalStateException("source failed");
+                }
+
+                @Override
+                public boolean isOpen() {
+                    return true;
+                }
+
+                @Override
+                public void close() {
+                }
+            }, new CobraPipeline.Listener() {
+                @Override
+                public void onProbability(long frameIndex, float probability) {
+                }
+            });
+        } catch (IllegalStateException e) {
+            didFail = true;
+        }
+        assertTrue(didFail);
+    }
+
+    @Test
+    public void testDispatcher() throws Exception {
+        short[][] frames = new short[100][512];
+        for (int i = 0; i < frames.length; i++) {
+            Arrays.fill(frames[i], (short) ((i % 10) * 100));
+        }
+        List<Float> expectedProbs = new ArrayList<>();
+        try (CobraSimulatedEngine engine = new CobraSimulatedEngine.Builder().build()) {
+            for (short[] frame : frames) {
+                expectedProbs.add(engine.process(frame));
+            }
+        }
+
+        // interleaved streams each get their frames processed in submission order
+        CobraDispatcher dispatcher = new CobraDispatcher.Builder()
+                .setEngineFactory(new CobraSimulatedEngine.Builder())
+                .setNumWorkers(2)
+                .setMaxBatchSize(8)
+                .build();
+        List<Future<Float>> first = new ArrayList<>();
+        List<Future<Float>> second = new ArrayList<>();
+        for (short[] frame : frames) {
+            first.add(dispatcher.processAsync("first", frame));
+            second.add(dispatcher.processAsync("second", frame));
+        }
+        for (int i = 0; i < frames.length; i++) {
+            assertEquals(expectedProbs.get(i), first.get(i).get(5, TimeUnit.SECONDS));
+            assertEquals(expectedProbs.get(i), second.get(i).get(5, TimeUnit.SECONDS));
+        }
+        dispatcher.closeStream("first");
+        dispatcher.closeStream("second");
+        dispatcher.delete();
+
+        // an unchecked error of the engine factory fails the stream, not the worker
+        final AtomicInteger created = new AtomicInteger();
+        dispatcher = new CobraDispatcher.Builder()
+                .setEngineFactory(new CobraEngineFactory() {
+                    @Override
+                    public CobraEngine create() throws CobraException {
+                        if (created.getAndIncrement() == 0) {
+                            throw new IllegalStateException("engine factory failed");
+                        }
+                        return new CobraSimulatedEngine.Builder().build();
+                    }
+                })
+                .setNumWorkers(1)
+                .build();
+        for (int i = 0; i < 2; i++) {
+            try {
+                dispatcher.processAsync("failing", frames[0]).get(5, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+        assertEquals(1, created.get());
+        dispatcher.closeStream("failing");
+        assertEquals(expectedProbs.get(0), dispatcher.processAsync("failing", frames[0]).get(5, TimeUnit.SECONDS));
+        dispatcher.delete();
+
+        // a full queue fails new frames immediately, and delete fails the pending ones
+        final CountDownLatch creating = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        dispatcher = new CobraDispatcher.Builder()
+                .setEngineFactory(new CobraEngineFactory() {
+                    @Override
+                    public CobraEngine create() throws CobraException {
+                        creating.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new CobraInvalidStateException("interrupted");
+                        }
+                        return new CobraSimulatedEngine.Builder().build();
+                    }
+                })
+                .setNumWorkers(1)
+                .setQueueCapacity(2)
+                .build();
+        List<Future<Float>> pending = new ArrayList<>();
+        pending.add(dispatcher.processAsync("blocked", frames[0]));
+        assertTrue(creating.await(5, TimeUnit.SECONDS));
+        pending.add(dispatcher.processAsync("blocked", frames[1]));
+        pending.add(dispatcher.processAsync("blocked", frames[2]));
+        Future<Float> rejected = dispatcher.processAsync("blocked", frames[3]);
+        assertTrue(rejected.isDone());
+        try {
+            rejected.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof CobraInvalidStateException);
+        }
+        for (Future<Float> future : pending) {
+            assertFalse(future.isDone());
+        }
+        dispatcher.delete();
+        for (Future<Float> future : pending) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof CobraInvalidStateException);
+            }
+        }
+        boolean didFail = false;
+        try {
+            dispatcher.processAsync("blocked", frames[0]);
+        } catch (CobraInvalidStateException e) {
+            didFail = true;
+        }
+        assertTrue(didFail);
+    }
+
+    @Test
+    public void testThreadFactory() throws CobraException, InterruptedException {
+        CobraThreadFactory threadFactory = new CobraThreadFactory.Builder()
+                .setNamePrefix("TestWorker")
+                .setPriority(Process.THREAD_PRIORITY_DISPLAY)
+                .build();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final int[] observed = new int[2];
+        Thread thread = threadFactory.newThread(new Runnable() {
+            @Override
+            public void run() {
+                observed[0] = Process.myTid();
+                observed[1] = Process.getThreadPriority(observed[0]);
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+            }
+        });
+        assertTrue(thread.isDaemon());
+        thread.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(Process.THREAD_PRIORITY_DISPLAY, observed[1]);
+
+        List<CobraThreadFactory.Placement> placements = threadFactory.getPlacements();
+        assertEquals(1, placements.size());
+        assertEquals("TestWorker-0", placements.get(0).getThreadName());
+        assertEquals(thread.getName(), placements.get(0).getThreadName());
+        assertEquals(observed[0], placements.get(0).getTid());
+        release.countDown();
+        thread.join(5000);
+        assertFalse(thread.isAlive());
+        assertTrue(threadFactory.getPlacements().isEmpty());
+
+        int[] invalidPriorities = {-21, 20};
+        for (int priority : invalidPriorities) {
+            boolean didFail = false;
+            try {
+                new CobraThreadFactory.Builder()
+                        .setPriority(priority)
+                        .build();
+            } catch (CobraInvalidArgumentException e) {
+                didFail = true;
+            }
+            assertTrue(didFail);
+        }
+    }
+
+    @Test
+    public void testEvaluator() throws CobraException, IOException {
+        Cobra.Builder builder = new Cobra.Builder()
+                .setAccessKey(accessKey)
+                .setDevice(device);
+
+        File testAudio = new File(getAudioFilepath("sample.wav"));
+        int numFrames = (int) ((testAudio.length() - 44) / 2 / 512);
+        float frameSec = 512 / 16000.f;
+
+        File labels = new File(testAudio.getParentFile(), "sample.txt");
+        try (PrintWriter writer = new PrintWriter(labels)) {
+            int[][] segments = {{28, 53}, {97, 121}, {163, 183}, {227, 252}};
+            for (int[] segment : segments) {
+                writer.println(String.format(Locale.US, "%f %f", segment[0] * frameSec, segment[1] * frameSec));
+            }
+        }
+
+        CobraEvaluator evaluator = new CobraEvaluator.Builder()
+                .setEngineFactory(builder)
+                .setNumThreads(2)
+                .build();
+        CobraEvaluator.Result result = evaluator.evaluate(Arrays.asList(testAudio, testAudio));
+
+        assertEquals(2, result.getFileCount());
+        assertEquals(2 * numFrames, result.getFrameCount());
+        assertTrue(result.getBinaryCrossEntropy() < 0.1);
+        assertTrue(result.getAuc() > 0.95);
+        assertTrue(result.getEqualErrorRate() < 0.1);
+        assertEquals(1.0, result.getRecall(0.f), 0.0);
+    }
+
+    @Test
+    public void testEvaluatorWavChunks() throws CobraException, IOException {
+        // 10 silent frames followed by a loud `LIST` chunk the size of 4 frames
+        short[] samples = new short[10 * 512];
+        byte[] trailer = new byte[4 * 512 * 2];
+        Arrays.fill(trailer, (byte) 0x7F);
+        File audio = new File(appContext.getCacheDir(), "evaluator.wav");
+        writeWav(audio, samples, trailer);
+        File labels = new File(appContext.getCacheDir(), "evaluator.txt");
+        try (PrintWriter writer = new PrintWriter(labels)) {
+            writer.println("# no voiced segments");
+        }
+
+        CobraEvaluator evaluator = new CobraEvaluator.Builder()
+                .setEngineFactory(new CobraSimulatedEngine.Builder())
+                .setNumThreads(1)
+                .build();
+        CobraEvaluator.Result result = evaluator.evaluate(Collections.singletonList(audio));
+        assertEquals(1, result.getFileCount());
+        assertEquals(10, result.getFrameCount());
+
+        // a worker failing unexpectedly fails the evaluation rather than dropping the file
+        CobraEvaluator failing = new CobraEvaluator.Builder()
+                .setEngineFactory(new CobraEngineFactory() {
+                    @Override
+                    public CobraEngine create() {
+                        throw new IllegalStateException("engine factory failed");
+                    }
+                })
+                .setNumThreads(1)
+                .build();
+        try {
+            failing.evaluate(Collections.singletonList(audio));
+            fail("IllegalStateException expected from the engine factory.");
+        } catch (IllegalStateException e) {
+            assertEquals("engine factory failed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testAudioSource() throws CobraException, IOException {
+        Cobra cobra = new Cobra.Builder()
+                .setAccessKey(accessKey)
+                .setDevice(device)
+                .build();
+
+        File testAudio = new File(getAudioFilepath("sample.wav"));
+        List<Float> expectedProbs = processAudio(cobra, testAudio);
+        cobra.reset();
+
+        List<Float> probs = new ArrayList<>();
+        try (FileInputStream audioInputStream = new FileInputStream(testAudio)) {
+            CobraAudioSource source = new CobraAudioSource.Builder()
+                    .setChannel(audioInputStream.getChannel())
+                    .setEngine(cobra)
+                    .build();
+            short[] pcm = new short[cobra.getFrameLength()];
+            while (source.read(pcm)) {
+                probs.add(cobra.process(pcm));
+            }
+            assertEquals(cobra.getSampleRate(), source.getSourceSampleRate());
+        }
+        cobra.delete();
+        assertEquals(expectedProbs, probs);
+
+        short[] decoded = new short[4];
+        CobraAudioSource.MULAW.decode(ByteBuffer.wrap(new byte[]{(byte) 0xFF, 0x7F, 0x00, (byte) 0x80}), decoded, 0, 4);
+        assertArrayEquals(new short[]{0, 0, -32124, 32124}, decoded);
+        CobraAudioSource.ALAW.decode(ByteBuffer.wrap(new byte[]{(byte) 0xD5, 0x55, 0x2A, (byte) 0xAA}), decoded, 0, 4);
+        assertArrayEquals(new short[]{8, -8, -32256, 32256}, decoded);
+    }
+
+    @Test
+    public void testSimulatedEngine() throws CobraException, IOException {
+        File testAudio = new File(getAudioFilepath("sample.wav"));
+
+        CobraEngine first = new CobraSimulatedEngine.Builder().build();
+        CobraEngine second = new CobraSimulatedEngine.Builder()
+                .setSimulatedLatencyUs(100)
+                .build();
+
+        List<Float> firstProbs = processAudio(first, testAudio);
+        List<Float> secondProbs = processAudio(second, testAudio);
+        assertEquals(firstProbs, secondProbs);
+
+        second.reset();
+        assertEquals(0.f, second.process(new short[second.getFrameLength()]), 0.f);
+
+        first.delete();
+        second.delete();
+    }
+
+    @Test
+    public void testFrameScheduler() throws CobraException, InterruptedException {
+        final CobraFrameScheduler scheduler = new CobraFrameScheduler.Builder()
+                .setDeadlineMs(100)
+                .setContextFrames(2)
+                .build();
+        final CountDownLatch[] workerBlocked = {new CountDownLatch(1), new CountDownLatch(1)};
+        final CountDownLatch[] releaseWorker = {new CountDownLatch(1), new CountDownLatch(1)};
+        final List<Float> probs = Collections.synchronizedList(new ArrayList<Float>());
+        final List<Long> captureTimes = Collections.synchronizedList(new ArrayList<Long>());
+
+        CobraEngine engine = new CobraSimulatedEngine.Builder().build();
+        final CobraFrameScheduler.Stream stream = scheduler.addStream(engine, new CobraFrameScheduler.Listener() {
+            @Override
+            public void onProbability(CobraFrameScheduler.Stream s, float probability, long captureTimeNanos) {
+                int index = probs.size();
+                probs.add(probability);
+                captureTimes.add(captureTimeNanos);
+                // each result stalls the worker, e.g. like a GC pause would
+                workerBlocked[index].countDown();
+                try {
+                    releaseWorker[index].await();
+                } catch (InterruptedException ignored) {
+                }
+            }
+
+            @Override
+            public void onError(CobraFrameScheduler.Stream s, CobraException e) {
+            }
+        });
+        scheduler.start();
+
+        short[] silence = new short[engine.getFrameLength()];
+        short[] speech = new short[engine.getFrameLength()];
+        Arrays.fill(speech, (short) 16000);
+
+        long firstCaptureTime = System.nanoTime();
+        stream.submit(silence, firstCaptureTime);
+        assertTrue(workerBlocked[0].await(5, TimeUnit.SECONDS));
+
+        // frames 1 to 10 go stale while the worker is blocked; the last three of them are speech
+        long staleCaptureTime = System.nanoTime();
+        for (int i = 1; i <= 10; i++) {
+            stream.submit(i >= 8 ? speech : silence, staleCaptureTime);
+        }
+        Thread.sleep(150);
+        long freshCaptureTime = System.nanoTime();
+        stream.submit(silence, freshCaptureTime);
+        releaseWorker[0].countDown();
+        assertTrue(workerBlocked[1].await(5, TimeUnit.SECONDS));
+
+        // removal waits for the worker to leave the stream
+        Thread remover = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                scheduler.removeStream(stream);
+            }
+        });
+        remover.start();
+        remover.join(100);
+        assertTrue(remover.isAlive());
+        releaseWorker[1].countDown();
+        remover.join(5000);
+        assertFalse(remover.isAlive());
+        engine.delete();
+        scheduler.stop();
+
+        // eight stale frames are skipped, the last two are fed as context and the fresh frame is reported
+        assertEquals(Arrays.asList(firstCaptureTime, freshCaptureTime), captureTimes);
+        assertEquals(2, stream.getProcessedCount());
+        assertEquals(10, stream.getMissCount());
+        assertEquals(0.f, probs.get(0), 0.f);
+        assertEquals(0.375f, probs.get(1), 0.f);
+
+        // a listener that throws does not stop the worker from serving later frames
+        CobraFrameScheduler tolerant = new CobraFrameScheduler.Builder().build();
+        final CountDownLatch delivered = new CountDownLatch(2);
+        engine = new CobraSimulatedEngine.Builder().build();
+        CobraFrameScheduler.Stream failing = tolerant.addStream(engine, new CobraFrameScheduler.Listener() {
+            @Override
+            public void onProbability(CobraFrameScheduler.Stream s, float probability, long captureTimeNanos) {
+                delivered.countDown();
+                throw new IllegalStateException("listener failed");
+            }
+
+            @Override
+            public void onError(CobraFrameScheduler.Stream s, CobraException e) {
+            }
+        });
+        tolerant.start();
+        failing.submit(silence, System.nanoTime());
+        failing.submit(silence, System.nanoTime());
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(2, failing.getProcessedCount());
+        tolerant.removeStream(failing);
+        engine.delete();
+        tolerant.stop();
+    }
+
+    @Test
+    public void testWatchdog() throws CobraException {
+        // the listener runs on the watchdog's thread, so failures are asserted on the test thread
+        final List<Integer> switches = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<CobraException> switchErrors = Collections.synchronizedList(new ArrayList<CobraException>());
+        CobraWatchdog watchdog = new CobraWatchdog.Builder()
+                .setCandidates(
+                        new CobraSimulatedEngine.Builder().setSimulatedLatencyUs(40000),
+                        new CobraSimulatedEngine.Builder())
+                .setWarmupFrames(4)
+                .setListener(new CobraWatchdog.Listener() {
+                    @Override
+                    public void onSwitch(int fromCandidate, int toCandidate, double realTimeFactor) {
+                        switches.add(toCandidate);
+                    }
+
+                    @Override
+                    public void onSwitchFailed(int candidate, CobraException e) {
+                        switchErrors.add(e);
+                    }
+
+                    @Override
+                    public void onOverload(int candidate, double realTimeFactor) {
+                    }
+                })
+                .build();
+
+        short[] pcm = new short[watchdog.getFrameLength()];
+        for (int i = 0; i < 200 && watchdog.getCandidateIndex() == 0; i++) {
+            watchdog.process(pcm);
+        }
+        watchdog.delete();
+        assertTrue(switchErrors.isEmpty());
+        assertEquals(1, watchdog.getCandidateIndex());
+        assertEquals(Arrays.asList(1), switches);
+    }
+
+    @Test
+    public void testAdmissionController() throws CobraException {
+        boolean didFail = false;
+        try {
+            new CobraAdmissionController.Builder()
+                    .setEngineFactory(new CobraSimulatedEngine.Builder())
+                    .build();
+        } catch (CobraException e) {
+            didFail = true;
+        }
+        assertTrue(didFail);
+
+        // a stream busy-waits for a quarter of each frame
+        CobraAdmissionController controller = new CobraAdmissionController.Builder()
+                .setEngineFactory(new CobraSimulatedEngine.Builder().setSimulatedLatencyUs(8000))
+                .setMemoryBudgetBytes(Long.MAX_VALUE / 2)
+                .setCpuBudgetCores(1.0)
+                .setCalibrationFrames(20)
+                .build();
+        assertTrue(controller.getCoresPerStream() > 0.1);
+        assertTrue(controller.getCoresPerStream() < 1.0);
+        assertTrue(controller.getBytesPerStream() >= 0);
+
+        int capacity = controller.getCapacity();
+        assertEquals((int) Math.floor(1.0 / controller.getCoresPerStream()), capacity);
+        List<CobraAdmissionController.Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < capacity; i++) {
+            CobraAdmissionController.Ticket ticket = controller.admit();
+            assertTrue(ticket.isAccepted());
+            assertNull(ticket.getRejectionReason());
+            tickets.add(ticket);
+        }
+        CobraAdmissionController.Ticket rejected = controller.admit();
+        assertFalse(rejected.isAccepted());
+        assertTrue(rejected.getRejectionReason().startsWith("CPU budget exceeded"));
+        rejected.release();
+        assertEquals(capacity, controller.getAdmittedStreams());
+
+        // releasing a ticket twice returns its reservation only once
+        tickets.get(0).release();
+        tickets.get(0).release();
+        assertEquals(capacity - 1, controller.getAdmittedStreams());
+        assertTrue(controller.admit().isAccepted());
+        assertFalse(controller.admit().isAccepted());
+    }
+
+    @Test
+    public void testLoadGenerator() throws CobraException {
+        CobraLoadGenerator generator = new CobraLoadGenerator.Builder()
+                .setEngineFactory(new CobraSimulatedEngine.Builder())
+                .setNumThreads(2)
+                .setMaxStreams(4)
+                .setStepDurationMs(200)
+                .build();
+
+        // an empty clip is rejected up front instead of failing a worker mid-step
+        boolean didFail = false;
+        try {
+            generator.run(new short[1024], new short[0]);
+        } catch (CobraInvalidArgumentException e) {
+            didFail = true;
+        }
+        assertTrue(didFail);
+
+        // a clip shorter than a frame wraps around within the frame
+        CobraLoadGenerator.Report report = generator.run(new short[100]);
+        assertEquals(4, report.getMaxSustainableStreams());
+        assertEquals(3, report.getSteps().size());
+        assertEquals(0, report.getSteps().get(2).getMissRate(), 0.0);
+    }
+
+    @Test
+    public void testWindowAggregator() throws CobraException {
+        final List<CobraWindowSummary> windows = new ArrayList<>();
+        CobraWindowAggregator.Listener listener = new CobraWindowAggregator.Listener() {
+            @Override
+            public void onWindow(CobraWindowSummary summary) {
+                try {
+                    CobraWindowSummary copy = new CobraWindowSummary(summary.getNumBins());
+                    copy.copyFrom(summary);
+                    windows.add(copy);
+                } catch (CobraException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+
+        try (CobraSimulatedEngine engine = new CobraSimulatedEngine.Builder().build()) {
+            // windows shorter than a 32ms frame are rejected
+            boolean didFail = false;
+            try {
+                new CobraWindowAggregator.Builder()
+                        .setEngine(engine)
+                        .setWindowMs(10)
+                        .setListener(listener)
+                        .build();
+            } catch (CobraInvalidArgumentException e) {
+                didFail = true;
+            }
+            assertTrue(didFail);
+
+            CobraWindowAggregator aggregator = new CobraWindowAggregator.Builder()
+                    .setEngine(engine)
+                    .setWindowMs(1000)
+                    .setListener(listener)
+                    .build();
+            // alternates 4 voiced and 4 unvoiced frames
+            for (int i = 0; i < 63; i++) {
+                aggregator.add((i / 4) % 2 == 0 ? 0.9f : 0.1f);
+            }
+            aggregator.flush();
+        }
+
+        // frames starting within [0, 1000) and [1000, 2000)
+        assertEquals(2, windows.size());
+        CobraWindowSummary first = windows.get(0);
+        assertEquals(0, first.getStartMs());
+        assertEquals(1000, first.getDurationMs());
+        assertEquals(32, first.getFrameCount());
+        assertEquals(0.5f, first.getMean(), 1e-6f);
+        assertEquals(0.9f, first.getMax(), 1e-6f);
+        assertEquals(0.5f, first.getVoicedRatio(), 1e-6f);
+        assertEquals(4, first.getOnsetCount());
+        assertEquals(16, first.getBinCount(1));
+        assertEquals(16, first.getBinCount(9));
+        assertEquals(1000, windows.get(1).getStartMs());
+        assertEquals(31, windows.get(1).getFrameCount());
+
+        // a one-second window ships in at most a fifth of its raw probabilities
+        ByteBuffer buffer = ByteBuffer.allocate(first.getSerializedSize());
+        first.writeTo(buffer);
+        assertFalse(buffer.hasRemaining());
+        assertTrue(buffer.capacity() * 5 <= 4 * first.getFrameCount());
+        buffer.flip();
+        CobraWindowSummary decoded = new CobraWindowSummary(first.getNumBins());
+        decoded.readFrom(buffer);
+        assertEquals(first.getStartMs(), decoded.getStartMs());
+        assertEquals(first.getDurationMs(), decoded.getDurationMs());
+        assertEquals(first.getFrameCount(), decoded.getFrameCount());
+        assertEquals(first.getMean(), decoded.getMean(), 1e-4f);
+        assertEquals(first.getMax(), decoded.getMax(), 1e-4f);
+        assertEquals(first.getOnsetCount(), decoded.getOnsetCount());
+        for (int i = 0; i < first.getNumBins(); i++) {
+            assertEquals(first.getBinCount(i), decoded.getBinCount(i));
+        }
+
+        // merged counts beyond 16 bits are scaled and come back approximately
+        CobraWindowSummary merged = new CobraWindowSummary(first.getNumBins());
+        for (int i = 0; i < 5000; i++) {
+            merged.merge(first);
+        }
+        buffer = ByteBuffer.allocate(merged.getSerializedSize());
+        merged.writeTo(buffer);
+        buffer.flip();
+        decoded.readFrom(buffer);
+        assertEquals(merged.getFrameCount(), decoded.getFrameCount());
+        assertEquals(merged.getBinCount(9), decoded.getBinCount(9), 1);
+
+        boolean didFail = false;
+        try {
+            new CobraWindowSummary(4).readFrom(ByteBuffer.wrap(buffer.array()));
+        } catch (CobraInvalidArgumentException e) {
+            didFail = true;
+        }
+        assertTrue(didFail);
+    }
+
+    @Test
+    public void testTailFollower() throws Exception {
+        File testAudio = new File(getAudioFilepath("sample.wav"));
+        byte[] wav = new byte[(int) testAudio.length()];
+        try (FileInputStream audioInputStream = new FileInputStream(testAudio)) {
+            assertEquals(wav.length, audioInputStream.read(wav));
+        }
+        short[] samples = new short[(wav.length - 44) / 2];
+        ByteBuffer.wrap(wav, 44, 2 * samples.length).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(samples);
+        final int frameLength = 512;
+        final int numFrames = samples.length / frameLength;
+        final int firstFrames = numFrames / 2;
+
+        // the recording starts with half of the audio and a streaming header without a data size
+        final File input = new File(appContext.getCacheDir(), "follow.wav");
+        final File output = new File(appContext.getCacheDir(), "follow.bin");
+        final File checkpoint = new File(appContext.getCacheDir(), "follow.ckpt");
+        output.delete();
+        checkpoint.delete();
+        writeWav(input, Arrays.copyOf(samples, firstFrames * frameLength), null);
+        try (RandomAccessFile file = new RandomAccessFile(input, "rw")) {
+            file.seek(40);
+            file.writeInt(0);
+        }
+
+        // a stop issued before following starts is not lost
+        CobraTailFollower stoppedEarly = new CobraTailFollower.Builder().build();
+        stoppedEarly.stop();
+        try (CobraSimulatedEngine engine = new CobraSimulatedEngine.Builder().build()) {
+            assertEquals(0, stoppedEarly.follow(engine, input, output, checkpoint));
+        }
+        assertFalse(checkpoint.exists());
+
+        // the first follower is stopped midway, once it has checkpointed the audio written so far
+        final CobraTailFollower first = new CobraTailFollower.Builder()
+                .setPollIntervalMs(10)
+                .setCheckpointFrames(8)
+                .build();
+        final long[] firstResult = new long[1];
+        final Exception[] firstError = new Exception[1];
+        Thread follower = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try (CobraSimulatedEngine engine = new CobraSimulatedEngine.Builder().build()) {
+                    firstResult[0] = first.follow(engine, input, output, checkpoint);
+                } catch (Exception e) {
+                    firstError[0] = e;
+                }
+            }
+        });
+        follower.start();
+        long checkpointed = 4L * (firstFrames - firstFrames % 8);
+        for (int i = 0; i < 500 && output.length() < checkpointed; i++) {
+            Thread.sleep(10);
+        }
+        first.stop();
+        follower.join(5000);
+        assertFalse(follower.isAlive());
+        assertNull(firstError[0]);
+        int stoppedAt = (int) firstResult[0];
+        assertTrue(stoppedAt >= firstFrames - firstFrames % 8);
+        assertTrue(stoppedAt <= firstFrames);
+        assertEquals(4L * stoppedAt, output.length());
+
+        // the writer appends the rest and finalizes the header; a new follower resumes at the checkpoint
+        byte[] rest = Arrays.copyOfRange(wav, 44 + 2 * firstFrames * frameLength, wav.length);
+        try (RandomAccessFile file = new RandomAccessFile(input, "rw")) {
+            file.seek(file.length());
+            file.write(rest);
+            file.seek(40);
+            file.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(2 * samples.length).array());
+        }
+        CobraTailFollower second = new CobraTailFollower.Builder()
+                .setPollIntervalMs(10)
+                .setCheckpointFrames(8)
+                .build();
+        try (CobraSimulatedEngine engine = new CobraSimulatedEngine.Builder().build()) {
+            assertEquals(numFrames, second.follow(engine, input, output, checkpoint));
+        }
+
+        // frames before the stop continue the first engine's context, the rest start a fresh one
+        List<Float> expectedProbs = new ArrayList<>();
+        try (CobraSimulatedEngine before = new CobraSimulatedEngine.Builder().build();
+             CobraSimulatedEngine after = new CobraSimulatedEngine.Builder().build()) {
+            short[] pcm = new short[frameLength];
+            for (int i = 0; i < numFrames; i++) {
+                System.arraycopy(samples, i * frameLength, pcm, 0, frameLength);
+                expectedProbs.add((i < stoppedAt ? before : after).process(pcm));
+            }
+        }
+        byte[] results = new byte[(int) output.length()];
+        try (FileInputStream outputStream = new FileInputStream(output)) {
+            assertEquals(results.length, outputStream.read(results));
+        }
+        FloatBuffer probs = ByteBuffer.wrap(results).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        assertEquals(numFrames, probs.remaining());
+        for (int i = 0; i < numFrames; i++) {
+            assertEquals(expectedProbs.get(i), probs.get(i), 0.f);
+        }
+    }
+
+    @Test
+    public void testHotSwap() throws CobraException, InterruptedException {
+        final List<Integer> completed = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Integer> failed = Collections.synchronizedList(new ArrayList<Integer>());
+        final AtomicInteger liveEngines = new AtomicInteger();
+        final AtomicInteger replacementFrames = new AtomicInteger();
+        CobraHotSwap hotSwap = new CobraHotSwap.Builder()
+                .setEngineFactory(trackedFactory("initial", 0, liveEngines, new AtomicInteger()))
+                .setWarmupFrames(8)
+                .setListener(new CobraHotSwap.Listener() {
+                    @Override
+                    public void onSwapComplete(int generation) {
+                        completed.add(generation);
+                    }
+
+                    @Override
+                    public void onSwapFailed(int generation, CobraException e) {
+                        failed.add(generation);
+                    }
+                })
+                .build();
+        short[] pcm = new short[512];
+
+        // results come from the old engine until the replacement has processed its warm-up frames
+        CobraEngine stream = hotSwap.create();
+        int generation = hotSwap.swap(trackedFactory("replacement", 0, liveEngines, replacementFrames));
+        for (int i = 0; i < 500 && replacementFrames.get() < 1 + 2; i++) {
+            stream.process(pcm);
+            Thread.sleep(5);
+        }
+        assertEquals("initial", stream.getVersion());
+
+        // another swap is rejected until every stream has cut over
+        boolean didFail = false;
+        try {
+            hotSwap.swap(trackedFactory("second", 0, liveEngines, new AtomicInteger()));
+        } catch (CobraInvalidStateException e) {
+            didFail = true;
+        }
+        assertTrue(didFail);
+        for (int i = 0; i < 500 && stream.getVersion().equals("initial"); i++) {
+            stream.process(pcm);
+            Thread.sleep(5);
+        }
+        assertEquals("replacement", stream.getVersion());
+        // one priming frame and 8 warm-up frames
+        assertEquals(1 + 8, replacementFrames.get());
+        for (int i = 0; i < 100 && hotSwap.isSwapping(); i++) {
+            Thread.sleep(10);
+        }
+        assertFalse(hotSwap.isSwapping());
+        assertEquals(Arrays.asList(generation), completed);
+        assertEquals(generation, hotSwap.getGeneration());
+
+        // a failing first replacement abandons the swap and keeps the current configuration
+        int failedGeneration = hotSwap.swap(new CobraEngineFactory() {
+            @Override
+            public CobraEngine create() throws CobraException {
+                throw new CobraInvalidArgumentException("invalid configuration");
+            }
+        });
+        for (int i = 0; i < 100 && failed.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(Arrays.asList(failedGeneration), failed);
+        assertFalse(hotSwap.isSwapping());
+        assertEquals(generation, hotSwap.getGeneration());
+        stream.process(pcm);
+        assertEquals("replacement", stream.getVersion());
+        CobraEngine other = hotSwap.create();
+        assertEquals("replacement", other.getVersion());
+
+        // streams deleted while their replacement is being created or warmed up do not hold up the swap
+        final AtomicInteger slowFrames = new AtomicInteger();
+        int slowGeneration = hotSwap.swap(trackedFactory("slow", 200, liveEngines, slowFrames));
+        stream.delete();
+        for (int i = 0; i < 500 && slowFrames.get() < 2; i++) {
+            other.process(pcm);
+            Thread.sleep(5);
+        }
+        assertTrue(slowFrames.get() >= 2);
+        assertEquals("replacement", other.getVersion());
+        other.delete();
+        for (int i = 0; i < 100 && completed.size() < 2; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(Arrays.asList(generation, slowGeneration), completed);
+        assertFalse(hotSwap.isSwapping());
+        assertEquals(0, liveEngines.get());
+    }
+
+    @Test
+    public void testHub() throws CobraException, IOException {
+        File testAudio = new File(getAudioFilepath("sample.wav"));
+        List<Float> expectedProbs;
+        try (CobraSimulatedEngine engine = new CobraSimulatedEngine.Builder().build()) {
+            expectedProbs = processAudio(engine, testAudio);
+        }
+
+        CobraHub hub = new CobraHub.Builder()
+                .setEngineFactory(new CobraSimulatedEngine.Builder())
+                .build();
+        final List<Float> rawProbs = new ArrayList<>();
+        final List<Float> smoothedProbs = new ArrayList<>();
+        CobraHub.Subscription raw = hub.subscribe(new CobraHub.Subscriber() {
+            @Override
+            public void onProbability(float probability, float rawProbability, long frameIndex) {
+                assertEquals(rawProbs.size(), frameIndex);
+                rawProbs.add(probability);
+            }
+        }, 1.f);
+        hub.subscribe(new CobraHub.Subscriber() {
+            @Override
+            public void onProbability(float probability, float rawProbability, long frameIndex) {
+                smoothedProbs.add(probability);
+            }
+        }, 0.1f);
+        assertEquals(2, hub.getSubscriberCount());
+
+        List<Float> probs = processAudio(hub, testAudio);
+        assertEquals(expectedProbs, probs);
+        assertEquals(expectedProbs, rawProbs);
+        assertEquals(expectedProbs.size(), smoothedProbs.size());
+        assertNotEquals(expectedProbs, smoothedProbs);
+
+        raw.unsubscribe();
+        raw.unsubscribe();
+        assertEquals(1, hub.getSubscriberCount());
+        hub.process(new short[hub.getFrameLength()]);
+        assertEquals(expectedProbs.size(), rawProbs.size());
+        assertEquals(expectedProbs.size() + 1, smoothedProbs.size());
+        hub.delete();
+    }
+
+    @Test
+    public void testRtpReceiver() throws CobraException, IOException, InterruptedException {
+        File testAudio = new File(getAudioFilepath("sample.wav"));
+        List<Float> expectedProbs;
+        try (CobraSimulatedEngine engine = new CobraSimulatedEngine.Builder().build()) {
+            expectedProbs = processAudio(engine, testAudio);
+        }
+
+        // jitter buffer slots must stay consistent across the wrap of the 16-bit sequence number
+        boolean didFail = false;
+        try {
+            new CobraRtpReceiver.Builder()
+                    .setEngineFactory(new CobraSimulatedEngine.Builder())
+                    .setBufferPackets(100)
+                    .setListener(new CobraRtpReceiver.Listener() {
+                        @Override
+                        public void onProbability(long source, float probability, long frameIndex) {
+                        }
+
+                        @Override
+                        public void onError(long source, CobraException e) {
+                        }
+                    })
+                    .build();
+        } catch (CobraInvalidArgumentException e) {
+            didFail = true;
+        }
+        assertTrue(didFail);
+
+        final long ssrc = 0x12345678L;
+        final List<Float> probs = Collections.synchronizedList(new ArrayList<Float>());
+        final List<CobraException> errors = Collections.synchronizedList(new ArrayList<CobraException>());
+        // engine creation is slow, so the first packets wait in the jitter buffer for it
+        final CobraSimulatedEngine.Builder engineFactory = new CobraSimulatedEngine.Builder();
+        CobraRtpReceiver receiver = new CobraRtpReceiver.Builder()
+                .setEngineFactory(new CobraEngineFactory() {
+                    @Override
+                    public CobraEngine create() throws CobraException {
+                        try {
+                            Thread.sleep(200);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return engineFactory.create();
+                    }
+                })
+                .setListener(new CobraRtpReceiver.Listener() {
+                    @Override
+                    public void onProbability(long source, float probability, long frameIndex) {
+                        if (source == ssrc && frameIndex == probs.size()) {
+                            probs.add(probability);
+                        }
+                    }
+
+                    @Override
+                    public void onError(long source, CobraException e) {
+                        errors.add(e);
+                    }
+                })
+                .build();
+        receiver.start();
+        try {
+            // every third pair of packets arrives swapped, and the sequence number wraps midway
+            replayRtp(testAudio, receiver.getLocalPort(), ssrc, 65500, 3);
+            Thread.sleep(1000);
+        } finally {
+            receiver.stop();
+        }
+
+        assertTrue(errors.isEmpty());
+        assertEquals(0, receiver.getLatePacketCount());
+        assertEquals(0, receiver.getConcealedPacketCount());
+        // the replayer sends whole packets only, so the receiver may miss the last frame
+        assertTrue(probs.size() >= expectedProbs.size() - 1);
+        assertEquals(expectedProbs.subList(0, probs.size()), probs);
+
+        // a source whose engine cannot be created is ignored while it keeps sending, not retried
+        final AtomicInteger attempts = new AtomicInteger();
+        errors.clear();
+        receiver = new CobraRtpReceiver.Builder()
+                .setEngineFactory(new CobraEngineFactory() {
+                    @Override
+                    public CobraEngine create() throws CobraException {
+                        attempts.incrementAndGet();
+                        throw new CobraInvalidArgumentException("invalid configuration");
+                    }
+                })
+                .setStreamTimeoutMs(1000)
+                .setListener(new CobraRtpReceiver.Listener() {
+                    @Override
+                    public void onProbability(long source, float probability, long frameIndex) {
+                    }
+
+                    @Override
+                    public void onError(long source, CobraException e) {
+                        errors.add(e);
+                    }
+                })
+                .build();
+        receiver.start();
+        try {
+            replayRtp(testAudio, receiver.getLocalPort(), ssrc, 0, 0);
+        } finally {
+            receiver.stop();
+        }
+        assertEquals(1, attempts.get());
+        assertEquals(1, errors.size());
+    }
+
+    @Test
+    public void testServer() throws CobraException, IOException, InterruptedException {
+        File testAudio = new File(getAudioFilepath("sample.wav"));
+        List<Float> expectedProbs;
+        int frameLength;
+        int sampleRate;
+        try (CobraSimulatedEngine engine = new CobraSimulatedEngine.Builder().build()) {
+            expectedProbs = processAudio(engine, testAudio);
+            frameLength = engine.getFrameLength();
+            sampleRate = engine.getSampleRate();
+        }
+        byte[] wav = new byte[(int) testAudio.length()];
+        try (FileInputStream audioInputStream = new FileInputStream(testAudio)) {
+            assertEquals(wav.length, audioInputStream.read(wav));
+        }
+
+        CobraServer server = new CobraServer.Builder()
+                .setEngineFactory(new CobraSimulatedEngine.Builder())
+                .setMaxSessions(1)
+                .build();
+        server.start();
+        try {
+            InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+            try (Socket client = new Socket()) {
+                client.connect(address, 5000);
+                client.setSoTimeout(5000);
+                DataInputStream input = new DataInputStream(client.getInputStream());
+                ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+                input.readFully(header.array());
+                assertEquals(frameLength, header.getInt());
+                assertEquals(sampleRate, header.getInt());
+
+                // the only session is taken, so a second client is turned away
+                try (Socket rejected = new Socket()) {
+                    rejected.connect(address, 5000);
+                    rejected.setSoTimeout(5000);
+                    assertEquals(-1, rejected.getInputStream().read());
+                }
+
+                client.getOutputStream().write(wav, 44, wav.length - 44);
+                client.shutdownOutput();
+                ByteBuffer results = ByteBuffer.allocate(4 * expectedProbs.size()).order(ByteOrder.LITTLE_ENDIAN);
+                input.readFully(results.array());
+                List<Float> probs = new ArrayList<>();
+                while (results.hasRemaining()) {
+                    probs.add(results.getFloat());
+                }
+                assertEquals(expectedProbs, probs);
+                assertEquals(-1, input.read());
+            }
+
+            for (int i = 0; i < 50 && server.getSessionCount() > 0; i++) {
+                Thread.sleep(100);
+            }
+            assertEquals(0, server.getSessionCount());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testWorkerPool() throws CobraException, IOException {
+        Cobra cobra = new Cobra.Builder()
+                .setAccessKey(accessKey)
+                .setDevice(device)
+                .build();
+        File testAudio = new File(getAudioFilepath("sample.wav"));
+        List<Float> expectedProbs = processAudio(cobra, testAudio);
+        cobra.delete();
+
+        CobraWorkerPool pool = new CobraWorkerPool.Builder()
+                .setContext(appContext)
+                .setAccessKey(accessKey)
+                .setDevice(device)
+                .setNumWorkers(2)
+                .build();
+        try {
+            int[] pids = pool.getWorkerPids();
+            assertEquals(2, pids.length);
+            assertNotEquals(Process.myPid(), pids[0]);
+            assertNotEquals(pids[0], pids[1]);
+
+            CobraEngine engine = pool.create();
+            assertEquals(expectedProbs, processAudio(engine, testAudio));
+
+            // a worker that dies is restarted and its engines move to a live worker
+            for (int pid : pids) {
+                Process.killProcess(pid);
+            }
+            engine.reset();
+            assertEquals(expectedProbs, processAudio(engine, testAudio));
+            assertTrue(pool.getRestartCount() >= 1);
+            engine.delete();
+        } finally {
+            pool.delete();
+        }
+    }
+
     @Test
     public void testVersion() throws CobraException {
+        try (Cobra cobra = new Cobra.Builder()
+                .setAccessKey(accessKey)
+                .setDevice(device)
+                .build()) {
+            assertTrue(cobra.getVersion().length() > 0);
+        }
+    }
+
+    @Test
+    public void testClose() throws CobraException {
+        int liveInstances = Cobra.getLiveInstanceCount();
+
         Cobra cobra = new Cobra.Builder()
                 .setAccessKey(accessKey)
                 .setDevice(device)
                 .build();
-        assertTrue(cobra.getVersion().length() > 0);
+        assertEquals(liveInstances + 1, Cobra.getLiveInstanceCount());
+        assertTrue(Cobra.getEstimatedNativeBytes() >= 0);
+
+        cobra.close();
+        assertEquals(liveInstances, Cobra.getLiveInstanceCount());
+
+        cobra.close();
+        assertEquals(liveInstances, Cobra.getLiveInstanceCount());
     }
 
     @Test
@@ -144,6 +1539,50 @@ public class BaseTest {
         assertTrue(didFail);
     }
 
+    @Test
+    public void testTracing() throws CobraException, IOException {
+        File testAudio = new File(getAudioFilepath("sample.wav"));
+        Cobra.Builder builder = new Cobra.Builder()
+                .setAccessKey(accessKey)
+                .setDevice(device);
+        List<Float> expectedProbs;
+        try (Cobra cobra = builder.build()) {
+            expectedProbs = processAudio(cobra, testAudio);
+        }
+
+        Cobra.setTracingEnabled(true);
+        try {
+            try (Cobra cobra = builder.build()) {
+                assertEquals(expectedProbs, processAudio(cobra, testAudio));
+
+                // errors are traced and still reach the caller
+                boolean didFail = false;
+                try {
+                    cobra.process(new short[cobra.getFrameLength() + 1]);
+                } catch (CobraException e) {
+                    didFail = true;
+                }
+                assertTrue(didFail);
+            }
+
+            // the init section name includes the device and is truncated to the platform limit
+            char[] longDevice = new char[200];
+            Arrays.fill(longDevice, 'x');
+            boolean didFail = false;
+            try {
+                new Cobra.Builder()
+                        .setAccessKey(accessKey)
+                        .setDevice(new String(longDevice))
+                        .build();
+            } catch (CobraException e) {
+                didFail = true;
+            }
+            assertTrue(didFail);
+        } finally {
+            Cobra.setTracingEnabled(false);
+        }
+    }
+
     @Test
     public void testGetAvailableDevices() throws CobraException {
         String[] availableDevices = Cobra.getAvailableDevices();
@@ -180,6 +1619,151 @@ public class BaseTest {
         }
     }
     
+    private static CobraEngineFactory trackedFactory(
+            final String version,
+            final long createDelayMs,
+            final AtomicInteger liveEngines,
+            final AtomicInteger frames) {
+        return new CobraEngineFactory() {
+            @Override
+            public CobraEngine create() throws CobraException {
+                try {
+                    Thread.sleep(createDelayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                final CobraSimulatedEngine engine = new CobraSimulatedEngine.Builder().build();
+                liveEngines.incrementAndGet();
+                return new CobraEngine() {
+                    private boolean deleted = false;
+
+                    @Override
+                    public float process(short[] pcm) throws CobraException {
+                        frames.incrementAndGet();
+                        return engine.process(pcm);
+                    }
+
+                    @Override
+                    public void reset() throws CobraException {
+                        engine.reset();
+                    }
+
+                    @Override
+                    public int getFrameLength() {
+                        return engine.getFrameLength();
+                    }
+
+                    @Override
+                    public int getSampleRate() {
+                        return engine.getSampleRate();
+                    }
+
+                    @Override
+                    public String getVersion() {
+                        return version;
+                    }
+
+                    @Override
+                    public void delete() {
+                        if (!deleted) {
+                            deleted = true;
+                            liveEngines.decrementAndGet();
+                            engine.delete();
+                        }
+                    }
+
+                    @Override
+                    public void close() {
+                        delete();
+                    }
+                };
+            }
+        };
+    }
+
+    private static void writeWav(File file, short[] samples, byte[] listChunk) throws IOException {
+        int listBytes = listChunk != null ? 8 + listChunk.length : 0;
+        ByteBuffer wav = ByteBuffer.allocate(44 + 2 * samples.length + listBytes).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put("RIFF".getBytes()).putInt(wav.capacity() - 8).put("WAVEfmt ".getBytes())
+                .putInt(16).putShort((short) 1).putShort((short) 1).putInt(16000).putInt(32000)
+                .putShort((short) 2).putShort((short) 16)
+                .put("data".getBytes()).putInt(2 * samples.length);
+        for (short sample : samples) {
+            wav.putShort(sample);
+        }
+        if (listChunk != null) {
+            wav.put("LIST".getBytes()).putInt(listChunk.length).put(listChunk);
+        }
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(wav.array());
+        }
+    }
+
+    private void replayRtp(File testAudio, int port, long ssrc, int firstSequence, int swapInterval)
+            throws IOException, InterruptedException {
+        final int packetSamples = 320;
+        byte[] wav = new byte[(int) testAudio.length()];
+        try (FileInputStream audioInputStream = new FileInputStream(testAudio)) {
+            assertEquals(wav.length, audioInputStream.read(wav));
+        }
+        ByteBuffer pcm = ByteBuffer.wrap(wav, 44, wav.length - 44).slice().order(ByteOrder.LITTLE_ENDIAN);
+        int numPackets = pcm.remaining() / (2 * packetSamples);
+
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        ByteBuffer packet = ByteBuffer.allocate(12 + 2 * packetSamples);
+        try (DatagramChannel channel = DatagramChannel.open()) {
+            // pace against a clock like a real sender, so that sleep overshoot does not accumulate
+            long start = System.nanoTime();
+            for (int i = 0; i < numPackets; i++) {
+                // a swap interval of zero sends every packet in order
+                int index = i;
+                if (swapInterval > 0 && i % swapInterval == 1 && i + 1 < numPackets) {
+                    index = i + 1;
+                } else if (swapInterval > 0 && i > 1 && i % swapInterval == 2) {
+                    index = i - 1;
+                }
+                packet.clear();
+                packet.put((byte) 0x80)
+                        .put((byte) 96)
+                        .putShort((short) (firstSequence + index))
+                        .putInt(index * packetSamples)
+                        .putInt((int) ssrc);
+                for (int j = 0; j < packetSamples; j++) {
+                    packet.putShort(pcm.getShort(2 * (index * packetSamples + j)));
+                }
+                packet.flip();
+                channel.send(packet, address);
+                long wait = start + (i + 1) * packetSamples * 1000000000L / 16000 - System.nanoTime();
+                if (wait > 0) {
+                    Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+                }
+            }
+        }
+    }
+
+    List<Float> processAudio(CobraEngine cobra, File testAudio) throws CobraException, IOException {
+        List<Float> probs = new ArrayList<>();
+
+        FileInputStream audioInputStream = new FileInputStream(testAudio);
+
+        byte[] rawData = new byte[cobra.getFrameLength() * 2];
+        short[] pcm = new short[cobra.getFrameLength()];
+        ByteBuffer pcmBuff = ByteBuffer.wrap(rawData).order(ByteOrder.LITTLE_ENDIAN);
+
+        audioInputStream.skip(44);
+
+        while (audioInputStream.available() > 0) {
+            int numRead = audioInputStream.read(pcmBuff.array());
+            if (numRead == cobra.getFrameLength() * 2) {
+                pcmBuff.asShortBuffer().get(pcm);
+                probs.add(cobra.process(pcm));
+            }
+        }
+        audioInputStream.close();
+
+        return probs;
+    }
+
     public String getAudioFilepath(String audioFilename) throws IOException {
         Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
         String resPath = new File(
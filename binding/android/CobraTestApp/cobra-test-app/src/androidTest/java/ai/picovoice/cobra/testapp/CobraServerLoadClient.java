@@ -0,0 +1,297 @@
+/*
+    Copyright 2026 Picovoice Inc.
+    You may not use this file except in compliance with the license. A copy of the license is
+    located in the "LICENSE" file accompanying this source.
+    Unless required by applicable law or agreed to in writing, software distributed under the
+    License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+    express or implied. See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package ai.picovoice.cobra.testapp;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import ai.picovoice.cobra.CobraInvalidArgumentException;
+import ai.picovoice.cobra.CobraServer;
+
+/**
+ *   Load-test client for {@link CobraServer}. It opens a number of concurrent loopback connections,
+ *   streams the same audio over each of them (either paced at real time or as fast as the server
+ *   accepts it) and measures the round-trip latency of every frame, from the moment it starts being
+ *   sent to the moment its probability is received. Test tooling only; it is not part of the library.
+ **/
+public class CobraServerLoadClient {
+
+    private static final int LATENCY_BUCKET_US = 100;
+    private static final int LATENCY_BUCKETS = 20000;
+
+    private final int port;
+    private final int connections;
+    private final boolean realTime;
+
+    private CobraServerLoadClient(int port, int connections, boolean realTime) {
+        this.port = port;
+        this.connections = connections;
+        this.realTime = realTime;
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param pcm Single-channel 16-bit audio sampled at the server's sample rate, streamed over every
+     *            connection. A trailing partial frame is not sent.
+     * @return Results of the load test.
+     * @throws IOException if a connection fails.
+     * @throws InterruptedException if interrupted while waiting for the connections to finish.
+     */
+    public Report run(final short[] pcm) throws IOException, InterruptedException {
+        final AtomicLongArray histogram = new AtomicLongArray(LATENCY_BUCKETS);
+        final AtomicLong frames = new AtomicLong();
+        final IOException[] error = new IOException[1];
+
+        Thread[] threads = new Thread[connections];
+        long start = System.nanoTime();
+        for (int i = 0; i < connections; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        frames.addAndGet(runConnection(pcm, histogram));
+                    } catch (IOException e) {
+                        synchronized (error) {
+                            error[0] = e;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }, "CobraServerLoadClient-" + i);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        synchronized (error) {
+            if (error[0] != null) {
+                throw error[0];
+            }
+        }
+        return new Report(frames.get(), elapsed, histogram);
+    }
+
+    private long runConnection(short[] pcm, final AtomicLongArray histogram)
+            throws IOException, InterruptedException {
+        try (final SocketChannel channel = SocketChannel.open(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port))) {
+            channel.socket().setTcpNoDelay(true);
+
+            ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header);
+            final int frameLength = header.getInt(0);
+            final int sampleRate = header.getInt(4);
+            final int numFrames = pcm.length / frameLength;
+            final long[] sendTimes = new long[numFrames];
+            final IOException[] readError = new IOException[1];
+
+            Thread receiver = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    ByteBuffer results = ByteBuffer.allocate(4 * 256).order(ByteOrder.LITTLE_ENDIAN);
+                    int received = 0;
+                    try {
+                        while (received < numFrames) {
+                            if (channel.read(results) < 0) {
+                                throw new EOFException("CobraServer closed the connection.");
+                            }
+                            long now = System.nanoTime();
+                            int complete = results.position() / 4;
+                            for (int i = 0; i < complete; i++) {
+                                long sent;
+                                synchronized (sendTimes) {
+                                    sent = sendTimes[received];
+                                }
+                                int bucket = (int) ((now - sent) / 1000 / LATENCY_BUCKET_US);
+                                histogram.incrementAndGet(Math.min(bucket, LATENCY_BUCKETS - 1));
+                                received++;
+                            }
+                            results.flip();
+                            results.position(complete * 4);
+                            results.compact();
+                        }
+                    } catch (IOException e) {
+                        readError[0] = e;
+                    }
+                }
+            });
+            receiver.start();
+
+            ByteBuffer frame = ByteBuffer.allocate(frameLength * 2).order(ByteOrder.LITTLE_ENDIAN);
+            long periodNanos = frameLength * 1000000000L / sampleRate;
+            long start = System.nanoTime();
+            for (int f = 0; f < numFrames; f++) {
+                if (realTime) {
+                    long wait = start + f * periodNanos - System.nanoTime();
+                    if (wait > 0) {
+                        Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+                    }
+                }
+                frame.clear();
+                for (int i = 0; i < frameLength; i++) {
+                    frame.putShort(pcm[f * frameLength + i]);
+                }
+                frame.flip();
+                synchronized (sendTimes) {
+                    sendTimes[f] = System.nanoTime();
+                }
+                while (frame.hasRemaining()) {
+                    channel.write(frame);
+                }
+            }
+
+            receiver.join();
+            if (readError[0] != null) {
+                throw readError[0];
+            }
+            return numFrames;
+        }
+    }
+
+    private static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("CobraServer closed the connection.");
+            }
+        }
+    }
+
+    /**
+     * Results of a load test.
+     */
+    public static class Report {
+
+        private final long frames;
+        private final long elapsedNanos;
+        private final AtomicLongArray histogram;
+
+        Report(long frames, long elapsedNanos, AtomicLongArray histogram) {
+            this.frames = frames;
+            this.elapsedNanos = elapsedNanos;
+            this.histogram = histogram;
+        }
+
+        /**
+         * Getter for the total number of frames processed over all connections.
+         *
+         * @return Number of frames.
+         */
+        public long getFrames() {
+            return frames;
+        }
+
+        /**
+         * Getter for the aggregate throughput.
+         *
+         * @return Frames processed per second over all connections.
+         */
+        public double getFramesPerSecond() {
+            return frames / (elapsedNanos / 1e9);
+        }
+
+        /**
+         * Getter for a percentile of the per-frame round-trip latency.
+         *
+         * @param percentile Percentile within (0, 100].
+         * @return Latency in milliseconds, with a resolution of 0.1 ms.
+         */
+        public double getLatencyPercentileMs(double percentile) {
+            long target = (long) Math.ceil(frames * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < histogram.length(); i++) {
+                seen += histogram.get(i);
+                if (seen >= target) {
+                    return (i + 1) * LATENCY_BUCKET_US / 1000.0;
+                }
+            }
+            return histogram.length() * LATENCY_BUCKET_US / 1000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "frames=%d fps=%.1f p50=%.1fms p99=%.1fms",
+                    frames,
+                    getFramesPerSecond(),
+                    getLatencyPercentileMs(50),
+                    getLatencyPercentileMs(99));
+        }
+    }
+
+    /**
+     * Builder for creating an instance of CobraServerLoadClient with a mixture of default arguments.
+     */
+    public static class Builder {
+
+        private int port = -1;
+        private int connections = 1;
+        private boolean realTime = true;
+
+        /**
+         * Setter for the loopback TCP port of the server.
+         *
+         * @param port Port returned by {@link CobraServer#getPort()}.
+         */
+        public Builder setPort(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Setter for the number of concurrent connections.
+         *
+         * @param connections Number of connections, each streaming the full audio.
+         */
+        public Builder setConnections(int connections) {
+            this.connections = connections;
+            return this;
+        }
+
+        /**
+         * Setter for real-time pacing.
+         *
+         * @param realTime If true, frames are sent at the rate they would be captured. Otherwise they are
+         *                 sent as fast as the server accepts them.
+         */
+        public Builder setRealTime(boolean realTime) {
+            this.realTime = realTime;
+            return this;
+        }
+
+        /**
+         * Validates properties and creates an instance of CobraServerLoadClient.
+         *
+         * @return An instance of CobraServerLoadClient
+         * @throws CobraException if the properties are invalid.
+         */
+        public CobraServerLoadClient build() throws CobraException {
+            if (port <= 0 || port > 65535) {
+                throw new CobraInvalidArgumentException(String.format("Invalid port %d.", port));
+            }
+            if (connections <= 0) {
+                throw new CobraInvalidArgumentException("Number of connections must be positive.");
+            }
+
+            return new CobraServerLoadClient(port, connections, realTime);
+        }
+    }
+}
@@ -77,4 +77,45 @@ public class PerformanceTest extends BaseTest {
         );
     }
 
+    @Test
+    public void testInitPerformance() throws Exception {
+        String thresholdString = appContext.getString(R.string.initPerformanceThresholdSec);
+        Assume.assumeNotNull(thresholdString);
+        Assume.assumeFalse(thresholdString.equals(""));
+
+        double initPerformanceThresholdSec = Double.parseDouble(thresholdString);
+
+        // initialization validates the AccessKey, so keep the number of instances small
+        int numInitIterations = Math.min(numTestIterations, 10);
+        Cobra probe = new Cobra.Builder()
+                .setAccessKey(accessKey)
+                .setDevice(device)
+                .build();
+        short[] pcm = new short[probe.getFrameLength()];
+        probe.delete();
+
+        long totalNSec = 0;
+        for (int i = 0; i < numInitIterations; i++) {
+            long before = System.nanoTime();
+            Cobra cobra = new Cobra.Builder()
+                    .setAccessKey(accessKey)
+                    .setDevice(device)
+                    .build();
+            cobra.process(pcm);
+            long after = System.nanoTime();
+            totalNSec += after - before;
+            cobra.delete();
+        }
+
+        double avgNSec = totalNSec / (double) numInitIterations;
+        double avgSec = ((double) Math.round(avgNSec * 1e-6)) / 1000.0;
+        assertTrue(
+                String.format(
+                        "Expected threshold (%.3fs), init to first probability took (%.3fs)",
+                        initPerformanceThresholdSec,
+                        avgSec),
+                avgSec <= initPerformanceThresholdSec
+        );
+    }
+
 }